@@ -1,10 +1,12 @@
 package io.github.thebusybiscuit.slimefun4.api.geo;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nonnull;
@@ -50,6 +52,7 @@ public class ResourceManager {
 
     private final int[] backgroundSlots = { 0, 1, 2, 3, 5, 6, 7, 8, 9, 17, 18, 26, 27, 35, 36, 44, 45, 46, 48, 49, 50, 52, 53 };
     private final Config config;
+    private final ResourceStore store = new ResourceStore(new File("data-storage/Slimefun/stored-resources/"));
 
     /**
      * This will create a new {@link ResourceManager}.
@@ -109,14 +112,53 @@ public class ResourceManager {
         Validate.notNull(resource, "Cannot get supplies for null");
         Validate.notNull(world, "World must not be null");
 
+        int value = store.get(world, x, z, store.getIndex(resource.getKey()));
+
+        if (value != ResourceStore.NOT_GENERATED) {
+            return OptionalInt.of(value);
+        } else {
+            return getLegacySupplies(resource, world, x, z);
+        }
+    }
+
+    /**
+     * Supplies used to be stored alongside other chunk data in the {@link BlockStorage}.
+     * Whenever we come across such a value, we move it into our {@link ResourceStore}.
+     */
+    private @Nonnull OptionalInt getLegacySupplies(@Nonnull GEOResource resource, @Nonnull World world, int x, int z) {
+        if (!BlockStorage.hasChunkInfo(world, x, z)) {
+            return OptionalInt.empty();
+        }
+
         String key = resource.getKey().toString().replace(':', '-');
         String value = BlockStorage.getChunkInfo(world, x, z, key);
 
-        if (value != null) {
-            return OptionalInt.of(Integer.parseInt(value));
-        } else {
+        if (value == null) {
             return OptionalInt.empty();
         }
+
+        int supplies = Integer.parseInt(value);
+        setSupplies(resource, world, x, z, supplies);
+        BlockStorage.setChunkInfo(world, x, z, key, null);
+        return OptionalInt.of(supplies);
+    }
+
+    /**
+     * This method checks whether any {@link GEOResource} has been generated in the given {@link Chunk}.
+     * 
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The {@link Chunk} x coordinate
+     * @param z
+     *            The {@link Chunk} z coordinate
+     * 
+     * @return Whether this {@link Chunk} was scanned before
+     */
+    public boolean hasSupplies(@Nonnull World world, int x, int z) {
+        Validate.notNull(world, "World must not be null");
+
+        return store.hasChunk(world, x, z) || BlockStorage.hasChunkInfo(world, x, z);
     }
 
     /**
@@ -137,8 +179,49 @@ public class ResourceManager {
         Validate.notNull(resource, "Cannot set supplies for null");
         Validate.notNull(world, "World cannot be null");
 
-        String key = resource.getKey().toString().replace(':', '-');
-        BlockStorage.setChunkInfo(world, x, z, key, String.valueOf(value));
+        store.set(world, x, z, store.getIndex(resource.getKey()), value);
+    }
+
+    /**
+     * This method generates the supplies of every {@link GEOResource} in all {@link Chunk Chunks}
+     * within the given radius, so that players do not have to scan them first.
+     * <p>
+     * {@link Chunk Chunks} which have been generated before are skipped, all others are loaded
+     * asynchronously, a few at a time.
+     * 
+     * @param world
+     *            The {@link World}
+     * @param centerX
+     *            The x coordinate of the center {@link Chunk}
+     * @param centerZ
+     *            The z coordinate of the center {@link Chunk}
+     * @param radius
+     *            The radius in {@link Chunk Chunks}
+     * 
+     * @return A {@link CompletableFuture} holding the amount of {@link Chunk Chunks} that were generated
+     */
+    public @Nonnull CompletableFuture<Integer> pregenerate(@Nonnull World world, int centerX, int centerZ, int radius) {
+        Validate.notNull(world, "World cannot be null");
+        Validate.isTrue(radius >= 0, "The radius cannot be negative");
+
+        ResourcePregenerationTask task = new ResourcePregenerationTask(this, store, world, Slimefun.getRegistry().getGEOResources().values());
+        return task.start(centerX, centerZ, radius);
+    }
+
+    /**
+     * This method writes the supplies of every changed {@link Chunk} to the disk.
+     * It is safe to call this method asynchronously.
+     */
+    public void save() {
+        store.save();
+    }
+
+    /**
+     * This method saves all supplies and closes any open files.
+     * It should only be called when Slimefun shuts down.
+     */
+    public void close() {
+        store.close();
     }
 
     /**
@@ -159,7 +242,7 @@ public class ResourceManager {
      * 
      * @return The new supply value
      */
-    private int generate(@Nonnull GEOResource resource, @Nonnull World world, int x, int y, int z) {
+    int generate(@Nonnull GEOResource resource, @Nonnull World world, int x, int y, int z) {
         Validate.notNull(resource, "Cannot generate resources for null");
         Validate.notNull(world, "World cannot be null");
 
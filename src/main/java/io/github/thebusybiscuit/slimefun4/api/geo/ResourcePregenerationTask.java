@@ -0,0 +1,153 @@
+package io.github.thebusybiscuit.slimefun4.api.geo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import io.papermc.lib.PaperLib;
+
+/**
+ * The {@link ResourcePregenerationTask} generates the supplies of every {@link GEOResource}
+ * for all {@link Chunk Chunks} in a square around a center {@link Chunk}.
+ * <p>
+ * Looking up which {@link Chunk Chunks} still need to be generated happens off the main thread.
+ * The {@link Chunk Chunks} themselves are then loaded asynchronously where the server supports it,
+ * only a few at a time, and their supplies are generated on the main thread.
+ *
+ * @see ResourceManager#pregenerate(World, int, int, int)
+ *
+ */
+final class ResourcePregenerationTask {
+
+    /**
+     * The amount of {@link Chunk Chunks} we load at the same time.
+     */
+    private static final int PARALLEL_LOADS = 4;
+
+    private final ResourceManager manager;
+    private final ResourceStore store;
+    private final World world;
+    private final List<GEOResource> resources;
+    private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+    // These fields are only accessed from the main thread
+    private final Queue<int[]> chunks = new ArrayDeque<>();
+    private int loading = 0;
+    private int generated = 0;
+
+    @ParametersAreNonnullByDefault
+    ResourcePregenerationTask(ResourceManager manager, ResourceStore store, World world, Collection<GEOResource> resources) {
+        this.manager = manager;
+        this.store = store;
+        this.world = world;
+        this.resources = new ArrayList<>(resources);
+    }
+
+    /**
+     * This starts this task.
+     *
+     * @param centerX
+     *            The x coordinate of the center {@link Chunk}
+     * @param centerZ
+     *            The z coordinate of the center {@link Chunk}
+     * @param radius
+     *            The radius in {@link Chunk Chunks}
+     *
+     * @return A {@link CompletableFuture} holding the amount of {@link Chunk Chunks} that were generated
+     */
+    @Nonnull
+    CompletableFuture<Integer> start(int centerX, int centerZ, int radius) {
+        Slimefun.getThreadService().newThread(Slimefun.instance(), "GEO Pregeneration (" + world.getName() + ')', () -> {
+            List<int[]> missing = new ArrayList<>();
+
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    if (isMissing(x, z)) {
+                        missing.add(new int[] { x, z });
+                    }
+                }
+            }
+
+            if (Slimefun.runSync(() -> load(missing)) == null && !future.isDone()) {
+                // Slimefun was disabled in the meantime
+                future.complete(generated);
+            }
+        });
+
+        return future;
+    }
+
+    private boolean isMissing(int x, int z) {
+        for (GEOResource resource : resources) {
+            if (store.get(world, x, z, store.getIndex(resource.getKey())) == ResourceStore.NOT_GENERATED) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void load(@Nonnull List<int[]> missing) {
+        chunks.addAll(missing);
+
+        for (int i = 0; i < PARALLEL_LOADS; i++) {
+            next();
+        }
+
+        if (loading == 0) {
+            future.complete(generated);
+        }
+    }
+
+    private void next() {
+        int[] chunk = chunks.poll();
+
+        if (chunk == null) {
+            return;
+        }
+
+        loading++;
+
+        PaperLib.getChunkAtAsync(world, chunk[0], chunk[1], true).whenComplete((loaded, error) -> Slimefun.runSync(() -> {
+            if (loaded != null) {
+                generate(loaded);
+            }
+
+            loading--;
+            next();
+
+            if (loading == 0 && chunks.isEmpty()) {
+                future.complete(generated);
+            }
+        }));
+    }
+
+    private void generate(@Nonnull Chunk chunk) {
+        int y = world.getHighestBlockYAt(chunk.getX() << 4, chunk.getZ() << 4);
+        boolean changed = false;
+
+        for (GEOResource resource : resources) {
+            // getSupplies() also takes care of any legacy data
+            if (!manager.getSupplies(resource, world, chunk.getX(), chunk.getZ()).isPresent()) {
+                manager.generate(resource, world, chunk.getX(), y, chunk.getZ());
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            generated++;
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+package io.github.thebusybiscuit.slimefun4.api.geo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.storage.backend.regions.RegionFile;
+
+/**
+ * The {@link ResourceStore} holds the supplies of every {@link GEOResource} per chunk.
+ * <p>
+ * Every chunk is represented by a primitive int array, indexed by the {@link GEOResource}.
+ * These arrays are never modified once they were published, a change replaces the array of
+ * that chunk instead. This way, they can be read from any thread without locking.
+ * <p>
+ * On disk, the supplies are partitioned into {@link RegionFile RegionFiles}. A region is read
+ * the first time one of its chunks is accessed and only changed chunks are written on {@link #save()}.
+ *
+ * @see ResourceManager
+ *
+ */
+@ThreadSafe
+final class ResourceStore {
+
+    /**
+     * This value marks a {@link GEOResource} that has not been generated in a chunk yet.
+     */
+    static final int NOT_GENERATED = Integer.MIN_VALUE;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final File directory;
+    private final Map<String, WorldStore> worlds = new ConcurrentHashMap<>();
+
+    private final Map<NamespacedKey, Integer> indices = new ConcurrentHashMap<>();
+    private final List<NamespacedKey> keys = new CopyOnWriteArrayList<>();
+
+    /**
+     * This creates a new {@link ResourceStore}.
+     *
+     * @param directory
+     *            The directory which holds a folder for every {@link World}
+     */
+    ResourceStore(@Nonnull File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * This returns the index of the given {@link NamespacedKey} within our int arrays.
+     * Indices are only valid while the server is running, on disk we store the keys.
+     *
+     * @param key
+     *            The {@link NamespacedKey} of a {@link GEOResource}
+     *
+     * @return The index of that resource
+     */
+    int getIndex(@Nonnull NamespacedKey key) {
+        Integer index = indices.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (keys) {
+            return indices.computeIfAbsent(key, k -> {
+                keys.add(k);
+                return keys.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * This returns the supplies of the given resource in the given chunk.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The chunk x coordinate
+     * @param z
+     *            The chunk z coordinate
+     * @param index
+     *            The index of the resource, see {@link #getIndex(NamespacedKey)}
+     *
+     * @return The supplies or {@link #NOT_GENERATED}
+     */
+    int get(@Nonnull World world, int x, int z, int index) {
+        int[] values = getWorld(world).getChunk(x, z);
+        return index < values.length ? values[index] : NOT_GENERATED;
+    }
+
+    /**
+     * This checks whether any resource was generated in the given chunk.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The chunk x coordinate
+     * @param z
+     *            The chunk z coordinate
+     *
+     * @return Whether the chunk holds any supplies
+     */
+    boolean hasChunk(@Nonnull World world, int x, int z) {
+        return getWorld(world).getChunk(x, z).length > 0;
+    }
+
+    /**
+     * This sets the supplies of the given resource in the given chunk.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The chunk x coordinate
+     * @param z
+     *            The chunk z coordinate
+     * @param index
+     *            The index of the resource, see {@link #getIndex(NamespacedKey)}
+     * @param value
+     *            The new supplies
+     */
+    void set(@Nonnull World world, int x, int z, int index, int value) {
+        getWorld(world).setChunk(x, z, index, value);
+    }
+
+    /**
+     * This writes every changed chunk to the disk.
+     */
+    void save() {
+        for (WorldStore store : worlds.values()) {
+            try {
+                store.save();
+            } catch (IOException x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "Could not save the GEO resources of world \"" + store.directory.getName() + '"');
+            }
+        }
+    }
+
+    /**
+     * This saves and closes every {@link RegionFile}.
+     */
+    void close() {
+        save();
+
+        for (WorldStore store : worlds.values()) {
+            store.close();
+        }
+
+        worlds.clear();
+    }
+
+    @Nonnull
+    private WorldStore getWorld(@Nonnull World world) {
+        return worlds.computeIfAbsent(world.getName(), name -> new WorldStore(new File(directory, name)));
+    }
+
+    private static long getKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    @Nonnull
+    private byte[] encode(@Nonnull int[] values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int size = 0;
+
+            for (int value : values) {
+                if (value != NOT_GENERATED) {
+                    size++;
+                }
+            }
+
+            out.writeShort(size);
+
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != NOT_GENERATED) {
+                    out.writeUTF(keys.get(i).toString());
+                    out.writeInt(values[i]);
+                }
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    private int[] decode(@Nonnull byte[] payload) throws IOException {
+        int[] values = EMPTY;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int size = in.readUnsignedShort();
+
+            for (int i = 0; i < size; i++) {
+                NamespacedKey key = NamespacedKey.fromString(in.readUTF());
+                int value = in.readInt();
+
+                if (key != null) {
+                    values = with(values, getIndex(key), value);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    @Nonnull
+    private static int[] with(@Nonnull int[] values, int index, int value) {
+        int[] copy = Arrays.copyOf(values, Math.max(values.length, index + 1));
+
+        if (copy.length > values.length) {
+            Arrays.fill(copy, values.length, copy.length, NOT_GENERATED);
+        }
+
+        copy[index] = value;
+        return copy;
+    }
+
+    /**
+     * The supplies of a single {@link World}.
+     */
+    private final class WorldStore {
+
+        private final File directory;
+        private final Map<Long, int[]> chunks = new ConcurrentHashMap<>();
+        private final Map<Long, RegionFile> regions = new ConcurrentHashMap<>();
+        private final Set<Long> loadedRegions = ConcurrentHashMap.newKeySet();
+        private final Set<Long> changes = ConcurrentHashMap.newKeySet();
+
+        private WorldStore(@Nonnull File directory) {
+            this.directory = directory;
+        }
+
+        @Nonnull
+        private int[] getChunk(int x, int z) {
+            loadRegion(x >> 5, z >> 5);
+            return chunks.getOrDefault(getKey(x, z), EMPTY);
+        }
+
+        private void setChunk(int x, int z, int index, int value) {
+            loadRegion(x >> 5, z >> 5);
+            long key = getKey(x, z);
+
+            chunks.compute(key, (k, values) -> with(values == null ? EMPTY : values, index, value));
+            changes.add(key);
+        }
+
+        private void loadRegion(int regionX, int regionZ) {
+            long key = getKey(regionX, regionZ);
+
+            if (loadedRegions.contains(key)) {
+                return;
+            }
+
+            synchronized (this) {
+                if (loadedRegions.contains(key)) {
+                    return;
+                }
+
+                try {
+                    RegionFile region = getRegion(regionX, regionZ, false);
+
+                    if (region != null) {
+                        for (int localZ = 0; localZ < RegionFile.REGION_SIZE; localZ++) {
+                            for (int localX = 0; localX < RegionFile.REGION_SIZE; localX++) {
+                                int chunkX = (regionX << 5) + localX;
+                                int chunkZ = (regionZ << 5) + localZ;
+                                byte[] payload = region.read(chunkX, chunkZ);
+
+                                if (payload != null) {
+                                    // Values that were set in the meantime take precedence
+                                    chunks.putIfAbsent(getKey(chunkX, chunkZ), decode(payload));
+                                }
+                            }
+                        }
+                    }
+                } catch (IOException x) {
+                    Slimefun.logger().log(Level.SEVERE, x, () -> "Could not load the GEO resources of region " + regionX + ", " + regionZ + " in world \"" + directory.getName() + '"');
+                }
+
+                loadedRegions.add(key);
+            }
+        }
+
+        @Nullable
+        private RegionFile getRegion(int regionX, int regionZ, boolean create) throws IOException {
+            long key = getKey(regionX, regionZ);
+            RegionFile region = regions.get(key);
+
+            if (region != null) {
+                return region;
+            }
+
+            File file = new File(directory, "r." + regionX + '.' + regionZ + ".sfr");
+
+            if (!create && !file.exists()) {
+                return null;
+            }
+
+            synchronized (regions) {
+                region = regions.get(key);
+
+                if (region == null) {
+                    directory.mkdirs();
+                    region = new RegionFile(file);
+                    regions.put(key, region);
+                }
+
+                return region;
+            }
+        }
+
+        private void save() throws IOException {
+            Iterator<Long> iterator = changes.iterator();
+
+            while (iterator.hasNext()) {
+                long key = iterator.next();
+                iterator.remove();
+
+                int chunkX = (int) (key >> 32);
+                int chunkZ = (int) key;
+                int[] values = chunks.getOrDefault(key, EMPTY);
+
+                try {
+                    getRegion(chunkX >> 5, chunkZ >> 5, true).write(chunkX, chunkZ, values.length == 0 ? null : encode(values));
+                } catch (IOException x) {
+                    // We will try again on the next save
+                    changes.add(key);
+                    throw x;
+                }
+            }
+        }
+
+        private void close() {
+            for (RegionFile region : regions.values()) {
+                try {
+                    region.close();
+                } catch (IOException x) {
+                    Slimefun.logger().log(Level.WARNING, x, () -> "Could not close " + region.getFile().getName());
+                }
+            }
+
+            regions.clear();
+        }
+    }
+
+}
@@ -1,10 +1,13 @@
 package io.github.thebusybiscuit.slimefun4.api.network;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -51,8 +54,11 @@ public abstract class Network {
      * This {@link Set} holds all {@link Network} positions that are part of this {@link Network}.
      * The {@link World} should be equal for all positions, therefore we can save memory by simply
      * storing {@link BlockPosition#getAsLong(int, int, int)}.
+     * <p>
+     * This is read from the main thread while the {@link Network} is ticked asynchronously,
+     * so it is never cleared in place but replaced as a whole.
      */
-    private final Set<Long> positions = new HashSet<>();
+    private volatile Set<Long> positions = ConcurrentHashMap.newKeySet();
 
     private final Queue<Location> nodeQueue = new ArrayDeque<>();
     protected final Set<Location> regulatorNodes = new HashSet<>();
@@ -114,6 +120,21 @@ public abstract class Network {
      */
     public abstract void onClassificationChange(Location l, NetworkComponent from, NetworkComponent to);
 
+    /**
+     * This method is called whenever a {@link Location} is no longer connected to this {@link Network},
+     * for example because the only connector leading to it was removed.
+     * Unlike {@link #onClassificationChange(Location, NetworkComponent, NetworkComponent)}, the
+     * block at this {@link Location} may still be there, it is just not part of this {@link Network} anymore.
+     * 
+     * @param l
+     *            The {@link Location} that was disconnected
+     * @param from
+     *            The {@link NetworkComponent} this {@link Location} was classified as
+     */
+    protected void onDisconnect(@Nonnull Location l, @Nonnull NetworkComponent from) {
+        onClassificationChange(l, from, null);
+    }
+
     /**
      * This returns the size of this {@link Network}. It is equivalent to the amount
      * of {@link Location Locations} connected to this {@link Network}.
@@ -135,6 +156,7 @@ public abstract class Network {
         Validate.isTrue(l.getWorld().getUID().equals(worldId), "Networks cannot exist in multiple worlds!");
 
         if (positions.add(BlockPosition.getAsLong(l))) {
+            manager.indexLocation(this, l);
             markDirty(l);
         }
     }
@@ -192,14 +214,24 @@ public abstract class Network {
 
         while (nodeQueue.peek() != null) {
             Location l = nodeQueue.poll();
+
+            if (!positions.contains(BlockPosition.getAsLong(l))) {
+                // This Location was disconnected from our Network while it was queued
+                continue;
+            }
+
             NetworkComponent currentAssignment = getCurrentClassification(l);
             NetworkComponent classification = classifyLocation(l);
 
             if (classification != currentAssignment) {
+                boolean disconnected = false;
+
                 if (currentAssignment == NetworkComponent.REGULATOR || currentAssignment == NetworkComponent.CONNECTOR) {
-                    // Requires a complete rebuild of the network, so we just throw the current one away.
-                    manager.unregisterNetwork(this);
-                    return;
+                    regulatorNodes.remove(l);
+                    connectorNodes.remove(l);
+
+                    // Other nodes may only have been reachable through this one
+                    disconnected = classification != NetworkComponent.REGULATOR && classification != NetworkComponent.CONNECTOR;
                 } else if (currentAssignment == NetworkComponent.TERMINUS) {
                     terminusNodes.remove(l);
                 }
@@ -215,6 +247,10 @@ public abstract class Network {
                 }
 
                 onClassificationChange(l, currentAssignment, classification);
+
+                if (disconnected) {
+                    removeDisconnectedNodes();
+                }
             }
 
             steps += 1;
@@ -225,6 +261,77 @@ public abstract class Network {
         }
     }
 
+    /**
+     * This removes every node that can no longer be reached from our regulator.
+     * Only the nodes we already know about are walked, no blocks are looked up,
+     * so the rest of this {@link Network} stays online while it is being split.
+     * Any disconnected regulator will simply start its own {@link Network}.
+     */
+    private void removeDisconnectedNodes() {
+        Set<Location> reachable = new HashSet<>();
+        Queue<Location> queue = new ArrayDeque<>();
+        reachable.add(regulator);
+        queue.add(regulator);
+
+        while (!queue.isEmpty()) {
+            Location l = queue.poll();
+
+            for (Location neighbor : getNeighbors(l)) {
+                NetworkComponent component = getCurrentClassification(neighbor);
+
+                if (component != null && reachable.add(neighbor) && component != NetworkComponent.TERMINUS) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+
+        disconnectNodes(regulatorNodes, reachable, NetworkComponent.REGULATOR);
+        disconnectNodes(connectorNodes, reachable, NetworkComponent.CONNECTOR);
+        disconnectNodes(terminusNodes, reachable, NetworkComponent.TERMINUS);
+
+        // Only keep the positions which are still in range of a connected node
+        Set<Long> connected = ConcurrentHashMap.newKeySet();
+        connected.add(BlockPosition.getAsLong(regulator));
+
+        for (Location l : reachable) {
+            connected.add(BlockPosition.getAsLong(l));
+
+            if (!terminusNodes.contains(l)) {
+                for (Location neighbor : getNeighbors(l)) {
+                    connected.add(BlockPosition.getAsLong(neighbor));
+                }
+            }
+        }
+
+        positions = connected;
+    }
+
+    private void disconnectNodes(@Nonnull Set<Location> nodes, @Nonnull Set<Location> reachable, @Nonnull NetworkComponent component) {
+        for (Location l : new ArrayList<>(nodes)) {
+            if (!reachable.contains(l)) {
+                nodes.remove(l);
+                onDisconnect(l, component);
+            }
+        }
+    }
+
+    @Nonnull
+    private List<Location> getNeighbors(@Nonnull Location l) {
+        int range = getRange() + 1;
+        List<Location> neighbors = new ArrayList<>(range * 6);
+
+        for (int i = 1; i <= range; i++) {
+            neighbors.add(l.clone().add(i, 0, 0));
+            neighbors.add(l.clone().add(-i, 0, 0));
+            neighbors.add(l.clone().add(0, i, 0));
+            neighbors.add(l.clone().add(0, -i, 0));
+            neighbors.add(l.clone().add(0, 0, i));
+            neighbors.add(l.clone().add(0, 0, -i));
+        }
+
+        return neighbors;
+    }
+
     private void discoverNeighbors(@Nonnull Location l, double xDiff, double yDiff, double zDiff) {
         for (int i = getRange() + 1; i > 0; i--) {
             Location newLocation = l.clone().add(i * xDiff, i * yDiff, i * zDiff);
@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
 
@@ -72,6 +73,8 @@ public final class SlimefunRegistry {
     private boolean disableLearningAnimation;
     private boolean logDuplicateBlockEntries;
     private boolean talismanActionBarMessages;
+    private boolean regionBlockStorage;
+    private boolean lazyChunkLoading;
 
     private final Set<String> tickers = new HashSet<>();
     private final Set<SlimefunItem> radioactive = new HashSet<>();
@@ -85,12 +88,12 @@ public final class SlimefunRegistry {
 
     private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
     private final Map<String, BlockStorage> worlds = new ConcurrentHashMap<>();
-    private final Map<String, BlockInfoConfig> chunks = new HashMap<>();
+    private final Map<String, BlockInfoConfig> chunks = new ConcurrentHashMap<>();
     private final Map<SlimefunGuideMode, SlimefunGuideImplementation> guides = new EnumMap<>(SlimefunGuideMode.class);
     private final Map<EntityType, Set<ItemStack>> mobDrops = new EnumMap<>(EntityType.class);
 
     private final Map<String, BlockMenuPreset> blockMenuPresets = new HashMap<>();
-    private final Map<String, UniversalBlockMenu> universalInventories = new HashMap<>();
+    private final Map<String, UniversalBlockMenu> universalInventories = new ConcurrentHashMap<>();
     private final Map<Class<? extends ItemHandler>, Set<ItemHandler>> globalItemHandlers = new HashMap<>();
 
     public void load(@Nonnull Slimefun plugin, @Nonnull Config cfg) {
@@ -113,6 +116,12 @@ public final class SlimefunRegistry {
         disableLearningAnimation = cfg.getBoolean("researches.disable-learning-animation");
         logDuplicateBlockEntries = cfg.getBoolean("options.log-duplicate-block-entries");
         talismanActionBarMessages = cfg.getBoolean("talismans.use-actionbar");
+        regionBlockStorage = "region".equalsIgnoreCase(cfg.getString("storage.block-data-format"));
+        lazyChunkLoading = cfg.getBoolean("storage.lazy-chunk-loading");
+
+        if (lazyChunkLoading && !regionBlockStorage) {
+            Slimefun.logger().log(Level.WARNING, "\"storage.lazy-chunk-loading\" requires \"storage.block-data-format\" to be set to \"region\", it will be ignored.");
+        }
     }
 
     /**
@@ -347,6 +356,27 @@ public final class SlimefunRegistry {
         return talismanActionBarMessages;
     }
 
+    /**
+     * This returns whether block data should be stored in binary region files
+     * instead of the legacy format of one file per item id.
+     * 
+     * @return Whether region files are used for block data
+     */
+    public boolean useRegionBlockStorage() {
+        return regionBlockStorage;
+    }
+
+    /**
+     * This returns whether Slimefun block data should only be held in memory for loaded chunks.
+     * The data of any other chunk is read from our region files on demand.
+     * This only applies if {@link #useRegionBlockStorage()} is enabled.
+     * 
+     * @return Whether lazy chunk loading is enabled
+     */
+    public boolean useLazyChunkLoading() {
+        return regionBlockStorage && lazyChunkLoading;
+    }
+
     @Nonnull
     public NamespacedKey getSoulboundDataKey() {
         return soulboundKey;
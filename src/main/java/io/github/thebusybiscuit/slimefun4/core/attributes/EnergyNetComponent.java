@@ -17,6 +17,7 @@ import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 
 /**
@@ -100,6 +101,11 @@ public interface EnergyNetComponent extends ItemAttribute {
             return 0;
         }
 
+        if (data instanceof BlockInfoConfig blockInfo) {
+            // This reads a typed slot, so we do not need to parse the charge on every tick
+            return blockInfo.getInt("energy-charge", 0);
+        }
+
         String charge = data.getString("energy-charge");
 
         if (charge != null) {
@@ -132,7 +138,7 @@ public interface EnergyNetComponent extends ItemAttribute {
 
                 // Do we even need to update the value?
                 if (charge != getCharge(l)) {
-                    BlockStorage.addBlockInfo(l, "energy-charge", String.valueOf(charge), false);
+                    BlockStorage.setIntBlockInfo(l, "energy-charge", charge);
 
                     // Update the capacitor texture
                     if (getEnergyComponentType() == EnergyNetComponentType.CAPACITOR) {
@@ -159,7 +165,7 @@ public interface EnergyNetComponent extends ItemAttribute {
                 // Check if there is even space for new energy
                 if (currentCharge < capacity) {
                     int newCharge = Math.min(capacity, currentCharge + charge);
-                    BlockStorage.addBlockInfo(l, "energy-charge", String.valueOf(newCharge), false);
+                    BlockStorage.setIntBlockInfo(l, "energy-charge", newCharge);
 
                     // Update the capacitor texture
                     if (getEnergyComponentType() == EnergyNetComponentType.CAPACITOR) {
@@ -186,7 +192,7 @@ public interface EnergyNetComponent extends ItemAttribute {
                 // Check if there is even energy stored
                 if (currentCharge > 0) {
                     int newCharge = Math.max(0, currentCharge - charge);
-                    BlockStorage.addBlockInfo(l, "energy-charge", String.valueOf(newCharge), false);
+                    BlockStorage.setIntBlockInfo(l, "energy-charge", newCharge);
 
                     // Update the capacitor texture
                     if (getEnergyComponentType() == EnergyNetComponentType.CAPACITOR) {
@@ -0,0 +1,129 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.bakedlibs.dough.blocks.BlockPosition;
+
+/**
+ * A {@link FailedLookupCache} remembers the machines which recently failed to find or craft a recipe,
+ * together with a fingerprint of the items they looked at.
+ * As long as that fingerprint stays the same, the machine can skip comparing all these items again.
+ * <p>
+ * A fingerprint only looks at the type, amount and presence of meta of every {@link ItemStack}, so a change
+ * to the meta alone may go unnoticed. This is why every failed lookup expires after a timeout.
+ */
+public final class FailedLookupCache {
+
+    private final Map<BlockPosition, FailedLookup> failedLookups = new ConcurrentHashMap<>();
+    private final long timeout;
+
+    /**
+     * This creates a new {@link FailedLookupCache}.
+     *
+     * @param timeout
+     *            After how many milliseconds a failed lookup is attempted again, even if nothing has changed
+     */
+    public FailedLookupCache(long timeout) {
+        Validate.isTrue(timeout > 0, "The timeout must be greater than zero");
+
+        this.timeout = timeout;
+    }
+
+    /**
+     * This returns whether the lookup at the given {@link BlockPosition} has recently failed
+     * for the same fingerprint.
+     *
+     * @param position
+     *            The {@link BlockPosition} of the machine
+     * @param fingerprint
+     *            The current fingerprint, see {@link #getFingerprint(ItemStack...)}
+     *
+     * @return Whether this lookup can be skipped
+     */
+    public boolean hasFailed(@Nonnull BlockPosition position, long fingerprint) {
+        FailedLookup failedLookup = failedLookups.get(position);
+        return failedLookup != null && failedLookup.matches(fingerprint);
+    }
+
+    /**
+     * This remembers that the lookup at the given {@link BlockPosition} has failed.
+     *
+     * @param position
+     *            The {@link BlockPosition} of the machine
+     * @param fingerprint
+     *            The fingerprint of the items that were looked at
+     */
+    public void markFailed(@Nonnull BlockPosition position, long fingerprint) {
+        failedLookups.put(position, new FailedLookup(fingerprint));
+    }
+
+    /**
+     * This forgets any failed lookup at the given {@link BlockPosition}.
+     *
+     * @param position
+     *            The {@link BlockPosition} of the machine
+     */
+    public void invalidate(@Nonnull BlockPosition position) {
+        failedLookups.remove(position);
+    }
+
+    /**
+     * This computes a cheap fingerprint of the given items.
+     * Empty slots are allowed and the order of the items matters.
+     *
+     * @param items
+     *            The items to fingerprint
+     *
+     * @return The fingerprint of these items
+     */
+    public static long getFingerprint(@Nullable ItemStack... items) {
+        long fingerprint = 1;
+
+        for (ItemStack item : items) {
+            fingerprint = 31 * fingerprint + getFingerprint(item);
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * This computes a cheap fingerprint of a single item.
+     *
+     * @param item
+     *            The item to fingerprint, may be null
+     *
+     * @return The fingerprint of this item, zero for an empty slot
+     */
+    public static long getFingerprint(@Nullable ItemStack item) {
+        if (item == null) {
+            return 0;
+        }
+
+        return (item.getType().ordinal() + 1L) * 257 + item.getAmount() * 2L + (item.hasItemMeta() ? 1 : 0);
+    }
+
+    /**
+     * This remembers the items of a machine at the time its lookup failed.
+     */
+    private final class FailedLookup {
+
+        private final long fingerprint;
+        private final long timestamp = System.currentTimeMillis();
+
+        private FailedLookup(long fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean matches(long fingerprint) {
+            return this.fingerprint == fingerprint && System.currentTimeMillis() - timestamp < timeout;
+        }
+    }
+
+}
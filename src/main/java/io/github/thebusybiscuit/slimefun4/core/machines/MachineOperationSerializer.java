@@ -0,0 +1,44 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link MachineOperationSerializer} turns a {@link MachineOperation} into a {@link String}
+ * and back, so that a {@link MachineProcessor} can store running operations alongside the
+ * block data of its machines.
+ * <p>
+ * The progress of an operation is stored separately by the {@link MachineProcessor},
+ * a serialized operation only needs to describe the operation itself.
+ *
+ * @param <T>
+ *            The type of {@link MachineOperation}
+ *
+ * @see MachineProcessor#setSerializer(MachineOperationSerializer)
+ */
+public interface MachineOperationSerializer<T extends MachineOperation> {
+
+    /**
+     * This serializes the given {@link MachineOperation}.
+     *
+     * @param operation
+     *            The {@link MachineOperation} to serialize
+     *
+     * @return The serialized operation or null if this operation cannot be serialized
+     */
+    @Nullable
+    String serialize(@Nonnull T operation);
+
+    /**
+     * This restores a {@link MachineOperation} from the output of {@link #serialize(MachineOperation)}.
+     * The returned {@link MachineOperation} should not have made any progress yet.
+     *
+     * @param data
+     *            The serialized operation
+     *
+     * @return The {@link MachineOperation} or null if it could not be restored
+     */
+    @Nullable
+    T deserialize(@Nonnull String data);
+
+}
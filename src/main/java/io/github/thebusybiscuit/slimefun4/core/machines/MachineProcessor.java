@@ -1,7 +1,10 @@
 package io.github.thebusybiscuit.slimefun4.core.machines;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -9,6 +12,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.event.Event;
 import org.bukkit.inventory.ItemStack;
@@ -16,8 +20,10 @@ import org.bukkit.inventory.ItemStack;
 import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.events.AsyncMachineOperationFinishEvent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.MachineProcessHolder;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 
 /**
@@ -34,10 +40,27 @@ import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
  */
 public class MachineProcessor<T extends MachineOperation> {
 
+    /**
+     * The block data key under which a serialized {@link MachineOperation} is stored.
+     */
+    private static final String OPERATION_KEY = "machine-operation";
+
+    /**
+     * The block data key under which the progress of a {@link MachineOperation} is stored.
+     */
+    private static final String PROGRESS_KEY = "machine-operation-progress";
+
+    /**
+     * Every {@link MachineProcessor} that persists its operations.
+     */
+    private static final Set<MachineProcessor<?>> persistentProcessors = ConcurrentHashMap.newKeySet();
+
     private final Map<BlockPosition, T> machines = new ConcurrentHashMap<>();
+    private final Set<BlockPosition> restored = ConcurrentHashMap.newKeySet();
     private final MachineProcessHolder<T> owner;
 
     private ItemStack progressBar;
+    private MachineOperationSerializer<T> serializer;
 
     /**
      * This creates a new {@link MachineProcessor}.
@@ -81,6 +104,34 @@ public class MachineProcessor<T extends MachineOperation> {
         this.progressBar = progressBar;
     }
 
+    /**
+     * This returns the {@link MachineOperationSerializer} used to persist operations
+     * or null if operations are only kept in memory.
+     * 
+     * @return The {@link MachineOperationSerializer} or null
+     */
+    public @Nullable MachineOperationSerializer<T> getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * This sets the {@link MachineOperationSerializer} for this {@link MachineProcessor}.
+     * Running operations will then be stored alongside the block data of their machine and
+     * restored the first time they are requested after a restart.
+     * 
+     * @param serializer
+     *            The {@link MachineOperationSerializer} or null to keep operations in memory only
+     */
+    public void setSerializer(@Nullable MachineOperationSerializer<T> serializer) {
+        this.serializer = serializer;
+
+        if (serializer != null) {
+            persistentProcessors.add(this);
+        } else {
+            persistentProcessors.remove(this);
+        }
+    }
+
     /**
      * This method will start a {@link MachineOperation} at the given {@link Location}.
      * 
@@ -132,7 +183,16 @@ public class MachineProcessor<T extends MachineOperation> {
         Validate.notNull(pos, "The BlockPosition must not be null");
         Validate.notNull(operation, "The machine operation cannot be null");
 
-        return machines.putIfAbsent(pos, operation) == null;
+        if (machines.putIfAbsent(pos, operation) == null) {
+            if (serializer != null) {
+                restored.add(pos);
+            }
+
+            store(pos, operation);
+            return true;
+        } else {
+            return false;
+        }
     }
 
     /**
@@ -174,7 +234,14 @@ public class MachineProcessor<T extends MachineOperation> {
     public @Nullable T getOperation(@Nonnull BlockPosition pos) {
         Validate.notNull(pos, "The BlockPosition must not be null");
 
-        return machines.get(pos);
+        T operation = machines.get(pos);
+
+        if (operation == null && serializer != null && restored.add(pos)) {
+            // This is the first time we are asked about this position, there may be a stored operation
+            operation = restore(pos);
+        }
+
+        return operation;
     }
 
     /**
@@ -222,6 +289,8 @@ public class MachineProcessor<T extends MachineOperation> {
         T operation = machines.remove(pos);
 
         if (operation != null) {
+            store(pos, null);
+
             /*
              * Only call an event if the operation actually finished.
              * If it was ended prematurely (aka aborted), then we don't call any event.
@@ -258,4 +327,149 @@ public class MachineProcessor<T extends MachineOperation> {
         }
     }
 
+    /**
+     * This writes the progress of every running {@link MachineOperation} of every
+     * {@link MachineProcessor} with a {@link MachineOperationSerializer} into the block data.
+     * Progress is only written in these batches, not on every tick.
+     */
+    public static void saveAllOperations() {
+        for (MachineProcessor<?> processor : persistentProcessors) {
+            processor.saveOperations();
+        }
+    }
+
+    private void saveOperations() {
+        for (Map.Entry<BlockPosition, T> entry : machines.entrySet()) {
+            Location l = toLocation(entry.getKey());
+
+            // Evicted chunks have already written their progress, we must not load them again
+            if (l != null && BlockStorage.isChunkResident(l)) {
+                saveProgress(l, entry.getValue());
+            }
+        }
+    }
+
+    private void saveProgress(@Nonnull Location l, @Nonnull T operation) {
+        if (BlockStorage.hasBlockInfo(l)) {
+            int progress = operation.getProgress();
+
+            if (BlockStorage.getIntBlockInfo(l, PROGRESS_KEY, 0) != progress) {
+                BlockStorage.setIntBlockInfo(l, PROGRESS_KEY, progress);
+            }
+        }
+    }
+
+    /**
+     * This is called right before the block data at the given {@link Location Locations} is evicted
+     * from memory. The progress of every persisted {@link MachineOperation} at these {@link Location Locations}
+     * is written into the block data and the {@link MachineOperation} is dropped, it will be restored
+     * once it is needed again.
+     * 
+     * @param locations
+     *            The {@link Location Locations} that are about to be evicted
+     */
+    public static void unloadOperations(@Nonnull Collection<Location> locations) {
+        for (MachineProcessor<?> processor : persistentProcessors) {
+            processor.unload(locations);
+        }
+    }
+
+    private void unload(@Nonnull Collection<Location> locations) {
+        for (Location l : locations) {
+            BlockPosition pos = new BlockPosition(l);
+            T operation = machines.remove(pos);
+
+            if (operation != null) {
+                saveProgress(l, operation);
+            }
+
+            restored.remove(pos);
+        }
+    }
+
+    /**
+     * This is called once the block data at the given {@link Location} has been removed.
+     * Any later {@link MachineOperation} at that {@link Location} will be looked up again.
+     * 
+     * @param l
+     *            The {@link Location} that was removed
+     */
+    public static void forgetOperations(@Nonnull Location l) {
+        BlockPosition pos = new BlockPosition(l);
+
+        for (MachineProcessor<?> processor : persistentProcessors) {
+            processor.restored.remove(pos);
+        }
+    }
+
+    private void store(@Nonnull BlockPosition pos, @Nullable T operation) {
+        if (serializer == null) {
+            return;
+        }
+
+        Location l = toLocation(pos);
+
+        if (l == null || !BlockStorage.isChunkResident(l) || !BlockStorage.hasBlockInfo(l)) {
+            return;
+        }
+
+        String data = operation == null ? null : serializer.serialize(operation);
+
+        if (data != null || BlockStorage.getLocationInfo(l, OPERATION_KEY) != null) {
+            BlockStorage.addBlockInfo(l, OPERATION_KEY, data);
+            BlockStorage.addBlockInfo(l, PROGRESS_KEY, data == null ? null : String.valueOf(operation.getProgress()));
+        }
+    }
+
+    @Nullable
+    private T restore(@Nonnull BlockPosition pos) {
+        Location l = toLocation(pos);
+
+        if (l == null || !BlockStorage.isChunkResident(l)) {
+            // We will try again once this chunk is back in memory
+            restored.remove(pos);
+            return null;
+        }
+
+        if (!BlockStorage.hasBlockInfo(l)) {
+            return null;
+        }
+
+        String data = BlockStorage.getLocationInfo(l, OPERATION_KEY);
+
+        if (data == null) {
+            return null;
+        }
+
+        T operation = null;
+
+        try {
+            operation = serializer.deserialize(data);
+        } catch (RuntimeException x) {
+            Slimefun.logger().log(Level.WARNING, x, () -> "Could not restore a machine operation at " + pos);
+        }
+
+        if (operation == null) {
+            // This operation can no longer be restored, we will not try again
+            BlockStorage.addBlockInfo(l, OPERATION_KEY, null);
+            BlockStorage.addBlockInfo(l, PROGRESS_KEY, null);
+            return null;
+        }
+
+        int progress = BlockStorage.getIntBlockInfo(l, PROGRESS_KEY, 0);
+
+        if (progress > 0) {
+            operation.addProgress(progress);
+        }
+
+        T previous = machines.putIfAbsent(pos, operation);
+        return previous != null ? previous : operation;
+    }
+
+    @Nullable
+    private static Location toLocation(@Nonnull BlockPosition pos) {
+        World world = pos.getWorld();
+        return world == null ? null : new Location(world, pos.getX(), pos.getY(), pos.getZ());
+    }
+
 }
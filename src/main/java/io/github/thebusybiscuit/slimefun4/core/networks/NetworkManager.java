@@ -1,9 +1,15 @@
 package io.github.thebusybiscuit.slimefun4.core.networks;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
@@ -13,6 +19,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Location;
 import org.bukkit.Server;
+import org.bukkit.World;
 
 import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.config.Config;
@@ -51,6 +58,18 @@ public class NetworkManager {
      */
     private final List<Network> networks = new CopyOnWriteArrayList<>();
 
+    /**
+     * This index maps every chunk (per {@link World}) to the networks that have discovered
+     * a position within that chunk. This way we only need to check a handful of networks
+     * when looking up the {@link Network Networks} at a given {@link Location}.
+     * <p>
+     * {@link #indexedChunks} holds the chunks of every registered {@link Network}, so they
+     * can be dropped from the index again. Both are only modified while holding a lock
+     * on {@link #indexedChunks}.
+     */
+    private final Map<UUID, Map<Long, Set<Network>>> networksByChunk = new ConcurrentHashMap<>();
+    private final Map<Network, Set<Long>> indexedChunks = new ConcurrentHashMap<>();
+
     /**
      * This creates a new {@link NetworkManager} with the given capacity.
      * 
@@ -126,9 +145,15 @@ public class NetworkManager {
         }
 
         Validate.notNull(type, "Type must not be null");
+        List<T> found = getNetworksFromLocation(l, type);
+
+        if (found.size() <= 1) {
+            return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+        }
 
+        // Overlapping networks are rare, but we should still prefer the one that was registered first
         for (Network network : networks) {
-            if (type.isInstance(network) && network.connectsTo(l)) {
+            if (found.contains(network)) {
                 return Optional.of(type.cast(network));
             }
         }
@@ -146,7 +171,7 @@ public class NetworkManager {
         Validate.notNull(type, "Type must not be null");
         List<T> list = new ArrayList<>();
 
-        for (Network network : networks) {
+        for (Network network : getIndexedNetworks(l)) {
             if (type.isInstance(network) && network.connectsTo(l)) {
                 list.add(type.cast(network));
             }
@@ -164,6 +189,12 @@ public class NetworkManager {
     public void registerNetwork(@Nonnull Network network) {
         Validate.notNull(network, "Cannot register a null Network");
         networks.add(network);
+
+        synchronized (indexedChunks) {
+            indexedChunks.putIfAbsent(network, new HashSet<>());
+        }
+
+        indexLocation(network, network.getRegulator());
     }
 
     /**
@@ -175,6 +206,64 @@ public class NetworkManager {
     public void unregisterNetwork(@Nonnull Network network) {
         Validate.notNull(network, "Cannot unregister a null Network");
         networks.remove(network);
+
+        synchronized (indexedChunks) {
+            Set<Long> chunks = indexedChunks.remove(network);
+            Map<Long, Set<Network>> index = networksByChunk.get(network.getRegulator().getWorld().getUID());
+
+            if (chunks != null && index != null) {
+                for (Long chunk : chunks) {
+                    Set<Network> indexed = index.get(chunk);
+
+                    if (indexed != null) {
+                        indexed.remove(network);
+
+                        if (indexed.isEmpty()) {
+                            index.remove(chunk);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This adds the chunk of the given {@link Location} to our index for this {@link Network}.
+     * It is called by a {@link Network} whenever it discovers a new {@link Location}
+     * and does nothing if the {@link Network} is not registered.
+     * 
+     * @param network
+     *            The {@link Network} which discovered this {@link Location}
+     * @param l
+     *            The {@link Location} that was discovered
+     */
+    public void indexLocation(@Nonnull Network network, @Nonnull Location l) {
+        long chunk = getChunkKey(l);
+
+        synchronized (indexedChunks) {
+            Set<Long> chunks = indexedChunks.get(network);
+
+            if (chunks != null && chunks.add(chunk)) {
+                Map<Long, Set<Network>> index = networksByChunk.computeIfAbsent(l.getWorld().getUID(), uuid -> new ConcurrentHashMap<>());
+                index.computeIfAbsent(chunk, key -> ConcurrentHashMap.newKeySet()).add(network);
+            }
+        }
+    }
+
+    @Nonnull
+    private Collection<Network> getIndexedNetworks(@Nonnull Location l) {
+        Map<Long, Set<Network>> index = networksByChunk.get(l.getWorld().getUID());
+
+        if (index == null) {
+            return Collections.emptySet();
+        }
+
+        Set<Network> indexed = index.get(getChunkKey(l));
+        return indexed == null ? Collections.emptySet() : indexed;
+    }
+
+    private static long getChunkKey(@Nonnull Location l) {
+        return ((long) (l.getBlockX() >> 4) << 32) | ((l.getBlockZ() >> 4) & 0xFFFFFFFFL);
     }
 
     /**
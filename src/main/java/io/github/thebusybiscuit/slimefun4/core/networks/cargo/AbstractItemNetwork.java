@@ -1,8 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -33,11 +31,11 @@ import io.github.bakedlibs.dough.common.ChatColors;
 import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.network.Network;
+import io.github.thebusybiscuit.slimefun4.api.network.NetworkComponent;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
-import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import io.papermc.lib.PaperLib;
 
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
@@ -81,6 +79,16 @@ abstract class AbstractItemNetwork extends Network {
      */
     protected Map<Location, ItemFilter> filterCache = new HashMap<>();
 
+    /**
+     * This is our index of all items available to the Chest Terminals.
+     */
+    private final TerminalItemIndex itemIndex = new TerminalItemIndex();
+
+    /**
+     * The {@link ItemStack ItemStacks} currently displayed by each Chest Terminal.
+     */
+    private final Map<Location, TerminalView> terminalViews = new HashMap<>();
+
     protected AbstractItemNetwork(Location regulator) {
         super(Slimefun.getNetworkManager(), regulator);
     }
@@ -137,8 +145,13 @@ abstract class AbstractItemNetwork extends Network {
             Optional<Block> target = getAttachedBlock(l);
 
             if (target.isPresent()) {
+                int amount = item.getAmount();
                 item = CargoUtils.insert(this, inventories, l.getBlock(), target.get(), false, item);
 
+                if (item == null || item.getAmount() != amount) {
+                    markInventoryChanged(target.get().getLocation());
+                }
+
                 if (item == null) {
                     terminal.replaceExistingItem(request.getSlot(), null);
                     break;
@@ -172,6 +185,8 @@ abstract class AbstractItemNetwork extends Network {
                 ItemStack is = CargoUtils.withdraw(this, inventories, l.getBlock(), target.get(), item);
 
                 if (is != null) {
+                    markInventoryChanged(target.get().getLocation());
+
                     if (stack == null) {
                         stack = is;
                     } else {
@@ -214,6 +229,7 @@ abstract class AbstractItemNetwork extends Network {
                     ItemStackAndInteger stack = CargoUtils.withdraw(this, inventories, bus.getBlock(), target.get());
 
                     if (stack != null) {
+                        markInventoryChanged(target.get().getLocation());
                         menu.replaceExistingItem(17, stack.getItem());
                     }
                 }
@@ -237,7 +253,10 @@ abstract class AbstractItemNetwork extends Network {
             ItemStack itemSlot17 = menu.getItemInSlot(17);
             if (itemSlot17 != null) {
                 Optional<Block> target = getAttachedBlock(bus);
-                target.ifPresent(block -> menu.replaceExistingItem(17, CargoUtils.insert(this, inventories, bus.getBlock(), block, false, itemSlot17)));
+                target.ifPresent(block -> {
+                    menu.replaceExistingItem(17, CargoUtils.insert(this, inventories, bus.getBlock(), block, false, itemSlot17));
+                    markInventoryChanged(block.getLocation());
+                });
             }
 
             if (menu.getItemInSlot(17) == null) {
@@ -301,6 +320,7 @@ abstract class AbstractItemNetwork extends Network {
         Location firstTerminal = null;
         SlimefunItem item = SlimefunItem.getById("CHEST_TERMINAL");
         List<ItemStackAndInteger> items = findAvailableItems(providers);
+        terminalViews.keySet().retainAll(terminals);
 
         try {
             for (Location l : terminals) {
@@ -313,10 +333,23 @@ abstract class AbstractItemNetwork extends Network {
                     BlockStorage.addBlockInfo(l, "page", String.valueOf(1));
                 }
 
+                TerminalView view = terminalViews.get(l);
+
+                if (view == null || view.menu != terminal) {
+                    // The terminal has not been rendered yet or its inventory was reloaded
+                    view = new TerminalView(terminal);
+                    terminalViews.put(l, view);
+                }
+
                 for (int i = 0; i < TERMINAL_SLOTS.length; i++) {
                     int slot = TERMINAL_SLOTS[i];
                     int index = i + (TERMINAL_SLOTS.length * (page - 1));
-                    updateTerminal(l, terminal, slot, index, items);
+                    ItemStackAndInteger stored = items.size() > index ? items.get(index) : null;
+
+                    // Only slots whose item or amount changed are rendered again
+                    if (view.update(i, stored)) {
+                        updateTerminal(l, terminal, slot, stored);
+                    }
                 }
 
                 if (firstTerminal == null) {
@@ -340,6 +373,20 @@ abstract class AbstractItemNetwork extends Network {
         super.markDirty(l);
     }
 
+    @Override
+    protected void onDisconnect(@Nonnull Location l, @Nonnull NetworkComponent from) {
+        // The node may still be there, but this network must not use it anymore
+        terminals.remove(l);
+        imports.remove(l);
+        exports.remove(l);
+        connectorCache.remove(l);
+        filterCache.remove(l);
+        terminalViews.remove(l);
+        itemIndex.remove(l);
+
+        super.onDisconnect(l, from);
+    }
+
     /**
      * This will mark the {@link ItemFilter} of the given node dirty.
      * It will also invalidate the cached rotation.
@@ -355,13 +402,25 @@ abstract class AbstractItemNetwork extends Network {
         }
 
         connectorCache.remove(node);
+        itemIndex.invalidate(node);
     }
 
-    @ParametersAreNonnullByDefault
-    private void updateTerminal(Location l, BlockMenu terminal, int slot, int index, List<ItemStackAndInteger> items) {
-        if (items.size() > index) {
-            ItemStackAndInteger item = items.get(index);
+    /**
+     * This notifies this network that items were moved in or out of the inventory
+     * at the given {@link Location}, so the Chest Terminals can pick up the change.
+     * 
+     * @param inventory
+     *            The {@link Location} of the inventory
+     */
+    void markInventoryChanged(@Nonnull Location inventory) {
+        if (!terminals.isEmpty()) {
+            itemIndex.markInventoryChanged(inventory);
+        }
+    }
 
+    @ParametersAreNonnullByDefault
+    private void updateTerminal(Location l, BlockMenu terminal, int slot, @Nullable ItemStackAndInteger item) {
+        if (item != null) {
             ItemStack stack = item.getItem().clone();
             stack.setAmount(1);
             ItemMeta im = stack.getItemMeta();
@@ -400,34 +459,43 @@ abstract class AbstractItemNetwork extends Network {
 
     @Nonnull
     private List<ItemStackAndInteger> findAvailableItems(@Nonnull Set<Location> providers) {
-        List<ItemStackAndInteger> items = new LinkedList<>();
+        itemIndex.startUpdate(providers);
 
         for (Location l : providers) {
             Optional<Block> block = getAttachedBlock(l);
 
             if (block.isPresent()) {
-                findAllItems(items, l, block.get());
+                findAllItems(l, block.get());
+            } else {
+                itemIndex.remove(l);
             }
         }
 
-        Collections.sort(items, Comparator.comparingInt(item -> -item.getInt()));
-        return items;
+        return itemIndex.finishUpdate();
     }
 
     @ParametersAreNonnullByDefault
-    private void findAllItems(List<ItemStackAndInteger> items, Location l, Block target) {
+    private void findAllItems(Location l, Block target) {
+        Location inventory = target.getLocation();
         UniversalBlockMenu menu = BlockStorage.getUniversalInventory(target);
 
         if (menu != null) {
-            for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
-                ItemStack is = menu.getItemInSlot(slot);
-                filter(is, items, l);
+            if (itemIndex.needsScan(l, inventory, menu)) {
+                itemIndex.update(l, inventory, menu, handleWithdraw(menu, l));
             }
         } else if (BlockStorage.hasInventory(target)) {
             BlockMenu blockMenu = BlockStorage.getInventory(target);
-            handleWithdraw(blockMenu, items, l);
+
+            if (itemIndex.needsScan(l, inventory, blockMenu)) {
+                itemIndex.update(l, inventory, blockMenu, handleWithdraw(blockMenu, l));
+            }
         } else if (CargoUtils.hasInventory(target)) {
+            if (!itemIndex.needsScan(l, inventory, null)) {
+                return;
+            }
+
             BlockState state = PaperLib.getBlockState(target, false).getState();
+            List<ItemStack> items = new ArrayList<>();
 
             if (state instanceof InventoryHolder) {
                 Inventory inv = ((InventoryHolder) state).getInventory();
@@ -436,31 +504,29 @@ abstract class AbstractItemNetwork extends Network {
                     filter(is, items, l);
                 }
             }
+
+            itemIndex.update(l, inventory, null, items);
+        } else {
+            itemIndex.remove(l);
         }
     }
 
+    @Nonnull
     @ParametersAreNonnullByDefault
-    private void handleWithdraw(DirtyChestMenu menu, List<ItemStackAndInteger> items, Location l) {
+    private List<ItemStack> handleWithdraw(DirtyChestMenu menu, Location l) {
+        List<ItemStack> items = new ArrayList<>();
+
         for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
             filter(menu.getItemInSlot(slot), items, l);
         }
+
+        return items;
     }
 
     @ParametersAreNonnullByDefault
-    private void filter(@Nullable ItemStack stack, List<ItemStackAndInteger> items, Location node) {
+    private void filter(@Nullable ItemStack stack, List<ItemStack> items, Location node) {
         if (stack != null && CargoUtils.matchesFilter(this, node.getBlock(), stack)) {
-            boolean add = true;
-
-            for (ItemStackAndInteger item : items) {
-                if (SlimefunUtils.isItemSimilar(stack, item.getItemStackWrapper(), true, false)) {
-                    add = false;
-                    item.add(stack.getAmount());
-                }
-            }
-
-            if (add) {
-                items.add(new ItemStackAndInteger(stack, stack.getAmount()));
-            }
+            items.add(stack);
         }
     }
 
@@ -481,4 +547,38 @@ abstract class AbstractItemNetwork extends Network {
         }
     }
 
+    /**
+     * This remembers what a Chest Terminal currently displays, so that unchanged
+     * slots do not need to be rendered again.
+     */
+    private static final class TerminalView {
+
+        private final BlockMenu menu;
+        private final ItemStackAndInteger[] items = new ItemStackAndInteger[TERMINAL_SLOTS.length];
+        private final int[] amounts = new int[TERMINAL_SLOTS.length];
+        private final boolean[] rendered = new boolean[TERMINAL_SLOTS.length];
+
+        private TerminalView(@Nonnull BlockMenu menu) {
+            this.menu = menu;
+        }
+
+        /**
+         * This stores the item for the given slot.
+         * 
+         * @return Whether the slot needs to be rendered again
+         */
+        private boolean update(int index, @Nullable ItemStackAndInteger item) {
+            int amount = item == null ? 0 : item.getInt();
+
+            if (rendered[index] && items[index] == item && amounts[index] == amount) {
+                return false;
+            }
+
+            rendered[index] = true;
+            items[index] = item;
+            amounts[index] = amount;
+            return true;
+        }
+    }
+
 }
@@ -2,11 +2,10 @@ package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
@@ -22,6 +21,8 @@ import io.github.thebusybiscuit.slimefun4.api.network.NetworkComponent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.HologramOwner;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 
 /**
@@ -50,6 +51,17 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
     protected final Map<Location, Integer> roundRobin = new HashMap<>();
     private int tickDelayThreshold = 0;
 
+    /**
+     * The compiled {@link CargoRoutingPlan} of this network, null if it needs to be compiled again.
+     */
+    private volatile CargoRoutingPlan routingPlan;
+    private int routingPlanVersion = 0;
+
+    /**
+     * Whether a {@link CargoNetworkTask} of this network is still waiting to be run.
+     */
+    private final AtomicBoolean taskPending = new AtomicBoolean(false);
+
     public static @Nullable CargoNet getNetworkFromLocation(@Nonnull Location l) {
         return Slimefun.getNetworkManager().getNetworkFromLocation(l, CargoNet.class).orElse(null);
     }
@@ -107,6 +119,7 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
     @Override
     public void onClassificationChange(Location l, NetworkComponent from, NetworkComponent to) {
         connectorCache.remove(l);
+        invalidateRoutingPlan();
 
         if (from == NetworkComponent.TERMINUS) {
             inputNodes.remove(l);
@@ -124,6 +137,16 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
         }
     }
 
+    @Override
+    protected void onDisconnect(@Nonnull Location l, @Nonnull NetworkComponent from) {
+        inputNodes.remove(l);
+        outputNodes.remove(l);
+        roundRobin.remove(l);
+        invalidateRoutingPlan();
+
+        super.onDisconnect(l, from);
+    }
+
     public void tick(@Nonnull Block b) {
         if (!regulator.equals(b.getLocation())) {
             updateHologram(b, "&4Multiple Cargo Regulators connected");
@@ -147,64 +170,71 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
             // Reset the internal threshold, so we can start skipping again
             tickDelayThreshold = 0;
 
-            Map<Location, Integer> inputs = mapInputNodes();
-            Map<Integer, List<Location>> outputs = mapOutputNodes();
+            // If the main thread has not caught up with our last task yet, we do not pile up another one
+            if (!taskPending.compareAndSet(false, true)) {
+                return;
+            }
+
+            CargoRoutingPlan plan = getRoutingPlan();
 
             if (BlockStorage.getLocationInfo(b.getLocation(), "visualizer") == null) {
                 display();
             }
 
-            Slimefun.getProfiler().scheduleEntries(inputs.size() + 1);
+            Slimefun.getProfiler().scheduleEntries(plan.getInputs().length + 1);
 
-            CargoNetworkTask runnable = new CargoNetworkTask(this, inputs, outputs);
-            Slimefun.runSync(runnable);
+            CargoNetworkTask runnable = new CargoNetworkTask(this, plan);
+            Slimefun.getTickerTask().runSync(runnable);
         }
     }
 
-    private @Nonnull Map<Location, Integer> mapInputNodes() {
-        Map<Location, Integer> inputs = new HashMap<>();
-
-        for (Location node : inputNodes) {
-            int frequency = getFrequency(node);
-
-            if (frequency >= 0 && frequency < 16) {
-                inputs.put(node, frequency);
-            }
-        }
+    /**
+     * This marks that the pending {@link CargoNetworkTask} of this network is being run,
+     * so the next one may be submitted.
+     */
+    void onTaskRun() {
+        taskPending.set(false);
+    }
 
-        return inputs;
+    @Override
+    public void markCargoNodeConfigurationDirty(@Nonnull Location node) {
+        super.markCargoNodeConfigurationDirty(node);
+        invalidateRoutingPlan();
     }
 
-    private @Nonnull Map<Integer, List<Location>> mapOutputNodes() {
-        Map<Integer, List<Location>> output = new HashMap<>();
+    /**
+     * This returns the current {@link CargoRoutingPlan} of this {@link CargoNet}.
+     * The plan is only compiled again after it was invalidated.
+     * 
+     * @return The current {@link CargoRoutingPlan}
+     */
+    @Nonnull
+    CargoRoutingPlan getRoutingPlan() {
+        CargoRoutingPlan plan = routingPlan;
 
-        List<Location> list = new LinkedList<>();
-        int lastFrequency = -1;
+        if (plan == null) {
+            int version;
 
-        for (Location node : outputNodes) {
-            int frequency = getFrequency(node);
+            synchronized (this) {
+                version = routingPlanVersion;
+            }
 
-            if (frequency != lastFrequency && lastFrequency != -1) {
-                output.merge(lastFrequency, list, (prev, next) -> {
-                    prev.addAll(next);
-                    return prev;
-                });
+            plan = CargoRoutingPlan.compile(inputNodes, outputNodes);
 
-                list = new LinkedList<>();
+            synchronized (this) {
+                // A node may have been reconfigured while we were compiling
+                if (version == routingPlanVersion) {
+                    routingPlan = plan;
+                }
             }
-
-            list.add(node);
-            lastFrequency = frequency;
         }
 
-        if (!list.isEmpty()) {
-            output.merge(lastFrequency, list, (prev, next) -> {
-                prev.addAll(next);
-                return prev;
-            });
-        }
+        return plan;
+    }
 
-        return output;
+    private synchronized void invalidateRoutingPlan() {
+        routingPlan = null;
+        routingPlanVersion++;
     }
 
     /**
@@ -217,8 +247,17 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
      * 
      * @return The frequency of the given node
      */
-    private static int getFrequency(@Nonnull Location node) {
-        String frequency = BlockStorage.getLocationInfo(node, "frequency");
+    static int getFrequency(@Nonnull Location node) {
+        Config data = BlockStorage.getLocationInfo(node);
+
+        // A valid frequency is kept in a typed slot once it was parsed
+        int slot = data instanceof BlockInfoConfig blockInfo ? blockInfo.getInt("frequency", -1) : -1;
+
+        if (slot >= 0) {
+            return slot;
+        }
+
+        String frequency = data.getString("frequency");
 
         if (frequency == null) {
             return 0;
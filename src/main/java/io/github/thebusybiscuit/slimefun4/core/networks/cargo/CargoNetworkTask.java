@@ -1,14 +1,7 @@
 package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -23,13 +16,12 @@ import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemSpawnReason;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.core.networks.NetworkManager;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoRoutingPlan.Node;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 
-import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
-import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
 
 /**
@@ -51,20 +43,18 @@ class CargoNetworkTask implements Runnable {
     private final CargoNet network;
     private final Map<Location, Inventory> inventories = new HashMap<>();
 
-    private final Map<Location, Integer> inputs;
-    private final Map<Integer, List<Location>> outputs;
+    private final CargoRoutingPlan plan;
 
     @ParametersAreNonnullByDefault
-    CargoNetworkTask(CargoNet network, Map<Location, Integer> inputs, Map<Integer, List<Location>> outputs) {
+    CargoNetworkTask(CargoNet network, CargoRoutingPlan plan) {
         this.network = network;
         this.manager = Slimefun.getNetworkManager();
-
-        this.inputs = inputs;
-        this.outputs = outputs;
+        this.plan = plan;
     }
 
     @Override
     public void run() {
+        network.onTaskRun();
         long timestamp = System.nanoTime();
 
         try {
@@ -73,15 +63,16 @@ class CargoNetworkTask implements Runnable {
              * (Apart from ChestTerminal Buses)
              */
             SlimefunItem inputNode = SlimefunItems.CARGO_INPUT_NODE.getItem();
-            for (Map.Entry<Location, Integer> entry : inputs.entrySet()) {
+            for (Node input : plan.getInputs()) {
                 long nodeTimestamp = System.nanoTime();
-                Location input = entry.getKey();
-                Optional<Block> attachedBlock = network.getAttachedBlock(input);
+                Block attachedBlock = input.getAttachedBlock();
 
-                attachedBlock.ifPresent(block -> routeItems(input, block, entry.getValue(), outputs));
+                if (attachedBlock != null) {
+                    routeItems(input, attachedBlock);
+                }
 
                 // This will prevent this timings from showing up for the Cargo Manager
-                timestamp += Slimefun.getProfiler().closeEntry(entry.getKey(), inputNode, nodeTimestamp);
+                timestamp += Slimefun.getProfiler().closeEntry(input.getLocation(), inputNode, nodeTimestamp);
             }
         } catch (Exception | LinkageError x) {
             Slimefun.logger().log(Level.SEVERE, x, () -> "An Exception was caught while ticking a Cargo network @ " + new BlockPosition(network.getRegulator()));
@@ -92,18 +83,20 @@ class CargoNetworkTask implements Runnable {
     }
 
     @ParametersAreNonnullByDefault
-    private void routeItems(Location inputNode, Block inputTarget, int frequency, Map<Integer, List<Location>> outputNodes) {
-        ItemStackAndInteger slot = CargoUtils.withdraw(network, inventories, inputNode.getBlock(), inputTarget);
+    private void routeItems(Node inputNode, Block inputTarget) {
+        ItemStackAndInteger slot = CargoUtils.withdraw(network, inventories, inputNode.getLocation().getBlock(), inputTarget);
 
         if (slot == null) {
             return;
         }
 
+        network.markInventoryChanged(inputTarget.getLocation());
+
         ItemStack stack = slot.getItem();
         int previousSlot = slot.getInt();
-        List<Location> destinations = outputNodes.get(frequency);
+        Node[] destinations = plan.getOutputs(inputNode.getFrequency());
 
-        if (destinations != null) {
+        if (destinations.length > 0) {
             stack = distributeItem(stack, inputNode, destinations);
         }
 
@@ -144,70 +137,42 @@ class CargoNetworkTask implements Runnable {
 
     @Nullable
     @ParametersAreNonnullByDefault
-    private ItemStack distributeItem(ItemStack stack, Location inputNode, List<Location> outputNodes) {
+    private ItemStack distributeItem(ItemStack stack, Node inputNode, Node[] outputNodes) {
         ItemStack item = stack;
+        Location input = inputNode.getLocation();
+        boolean roundrobin = inputNode.isRoundRobin();
 
-        Config cfg = BlockStorage.getLocationInfo(inputNode);
-        boolean roundrobin = Objects.equals(cfg.getString("round-robin"), "true");
-        boolean smartFill = Objects.equals(cfg.getString("smart-fill"), "true");
-
-        int index = 0;
-        Collection<Location> destinations;
-        if (roundrobin) {
-            // The current round-robin index of the (unsorted) outputNodes list,
-            // or the index at which to start searching for valid output nodes
-            index = network.roundRobin.getOrDefault(inputNode, 0);
-            // Use an ArrayDeque to perform round-robin sorting
-            // Since the impl for roundRobinSort just does Deque.addLast(Deque#removeFirst)
-            // An ArrayDequeue is preferable as opposed to a LinkedList:
-            // - The number of elements does not change.
-            // - ArrayDequeue has better iterative performance
-            Deque<Location> tempDestinations = new ArrayDeque<>(outputNodes);
-            roundRobinSort(index, tempDestinations);
-            destinations = tempDestinations;
-        } else {
-            // Using an ArrayList here since we won't need to sort the destinations
-            // The ArrayList has the best performance for iteration bar a primitive array
-            destinations = new ArrayList<>(outputNodes);
+        // The current round-robin index of the outputNodes, at which to start searching for valid output nodes
+        int start = roundrobin ? network.roundRobin.getOrDefault(input, 0) : 0;
+
+        if (start >= outputNodes.length) {
+            start = 0;
         }
 
-        for (Location output : destinations) {
-            Optional<Block> target = network.getAttachedBlock(output);
+        for (int i = 0; i < outputNodes.length; i++) {
+            int index = (start + i) % outputNodes.length;
+            Node output = outputNodes[index];
+            Block target = output.getAttachedBlock();
 
-            if (target.isPresent()) {
-                item = CargoUtils.insert(network, inventories, output.getBlock(), target.get(), smartFill, item);
+            if (target != null) {
+                int amount = item.getAmount();
+                item = CargoUtils.insert(network, inventories, output.getLocation().getBlock(), target, inputNode.isSmartFill(), item);
+
+                if (item == null || item.getAmount() != amount) {
+                    network.markInventoryChanged(target.getLocation());
+                }
 
                 if (item == null) {
                     if (roundrobin) {
                         // The output was valid, set the round robin index to the node after this one
-                        network.roundRobin.put(inputNode, (index + 1) % outputNodes.size());
+                        network.roundRobin.put(input, (index + 1) % outputNodes.length);
                     }
                     break;
                 }
             }
-            index++;
         }
 
         return item;
     }
 
-    /**
-     * This method sorts a given {@link Deque} of output node locations using a semi-accurate
-     * round-robin method.
-     * 
-     * @param index
-     *            The round-robin index of the input node
-     * @param outputNodes
-     *            A {@link Deque} of {@link Location Locations} of the output nodes
-     */
-    private void roundRobinSort(int index, Deque<Location> outputNodes) {
-        if (index < outputNodes.size()) {
-            // Not ideal but actually not bad performance-wise over more elegant alternatives
-            for (int i = 0; i < index; i++) {
-                Location temp = outputNodes.removeFirst();
-                outputNodes.add(temp);
-            }
-        }
-    }
-
 }
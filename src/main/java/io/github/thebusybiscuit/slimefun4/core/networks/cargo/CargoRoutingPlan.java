@@ -0,0 +1,183 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.Directional;
+
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+
+/**
+ * A {@link CargoRoutingPlan} is a compiled snapshot of the input and output nodes of a {@link CargoNet}.
+ * <p>
+ * Frequencies and modes are read from the {@link BlockStorage} once, when the plan is compiled.
+ * Output nodes are bucketed by their frequency, so routing an item never has to look anything up.
+ * A plan stays valid until the topology of the {@link CargoNet} changes or a node is reconfigured,
+ * see {@link CargoNet#markCargoNodeConfigurationDirty(Location)}.
+ *
+ * @see CargoNet
+ * @see CargoNetworkTask
+ *
+ */
+final class CargoRoutingPlan {
+
+    /**
+     * The amount of frequencies an input node can send items on.
+     */
+    static final int FREQUENCIES = 16;
+
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node[] inputs;
+    private final Node[][] outputs = new Node[FREQUENCIES][];
+
+    private CargoRoutingPlan(@Nonnull Node[] inputs, @Nonnull List<List<Node>> outputs) {
+        this.inputs = inputs;
+
+        for (int frequency = 0; frequency < FREQUENCIES; frequency++) {
+            List<Node> nodes = outputs.get(frequency);
+            this.outputs[frequency] = nodes.isEmpty() ? NO_NODES : nodes.toArray(NO_NODES);
+        }
+    }
+
+    /**
+     * This compiles a new {@link CargoRoutingPlan} from the given nodes.
+     * Input nodes with an invalid frequency are left out.
+     *
+     * @param inputNodes
+     *            The {@link Location Locations} of all input nodes
+     * @param outputNodes
+     *            The {@link Location Locations} of all output nodes
+     *
+     * @return The compiled {@link CargoRoutingPlan}
+     */
+    @Nonnull
+    static CargoRoutingPlan compile(@Nonnull Collection<Location> inputNodes, @Nonnull Collection<Location> outputNodes) {
+        List<Node> inputs = new ArrayList<>(inputNodes.size());
+
+        for (Location l : inputNodes) {
+            int frequency = CargoNet.getFrequency(l);
+
+            if (frequency >= 0 && frequency < FREQUENCIES) {
+                boolean roundRobin = BlockStorage.getBooleanBlockInfo(l, "round-robin", false);
+                boolean smartFill = BlockStorage.getBooleanBlockInfo(l, "smart-fill", false);
+                inputs.add(new Node(l, frequency, roundRobin, smartFill));
+            }
+        }
+
+        List<List<Node>> outputs = new ArrayList<>(FREQUENCIES);
+
+        for (int i = 0; i < FREQUENCIES; i++) {
+            outputs.add(new ArrayList<>());
+        }
+
+        for (Location l : outputNodes) {
+            int frequency = CargoNet.getFrequency(l);
+
+            // Output nodes on the Chest Terminal channel are never routed to
+            if (frequency >= 0 && frequency < FREQUENCIES) {
+                outputs.get(frequency).add(new Node(l, frequency, false, false));
+            }
+        }
+
+        return new CargoRoutingPlan(inputs.toArray(NO_NODES), outputs);
+    }
+
+    /**
+     * This returns all input nodes of this plan.
+     *
+     * @return The input nodes
+     */
+    @Nonnull
+    Node[] getInputs() {
+        return inputs;
+    }
+
+    /**
+     * This returns all output nodes on the given frequency.
+     *
+     * @param frequency
+     *            The frequency, between 0 and 15
+     *
+     * @return The output nodes on that frequency, may be empty
+     */
+    @Nonnull
+    Node[] getOutputs(int frequency) {
+        return outputs[frequency];
+    }
+
+    /**
+     * A single node within a {@link CargoRoutingPlan}.
+     */
+    static final class Node {
+
+        private final Location location;
+        private final int frequency;
+        private final boolean roundRobin;
+        private final boolean smartFill;
+
+        /**
+         * The {@link BlockFace} this node is attached to.
+         * This is only ever accessed from the main thread.
+         */
+        private BlockFace attachedFace;
+
+        private Node(@Nonnull Location location, int frequency, boolean roundRobin, boolean smartFill) {
+            this.location = location;
+            this.frequency = frequency;
+            this.roundRobin = roundRobin;
+            this.smartFill = smartFill;
+        }
+
+        @Nonnull
+        Location getLocation() {
+            return location;
+        }
+
+        int getFrequency() {
+            return frequency;
+        }
+
+        boolean isRoundRobin() {
+            return roundRobin;
+        }
+
+        boolean isSmartFill() {
+            return smartFill;
+        }
+
+        /**
+         * This returns the {@link Block} this node is attached to.
+         * The facing of the node is only read once.
+         *
+         * @return The attached {@link Block} or null if the node is not loaded
+         */
+        @Nullable
+        Block getAttachedBlock() {
+            if (!location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                return null;
+            }
+
+            Block block = location.getBlock();
+
+            if (block.getType() != Material.PLAYER_WALL_HEAD) {
+                return null;
+            }
+
+            if (attachedFace == null) {
+                attachedFace = ((Directional) block.getBlockData()).getFacing().getOppositeFace();
+            }
+
+            return block.getRelative(attachedFace);
+        }
+    }
+
+}
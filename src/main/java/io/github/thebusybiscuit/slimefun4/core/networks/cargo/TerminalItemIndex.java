@@ -0,0 +1,270 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+
+import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
+
+/**
+ * The {@link TerminalItemIndex} keeps track of every item that the providers of an
+ * {@link AbstractItemNetwork} offer to its Chest Terminals.
+ * <p>
+ * Every provider remembers what it contributed to the index, so only providers whose inventory
+ * may have changed need to be scanned again. A provider is scanned again when
+ * <ul>
+ * <li>the network moved items in or out of its inventory</li>
+ * <li>its {@link DirtyChestMenu} was modified</li>
+ * <li>its configuration changed</li>
+ * <li>it has not been scanned for {@value #REFRESH_INTERVAL} updates, as vanilla inventories
+ * can change without us noticing</li>
+ * </ul>
+ * Items are keyed by their {@link Material} and Slimefun id, similar items are merged.
+ *
+ * @see AbstractItemNetwork
+ *
+ */
+final class TerminalItemIndex {
+
+    private static final int REFRESH_INTERVAL = 8;
+
+    private final Map<Location, Provider> providers = new HashMap<>();
+    private final Map<ItemKey, ItemStackAndInteger> items = new HashMap<>();
+    private final Map<ItemKey, ItemKey> keys = new HashMap<>();
+    private final Set<Location> changedInventories = new HashSet<>();
+
+    private List<ItemStackAndInteger> sortedItems = new ArrayList<>();
+    private boolean sortingRequired = false;
+    private int updates = 0;
+
+    /**
+     * This marks the inventory at the given {@link Location} as changed, every provider
+     * attached to it will be scanned again.
+     *
+     * @param inventory
+     *            The {@link Location} of the inventory
+     */
+    void markInventoryChanged(@Nonnull Location inventory) {
+        changedInventories.add(inventory);
+    }
+
+    /**
+     * This forces the given provider to be scanned again.
+     *
+     * @param node
+     *            The {@link Location} of the provider node
+     */
+    void invalidate(@Nonnull Location node) {
+        Provider provider = providers.get(node);
+
+        if (provider != null) {
+            provider.invalidated = true;
+        }
+    }
+
+    /**
+     * This starts a new update. Providers that are no longer part of the network are removed.
+     *
+     * @param nodes
+     *            All current provider nodes
+     */
+    void startUpdate(@Nonnull Collection<Location> nodes) {
+        updates++;
+
+        if (providers.size() > nodes.size() || !nodes.containsAll(providers.keySet())) {
+            Iterator<Map.Entry<Location, Provider>> iterator = providers.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<Location, Provider> entry = iterator.next();
+
+                if (!nodes.contains(entry.getKey())) {
+                    apply(entry.getValue(), Map.of());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * This checks whether the given provider needs to be scanned in this update.
+     *
+     * @param node
+     *            The {@link Location} of the provider node
+     * @param inventory
+     *            The {@link Location} of the inventory the provider is attached to
+     * @param menu
+     *            The {@link DirtyChestMenu} of that inventory, if it has one
+     *
+     * @return Whether the provider has to be scanned
+     */
+    boolean needsScan(@Nonnull Location node, @Nonnull Location inventory, @Nullable DirtyChestMenu menu) {
+        Provider provider = providers.get(node);
+
+        if (provider == null || provider.invalidated || !inventory.equals(provider.inventory)) {
+            return true;
+        } else if (changedInventories.contains(inventory)) {
+            return true;
+        } else if (menu != null && (menu != provider.menu || menu.getUnsavedChanges() != provider.changes)) {
+            return true;
+        } else {
+            // Every provider is refreshed regularly, spread out over multiple updates
+            return (updates + provider.offset) % REFRESH_INTERVAL == 0;
+        }
+    }
+
+    /**
+     * This replaces what the given provider contributes to this index.
+     *
+     * @param node
+     *            The {@link Location} of the provider node
+     * @param inventory
+     *            The {@link Location} of the inventory the provider is attached to
+     * @param menu
+     *            The {@link DirtyChestMenu} of that inventory, if it has one
+     * @param stacks
+     *            Every {@link ItemStack} the provider offers
+     */
+    void update(@Nonnull Location node, @Nonnull Location inventory, @Nullable DirtyChestMenu menu, @Nonnull List<ItemStack> stacks) {
+        Provider provider = providers.computeIfAbsent(node, l -> new Provider(providers.size()));
+        provider.inventory = inventory;
+        provider.menu = menu;
+        provider.changes = menu == null ? 0 : menu.getUnsavedChanges();
+        provider.invalidated = false;
+
+        Map<ItemKey, Integer> contents = new LinkedHashMap<>();
+
+        for (ItemStack stack : stacks) {
+            contents.merge(getKey(stack), stack.getAmount(), Integer::sum);
+        }
+
+        if (!contents.equals(provider.contents)) {
+            apply(provider, contents);
+        }
+    }
+
+    /**
+     * This removes the given provider from this index, for example when it is not loaded.
+     *
+     * @param node
+     *            The {@link Location} of the provider node
+     */
+    void remove(@Nonnull Location node) {
+        Provider provider = providers.remove(node);
+
+        if (provider != null) {
+            apply(provider, Map.of());
+        }
+    }
+
+    /**
+     * This finishes the current update and returns every indexed item, the most
+     * abundant items first.
+     *
+     * @return All indexed items
+     */
+    @Nonnull
+    List<ItemStackAndInteger> finishUpdate() {
+        changedInventories.clear();
+
+        if (sortingRequired) {
+            sortedItems = new ArrayList<>(items.values());
+            sortedItems.sort(Comparator.comparingInt(item -> -item.getInt()));
+            sortingRequired = false;
+        }
+
+        return sortedItems;
+    }
+
+    private void apply(@Nonnull Provider provider, @Nonnull Map<ItemKey, Integer> contents) {
+        // We add the new contents first, so items that are still present keep their entry
+        for (Map.Entry<ItemKey, Integer> entry : contents.entrySet()) {
+            keys.putIfAbsent(entry.getKey(), entry.getKey());
+            items.computeIfAbsent(entry.getKey(), key -> new ItemStackAndInteger(key.item, 0)).add(entry.getValue());
+        }
+
+        for (Map.Entry<ItemKey, Integer> entry : provider.contents.entrySet()) {
+            ItemStackAndInteger item = items.get(entry.getKey());
+            item.add(-entry.getValue());
+
+            if (item.getInt() <= 0) {
+                items.remove(entry.getKey());
+                keys.remove(entry.getKey());
+            }
+        }
+
+        provider.contents = contents;
+        sortingRequired = true;
+    }
+
+    @Nonnull
+    private ItemKey getKey(@Nonnull ItemStack stack) {
+        String id = Slimefun.getItemDataService().getItemData(stack).orElse(null);
+        ItemKey key = keys.get(new ItemKey(stack, id));
+
+        // Only items that are not indexed yet need to be wrapped
+        return key != null ? key : new ItemKey(ItemStackWrapper.wrap(stack), id);
+    }
+
+    private static final class Provider {
+
+        private final int offset;
+        private Location inventory;
+        private DirtyChestMenu menu;
+        private int changes;
+        private boolean invalidated;
+        private Map<ItemKey, Integer> contents = Map.of();
+
+        private Provider(int offset) {
+            this.offset = offset;
+        }
+    }
+
+    private static final class ItemKey {
+
+        private final ItemStack item;
+        private final String id;
+        private final int hash;
+
+        private ItemKey(@Nonnull ItemStack item, @Nullable String id) {
+            this.item = item;
+            this.id = id;
+            this.hash = 31 * item.getType().hashCode() + Objects.hashCode(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof ItemKey other) {
+                return hash == other.hash && item.getType() == other.item.getType() && Objects.equals(id, other.id) && SlimefunUtils.isItemSimilar(other.item, item, true, false);
+            } else {
+                return false;
+            }
+        }
+    }
+
+}
@@ -51,6 +51,15 @@ public class EnergyNet extends Network implements HologramOwner {
     private final Map<Location, EnergyNetComponent> capacitors = new HashMap<>();
     private final Map<Location, EnergyNetComponent> consumers = new HashMap<>();
 
+    /**
+     * Flat copies of the maps above, which let us balance energy in plain array passes.
+     * They are rebuilt on the next tick whenever one of these maps has changed.
+     */
+    private NodeSnapshot<EnergyNetProvider> generatorSnapshot;
+    private NodeSnapshot<EnergyNetComponent> capacitorSnapshot;
+    private NodeSnapshot<EnergyNetComponent> consumerSnapshot;
+    private boolean snapshotDirty = true;
+
     protected EnergyNet(@Nonnull Location l) {
         super(Slimefun.getNetworkManager(), l);
     }
@@ -113,11 +122,23 @@ public class EnergyNet extends Network implements HologramOwner {
         }
     }
 
+    @Override
+    protected void onDisconnect(Location l, NetworkComponent from) {
+        // The block is still there, it just is not connected to us anymore
+        generators.remove(l);
+        consumers.remove(l);
+        capacitors.remove(l);
+        snapshotDirty = true;
+    }
+
     @Override
     public void onClassificationChange(Location l, NetworkComponent from, NetworkComponent to) {
-        if (from == NetworkComponent.TERMINUS) {
+        snapshotDirty = true;
+
+        if (from != null) {
             generators.remove(l);
             consumers.remove(l);
+            capacitors.remove(l);
         }
 
         EnergyNetComponent component = getComponent(l);
@@ -157,17 +178,26 @@ public class EnergyNet extends Network implements HologramOwner {
         if (connectorNodes.isEmpty() && terminusNodes.isEmpty()) {
             updateHologram(b, "&4No Energy Network found");
         } else {
+            if (snapshotDirty) {
+                generatorSnapshot = new NodeSnapshot<>(generators);
+                capacitorSnapshot = new NodeSnapshot<>(capacitors);
+                consumerSnapshot = new NodeSnapshot<>(consumers);
+                snapshotDirty = false;
+            }
+
             int generatorsSupply = tickAllGenerators(timestamp::getAndAdd);
             int capacitorsSupply = tickAllCapacitors();
             int supply = NumberUtils.flowSafeAddition(generatorsSupply, capacitorsSupply);
             int remainingEnergy = supply;
             int demand = 0;
 
-            for (Map.Entry<Location, EnergyNetComponent> entry : consumers.entrySet()) {
-                Location loc = entry.getKey();
-                EnergyNetComponent component = entry.getValue();
-                int capacity = component.getCapacity();
-                int charge = component.getCharge(loc);
+            NodeSnapshot<EnergyNetComponent> snapshot = consumerSnapshot;
+            snapshot.readCharges();
+
+            for (int i = 0; i < snapshot.size; i++) {
+                int capacity = snapshot.capacities[i];
+                int charge = snapshot.charges[i];
+                snapshot.updatedCharges[i] = charge;
 
                 if (charge < capacity) {
                     int availableSpace = capacity - charge;
@@ -175,16 +205,17 @@ public class EnergyNet extends Network implements HologramOwner {
 
                     if (remainingEnergy > 0) {
                         if (remainingEnergy > availableSpace) {
-                            component.setCharge(loc, capacity);
+                            snapshot.updatedCharges[i] = capacity;
                             remainingEnergy -= availableSpace;
                         } else {
-                            component.setCharge(loc, charge + remainingEnergy);
+                            snapshot.updatedCharges[i] = charge + remainingEnergy;
                             remainingEnergy = 0;
                         }
                     }
                 }
             }
 
+            snapshot.writeCharges();
             storeRemainingEnergy(remainingEnergy);
             updateHologram(b, supply, demand);
         }
@@ -194,63 +225,56 @@ public class EnergyNet extends Network implements HologramOwner {
     }
 
     private void storeRemainingEnergy(int remainingEnergy) {
-        for (Map.Entry<Location, EnergyNetComponent> entry : capacitors.entrySet()) {
-            Location loc = entry.getKey();
-            EnergyNetComponent component = entry.getValue();
-
-            if (remainingEnergy > 0) {
-                int capacity = component.getCapacity();
+        remainingEnergy = fill(capacitorSnapshot, remainingEnergy);
+        fill(generatorSnapshot, remainingEnergy);
+    }
 
-                if (remainingEnergy > capacity) {
-                    component.setCharge(loc, capacity);
-                    remainingEnergy -= capacity;
-                } else {
-                    component.setCharge(loc, remainingEnergy);
-                    remainingEnergy = 0;
-                }
-            } else {
-                component.setCharge(loc, 0);
+    private int fill(@Nonnull NodeSnapshot<?> snapshot, int remainingEnergy) {
+        for (int i = 0; i < snapshot.size; i++) {
+            if (snapshot.charges[i] == NodeSnapshot.SKIP) {
+                // This node cannot store any energy, e.g. because it has exploded
+                continue;
             }
-        }
 
-        for (Map.Entry<Location, EnergyNetProvider> entry : generators.entrySet()) {
-            Location loc = entry.getKey();
-            EnergyNetProvider component = entry.getValue();
-            int capacity = component.getCapacity();
+            int capacity = snapshot.capacities[i];
 
-            if (remainingEnergy > 0) {
-                if (remainingEnergy > capacity) {
-                    component.setCharge(loc, capacity);
-                    remainingEnergy -= capacity;
-                } else {
-                    component.setCharge(loc, remainingEnergy);
-                    remainingEnergy = 0;
-                }
+            if (remainingEnergy > capacity) {
+                snapshot.updatedCharges[i] = capacity;
+                remainingEnergy -= capacity;
             } else {
-                component.setCharge(loc, 0);
+                snapshot.updatedCharges[i] = remainingEnergy;
+                remainingEnergy = 0;
             }
         }
+
+        snapshot.writeCharges();
+        return remainingEnergy;
     }
 
     private int tickAllGenerators(@Nonnull LongConsumer timings) {
         Set<Location> explodedBlocks = new HashSet<>();
+        NodeSnapshot<EnergyNetProvider> snapshot = generatorSnapshot;
         int supply = 0;
 
-        for (Map.Entry<Location, EnergyNetProvider> entry : generators.entrySet()) {
+        for (int i = 0; i < snapshot.size; i++) {
             long timestamp = Slimefun.getProfiler().newEntry();
-            Location loc = entry.getKey();
-            EnergyNetProvider provider = entry.getValue();
+            Location loc = snapshot.locations[i];
+            EnergyNetProvider provider = snapshot.components[i];
             SlimefunItem item = (SlimefunItem) provider;
+            snapshot.charges[i] = NodeSnapshot.SKIP;
 
             try {
                 Config data = BlockStorage.getLocationInfo(loc);
                 int energy = provider.getGeneratedOutput(loc, data);
 
                 if (provider.isChargeable()) {
-                    energy = NumberUtils.flowSafeAddition(energy, provider.getCharge(loc, data));
+                    int charge = provider.getCharge(loc, data);
+                    snapshot.charges[i] = charge;
+                    energy = NumberUtils.flowSafeAddition(energy, charge);
                 }
 
                 if (provider.willExplode(loc, data)) {
+                    snapshot.charges[i] = NodeSnapshot.SKIP;
                     explodedBlocks.add(loc);
                     BlockStorage.clearBlockInfo(loc);
 
@@ -262,6 +286,7 @@ public class EnergyNet extends Network implements HologramOwner {
                     supply = NumberUtils.flowSafeAddition(supply, energy);
                 }
             } catch (Exception | LinkageError throwable) {
+                snapshot.charges[i] = NodeSnapshot.SKIP;
                 explodedBlocks.add(loc);
                 new ErrorReport<>(throwable, loc, item);
             }
@@ -273,16 +298,19 @@ public class EnergyNet extends Network implements HologramOwner {
         // Remove all generators which have exploded
         if (!explodedBlocks.isEmpty()) {
             generators.keySet().removeAll(explodedBlocks);
+            snapshotDirty = true;
         }
 
         return supply;
     }
 
     private int tickAllCapacitors() {
+        NodeSnapshot<EnergyNetComponent> snapshot = capacitorSnapshot;
+        snapshot.readCharges();
         int supply = 0;
 
-        for (Map.Entry<Location, EnergyNetComponent> entry : capacitors.entrySet()) {
-            supply = NumberUtils.flowSafeAddition(supply, entry.getValue().getCharge(entry.getKey()));
+        for (int i = 0; i < snapshot.size; i++) {
+            supply = NumberUtils.flowSafeAddition(supply, snapshot.charges[i]);
         }
 
         return supply;
@@ -344,4 +372,61 @@ public class EnergyNet extends Network implements HologramOwner {
             return network;
         }
     }
+
+    /**
+     * A {@link NodeSnapshot} holds the nodes of one of our maps in parallel arrays, indexed by node.
+     * Charges are read into {@link #charges} once per tick, balancing then only touches
+     * {@link #updatedCharges} and only the charges which actually changed are written back.
+     *
+     * @param <T>
+     *            The type of {@link EnergyNetComponent}
+     */
+    private static final class NodeSnapshot<T extends EnergyNetComponent> {
+
+        /**
+         * A charge of this value marks a node whose charge must not be written back.
+         */
+        private static final int SKIP = -1;
+
+        private final int size;
+        private final Location[] locations;
+        private final T[] components;
+        private final int[] capacities;
+        private final int[] charges;
+        private final int[] updatedCharges;
+
+        @SuppressWarnings("unchecked")
+        NodeSnapshot(@Nonnull Map<Location, T> nodes) {
+            this.size = nodes.size();
+            this.locations = new Location[size];
+            this.components = (T[]) new EnergyNetComponent[size];
+            this.capacities = new int[size];
+            this.charges = new int[size];
+            this.updatedCharges = new int[size];
+
+            int i = 0;
+
+            for (Map.Entry<Location, T> entry : nodes.entrySet()) {
+                locations[i] = entry.getKey();
+                components[i] = entry.getValue();
+                capacities[i] = entry.getValue().getCapacity();
+                i++;
+            }
+        }
+
+        void readCharges() {
+            for (int i = 0; i < size; i++) {
+                charges[i] = components[i].getCharge(locations[i]);
+            }
+        }
+
+        void writeCharges() {
+            for (int i = 0; i < size; i++) {
+                if (charges[i] != SKIP && updatedCharges[i] != charges[i]) {
+                    components[i].setCharge(locations[i], updatedCharges[i]);
+                }
+            }
+        }
+    }
+
 }
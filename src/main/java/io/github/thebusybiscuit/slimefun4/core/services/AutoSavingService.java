@@ -15,7 +15,9 @@ import org.bukkit.entity.Player;
 import io.github.thebusybiscuit.slimefun4.api.player.PlayerProfile;
 import io.github.thebusybiscuit.slimefun4.core.debug.Debug;
 import io.github.thebusybiscuit.slimefun4.core.debug.TestCase;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineProcessor;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.items.androids.ProgrammableAndroid;
 
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 
@@ -89,6 +91,10 @@ public class AutoSavingService {
      * This method saves the data of every {@link Block} marked dirty by {@link BlockStorage}.
      */
     private void saveAllBlocks() {
+        // Running machine operations and androids only write their progress when we are about to save
+        MachineProcessor.saveAllOperations();
+        ProgrammableAndroid.saveAllStates();
+
         Set<BlockStorage> worlds = new HashSet<>();
 
         for (World world : Bukkit.getWorlds()) {
@@ -111,7 +117,17 @@ public class AutoSavingService {
             }
         }
 
+        // We are already running asynchronously, so this is a good time to fold our journals into the region files
+        for (World world : Bukkit.getWorlds()) {
+            BlockStorage storage = BlockStorage.getStorage(world);
+
+            if (storage != null) {
+                storage.compactRegions();
+            }
+        }
+
         BlockStorage.saveChunks();
+        Slimefun.getGPSNetwork().getResourceManager().save();
     }
 
 }
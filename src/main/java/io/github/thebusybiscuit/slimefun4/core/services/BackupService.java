@@ -85,6 +85,22 @@ public class BackupService implements Runnable {
             addDirectory(output, folder, "stored-blocks/" + folder.getName());
         }
 
+        File regions = new File("data-storage/Slimefun/stored-regions/");
+
+        if (regions.exists()) {
+            for (File folder : regions.listFiles()) {
+                addDirectory(output, folder, "stored-regions/" + folder.getName());
+            }
+        }
+
+        File resources = new File("data-storage/Slimefun/stored-resources/");
+
+        if (resources.exists()) {
+            for (File folder : resources.listFiles()) {
+                addDirectory(output, folder, "stored-resources/" + folder.getName());
+            }
+        }
+
         addDirectory(output, new File("data-storage/Slimefun/universal-inventories/"), "universal-inventories");
         addDirectory(output, new File("data-storage/Slimefun/stored-inventories/"), "stored-inventories");
 
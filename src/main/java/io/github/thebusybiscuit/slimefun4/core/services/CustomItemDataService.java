@@ -17,6 +17,7 @@ import org.bukkit.plugin.Plugin;
 
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 
 /**
  * This Service is responsible for applying NBT data to a {@link SlimefunItemStack}.
@@ -35,6 +36,12 @@ public class CustomItemDataService implements Keyed {
      */
     private final NamespacedKey namespacedKey;
 
+    /**
+     * This caches the data we read from {@link ItemStackWrapper ItemStackWrappers}, so we do not need
+     * to read their {@link ItemMeta} over and over again.
+     */
+    private final ItemDataCache cache = new ItemDataCache();
+
     /**
      * This creates a new {@link CustomItemDataService} for the given {@link Plugin} and the
      * provided data key.
@@ -93,6 +100,9 @@ public class CustomItemDataService implements Keyed {
      * This method returns an {@link Optional} holding the data stored on the given {@link ItemStack}.
      * The {@link Optional} will be empty if the given {@link ItemStack} is null, doesn't have any {@link ItemMeta}
      * or if the requested data simply does not exist on that {@link ItemStack}.
+     * <p>
+     * If the given {@link ItemStack} is an {@link ItemStackWrapper}, the result is cached for that exact
+     * instance. Wrap any {@link ItemStack} that you look at repeatedly and that does not change.
      * 
      * @param item
      *            The {@link ItemStack} to check
@@ -104,7 +114,45 @@ public class CustomItemDataService implements Keyed {
             return Optional.empty();
         }
 
-        return getItemData(item.getItemMeta());
+        String cached = cache.get(item);
+
+        if (cached != null) {
+            return ItemDataCache.isEmpty(cached) ? Optional.empty() : Optional.of(cached);
+        }
+
+        Optional<String> data = getItemData(item.getItemMeta());
+        cache.put(item, data.orElse(null));
+        return data;
+    }
+
+    /**
+     * This returns how often {@link #getItemData(ItemStack)} could skip reading the {@link ItemMeta}
+     * because the result was still cached.
+     * 
+     * @return The amount of cache hits
+     */
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * This returns how often {@link #getItemData(ItemStack)} had to read the {@link ItemMeta}.
+     * 
+     * @return The amount of cache misses
+     */
+    public long getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * This returns the fraction of lookups that were answered by our cache.
+     * 
+     * @return The cache hit rate, between 0 and 1
+     */
+    public double getCacheHitRate() {
+        long hits = cache.getHits();
+        long total = hits + cache.getMisses();
+        return total == 0 ? 0 : (double) hits / total;
     }
 
     /**
@@ -0,0 +1,105 @@
+package io.github.thebusybiscuit.slimefun4.core.services;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+
+/**
+ * The {@link ItemDataCache} remembers the data that a {@link CustomItemDataService} read
+ * from an {@link ItemStackWrapper}, so that asking the same {@link ItemStackWrapper} instance
+ * again does not have to read its {@link ItemMeta}.
+ * <p>
+ * Entries are keyed by identity and only hold a weak reference to their {@link ItemStack}.
+ * The cache is direct-mapped: every {@link ItemStack} can only live in one slot and a newer
+ * {@link ItemStack} simply replaces whatever was in that slot before. Reading from the cache never
+ * allocates and never blocks, a lost race merely results in a miss.
+ * <p>
+ * Only {@link ItemStackWrapper ItemStackWrappers} are cached, they are immutable so an entry can never
+ * go stale. Any other {@link ItemStack} may get a new {@link ItemMeta} at any time, and there is no way to
+ * notice that without copying its {@link ItemMeta}, which is exactly what this cache is meant to avoid.
+ *
+ * @see CustomItemDataService
+ *
+ */
+final class ItemDataCache {
+
+    private static final int SIZE = 1 << 12;
+    private static final int MASK = SIZE - 1;
+
+    /**
+     * Marks that the {@link ItemStack} did not hold any data.
+     */
+    private static final String NONE = new String();
+
+    private final Entry[] entries = new Entry[SIZE];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static int getSlot(@Nonnull ItemStack item) {
+        int hash = System.identityHashCode(item);
+        return (hash ^ (hash >>> 16)) & MASK;
+    }
+
+    /**
+     * This looks up the cached data of the given {@link ItemStack}.
+     *
+     * @param item
+     *            The {@link ItemStack}
+     *
+     * @return The cached data, {@link #isEmpty(String) an empty marker} or null if nothing was cached
+     */
+    @Nullable
+    String get(@Nonnull ItemStack item) {
+        if (!(item instanceof ItemStackWrapper)) {
+            misses.increment();
+            return null;
+        }
+
+        Entry entry = entries[getSlot(item)];
+
+        if (entry != null && entry.get() == item) {
+            hits.increment();
+            return entry.data;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    void put(@Nonnull ItemStack item, @Nullable String data) {
+        if (item instanceof ItemStackWrapper) {
+            entries[getSlot(item)] = new Entry(item, data == null ? NONE : data);
+        }
+    }
+
+    static boolean isEmpty(@Nonnull String data) {
+        return data == NONE;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private static final class Entry extends WeakReference<ItemStack> {
+
+        private final String data;
+
+        private Entry(@Nonnull ItemStack item, @Nonnull String data) {
+            super(item);
+
+            this.data = data;
+        }
+    }
+
+}
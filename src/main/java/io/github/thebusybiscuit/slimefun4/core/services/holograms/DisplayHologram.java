@@ -0,0 +1,65 @@
+package io.github.thebusybiscuit.slimefun4.core.services.holograms;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Display.Billboard;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+
+/**
+ * A {@link DisplayHologram} is a {@link Hologram} that is shown by a {@link TextDisplay}
+ * instead of an {@link ArmorStand}.
+ * <p>
+ * The {@link TextDisplay} is not persistent, it disappears as soon as its chunk unloads
+ * and is spawned again on the next update. We keep a direct reference to it, so it never
+ * has to be looked up.
+ *
+ * @see HologramsService
+ *
+ */
+class DisplayHologram extends Hologram {
+
+    private final TextDisplay display;
+
+    /**
+     * This creates a new {@link DisplayHologram} for the given {@link TextDisplay}.
+     *
+     * @param display
+     *            The {@link TextDisplay}, see {@link #prepare(TextDisplay)}
+     */
+    DisplayHologram(@Nonnull TextDisplay display) {
+        super(display.getUniqueId());
+
+        this.display = display;
+    }
+
+    /**
+     * This applies all necessary attributes to a {@link TextDisplay} before it is spawned.
+     *
+     * @param display
+     *            The {@link TextDisplay}
+     */
+    static void prepare(@Nonnull TextDisplay display) {
+        display.setPersistent(false);
+        display.setBillboard(Billboard.CENTER);
+        display.setInvulnerable(true);
+        display.setSilent(true);
+        display.setGravity(false);
+    }
+
+    @Nullable
+    @Override
+    Entity getEntity() {
+        boolean valid = display.isValid();
+        touch(valid);
+        return valid ? display : null;
+    }
+
+    @Override
+    void applyLabel(@Nonnull Entity entity, @Nullable String label) {
+        display.setText(label);
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.github.thebusybiscuit.slimefun4.core.services.holograms;
+
+import javax.annotation.Nonnull;
+
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * This {@link Listener} is only registered if lightweight holograms are enabled.
+ * It keeps track of chunks unloading and removes any {@link ArmorStand} holograms that
+ * were left behind from before lightweight holograms were enabled.
+ *
+ * @see HologramsService
+ * @see DisplayHologram
+ *
+ */
+class DisplayHologramListener implements Listener {
+
+    private final HologramsService service;
+
+    DisplayHologramListener(@Nonnull Plugin plugin, @Nonnull HologramsService service) {
+        this.service = service;
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        service.onChunkUnload(e.getChunk());
+    }
+
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent e) {
+        for (Entity entity : e.getEntities()) {
+            // Our TextDisplays are never saved, so this can only be an old hologram
+            if ((entity instanceof ArmorStand || entity instanceof TextDisplay) && service.isHologramEntity(entity)) {
+                entity.remove();
+            }
+        }
+    }
+
+}
@@ -71,13 +71,35 @@ class Hologram {
         }
     }
 
+    /**
+     * This returns the {@link Entity} which displays this {@link Hologram}
+     * and also updates the "lastAccess" timestamp.
+     * 
+     * @return The {@link Entity} or null if it was removed
+     */
+    @Nullable
+    Entity getEntity() {
+        return getArmorStand();
+    }
+
     /**
      * This checks if the associated {@link ArmorStand} has despawned.
      * 
      * @return Whether the {@link ArmorStand} despawned
      */
     boolean hasDespawned() {
-        return getArmorStand() == null;
+        return getEntity() == null;
+    }
+
+    /**
+     * This marks this {@link Hologram} as accessed, or as expired if its
+     * {@link Entity} no longer exists.
+     * 
+     * @param valid
+     *            Whether the {@link Entity} still exists
+     */
+    void touch(boolean valid) {
+        this.lastAccess = valid ? System.currentTimeMillis() : 0;
     }
 
     /**
@@ -106,29 +128,41 @@ class Hologram {
             this.lastAccess = System.currentTimeMillis();
         } else {
             this.label = label;
-            ArmorStand entity = getArmorStand();
+            Entity entity = getEntity();
 
             if (entity != null) {
-                if (label != null) {
-                    entity.setCustomNameVisible(true);
-                    entity.setCustomName(label);
-                } else {
-                    entity.setCustomNameVisible(false);
-                    entity.setCustomName(null);
-                }
+                applyLabel(entity, label);
             }
         }
     }
 
+    /**
+     * This displays the given label on the {@link Entity} of this {@link Hologram}.
+     * 
+     * @param entity
+     *            The {@link Entity} of this {@link Hologram}
+     * @param label
+     *            The label to display, can be null
+     */
+    void applyLabel(@Nonnull Entity entity, @Nullable String label) {
+        if (label != null) {
+            entity.setCustomNameVisible(true);
+            entity.setCustomName(label);
+        } else {
+            entity.setCustomNameVisible(false);
+            entity.setCustomName(null);
+        }
+    }
+
     /**
      * This will remove the {@link ArmorStand} and expire this {@link Hologram}.
      */
     void remove() {
-        ArmorStand armorstand = getArmorStand();
+        Entity entity = getEntity();
 
-        if (armorstand != null) {
+        if (entity != null) {
             lastAccess = 0;
-            armorstand.remove();
+            entity.remove();
         }
     }
 
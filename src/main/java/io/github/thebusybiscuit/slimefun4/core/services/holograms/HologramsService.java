@@ -2,8 +2,12 @@ package io.github.thebusybiscuit.slimefun4.core.services.holograms;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -13,23 +17,32 @@ import javax.annotation.ParametersAreNonnullByDefault;
 
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Server;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.TextDisplay;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
 
 import io.github.bakedlibs.dough.blocks.BlockPosition;
+import io.github.bakedlibs.dough.blocks.ChunkPosition;
+import io.github.thebusybiscuit.slimefun4.api.MinecraftVersion;
 import io.github.thebusybiscuit.slimefun4.core.attributes.HologramOwner;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 
 /**
  * This service is responsible for handling holograms.
+ * <p>
+ * Label updates are coalesced: only the last label of every hologram is applied,
+ * once per server tick. If lightweight holograms are enabled, holograms are shown by
+ * non-persistent {@link TextDisplay TextDisplays} which are tracked per chunk, so we
+ * never have to scan for existing entities.
  * 
  * @author TheBusyBiscuit
  *
@@ -68,6 +81,26 @@ public class HologramsService {
      */
     private final Map<BlockPosition, Hologram> cache = new HashMap<>();
 
+    /**
+     * The positions of all lightweight holograms, grouped by their chunk
+     */
+    private final Map<ChunkPosition, Set<BlockPosition>> chunks = new HashMap<>();
+
+    /**
+     * The latest label of every hologram that has yet to be applied
+     */
+    private final Map<BlockPosition, PendingLabel> pendingLabels = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a task to apply our pending labels has been scheduled
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * Whether we use {@link TextDisplay TextDisplays} instead of {@link ArmorStand ArmorStands}
+     */
+    private boolean lightweight = false;
+
     /**
      * This constructs a new {@link HologramsService}.
      * 
@@ -87,6 +120,15 @@ public class HologramsService {
      */
     public void start() {
         plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, this::purge, PURGE_RATE, PURGE_RATE);
+
+        if (Slimefun.getCfg().getBoolean("options.lightweight-holograms")) {
+            if (Slimefun.getMinecraftVersion().isAtLeast(MinecraftVersion.MINECRAFT_1_20)) {
+                lightweight = true;
+                new DisplayHologramListener(plugin, this);
+            } else {
+                Slimefun.logger().log(Level.WARNING, "Lightweight holograms require Minecraft 1.20 or newer, falling back to armor stands");
+            }
+        }
     }
 
     /**
@@ -101,19 +143,44 @@ public class HologramsService {
 
     /**
      * This purges any expired {@link Hologram}.
+     * <p>
+     * A {@link DisplayHologram} is only purged once its {@link TextDisplay} is gone.
+     * We hold the only reference to that {@link TextDisplay}, forgetting about it any
+     * earlier would leave it orphaned and a duplicate would be spawned on the next update.
      */
     private void purge() {
-        Iterator<Hologram> iterator = cache.values().iterator();
+        Iterator<Map.Entry<BlockPosition, Hologram>> iterator = cache.entrySet().iterator();
 
         while (iterator.hasNext()) {
-            Hologram hologram = iterator.next();
+            Map.Entry<BlockPosition, Hologram> entry = iterator.next();
+            Hologram hologram = entry.getValue();
 
-            if (hologram.hasExpired()) {
+            if (hologram instanceof DisplayHologram) {
+                if (hologram.hasDespawned()) {
+                    iterator.remove();
+                    unindex(entry.getKey());
+                }
+            } else if (hologram.hasExpired()) {
                 iterator.remove();
             }
         }
     }
 
+    /**
+     * This removes the given {@link BlockPosition} from our index of lightweight holograms.
+     * 
+     * @param position
+     *            The {@link BlockPosition} of the hologram
+     */
+    private void unindex(@Nonnull BlockPosition position) {
+        ChunkPosition chunk = new ChunkPosition(position.getWorld(), position.getChunkX(), position.getChunkZ());
+        Set<BlockPosition> positions = chunks.get(chunk);
+
+        if (positions != null && positions.remove(position) && positions.isEmpty()) {
+            chunks.remove(chunk);
+        }
+    }
+
     /**
      * This returns the {@link Hologram} associated with the given {@link Location}.
      * If createIfNoneExists is set to true a new {@link ArmorStand} will be spawned
@@ -138,6 +205,11 @@ public class HologramsService {
             return hologram;
         }
 
+        if (lightweight) {
+            // Lightweight holograms are never saved, so there is nothing to look for
+            return createIfNoneExists ? createDisplayHologram(loc, position) : null;
+        }
+
         // Scan all nearby entities which could be possible holograms
         Collection<Entity> holograms = loc.getWorld().getNearbyEntities(loc, RADIUS, RADIUS, RADIUS, this::isHologram);
 
@@ -171,6 +243,53 @@ public class HologramsService {
         }
     }
 
+    @Nonnull
+    private Hologram createDisplayHologram(@Nonnull Location loc, @Nonnull BlockPosition position) {
+        TextDisplay display = loc.getWorld().spawn(loc, TextDisplay.class, entity -> {
+            DisplayHologram.prepare(entity);
+            entity.getPersistentDataContainer().set(persistentDataKey, PersistentDataType.LONG, position.getPosition());
+        });
+
+        Hologram hologram = new DisplayHologram(display);
+        cache.put(position, hologram);
+        chunks.computeIfAbsent(new ChunkPosition(loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4), chunk -> new HashSet<>()).add(position);
+        return hologram;
+    }
+
+    /**
+     * This forgets about all lightweight holograms in the given {@link Chunk}.
+     * Their {@link TextDisplay TextDisplays} are not persistent and go away with the {@link Chunk}.
+     * 
+     * @param chunk
+     *            The {@link Chunk} that is being unloaded
+     */
+    void onChunkUnload(@Nonnull Chunk chunk) {
+        Set<BlockPosition> positions = chunks.remove(new ChunkPosition(chunk.getWorld(), chunk.getX(), chunk.getZ()));
+
+        if (positions != null) {
+            for (BlockPosition position : positions) {
+                Hologram hologram = cache.remove(position);
+
+                if (hologram != null) {
+                    hologram.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * This checks whether the given {@link Entity} is a hologram that was created by this
+     * service, regardless of its position.
+     * 
+     * @param entity
+     *            The {@link Entity} to check
+     * 
+     * @return Whether this {@link Entity} is one of our holograms
+     */
+    boolean isHologramEntity(@Nonnull Entity entity) {
+        return entity.getPersistentDataContainer().has(persistentDataKey, PersistentDataType.LONG);
+    }
+
     @ParametersAreNonnullByDefault
     private boolean hasHologramData(PersistentDataContainer container, BlockPosition position) {
         if (container.has(persistentDataKey, PersistentDataType.LONG)) {
@@ -288,10 +407,15 @@ public class HologramsService {
 
         if (Bukkit.isPrimaryThread()) {
             try {
+                // Any pending label would bring this hologram back
+                BlockPosition position = new BlockPosition(loc);
+                pendingLabels.remove(position);
+
                 Hologram hologram = getHologram(loc, false);
 
                 if (hologram != null) {
-                    cache.remove(new BlockPosition(loc));
+                    cache.remove(position);
+                    unindex(position);
                     hologram.remove();
                     return true;
                 } else {
@@ -309,6 +433,9 @@ public class HologramsService {
 
     /**
      * This will update the label of the {@link Hologram}.
+     * <p>
+     * The label is applied on the main {@link Server} {@link Thread} during the next tick.
+     * If the label is updated multiple times before that, only the last label is applied.
      * 
      * @param loc
      *            The {@link Location} of this {@link Hologram}
@@ -318,7 +445,44 @@ public class HologramsService {
     public void setHologramLabel(@Nonnull Location loc, @Nullable String label) {
         Validate.notNull(loc, "Location must not be null");
 
-        updateHologram(loc, hologram -> hologram.setLabel(label));
+        pendingLabels.put(new BlockPosition(loc), new PendingLabel(loc, label));
+
+        if (flushScheduled.compareAndSet(false, true) && Slimefun.runSync(this::applyLabels) == null) {
+            // Either we are in a unit test and the labels were applied already or Slimefun was disabled
+            flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * This applies every pending label.
+     * Labels that did not change are skipped by {@link Hologram#setLabel(String)}.
+     */
+    private void applyLabels() {
+        flushScheduled.set(false);
+
+        for (Map.Entry<BlockPosition, PendingLabel> entry : pendingLabels.entrySet()) {
+            PendingLabel pending = entry.getValue();
+
+            // A newer label may have been set in the meantime, it will be applied instead
+            if (pendingLabels.remove(entry.getKey(), pending)) {
+                updateHologram(pending.location, hologram -> hologram.setLabel(pending.label));
+            }
+        }
+    }
+
+    /**
+     * A label that has yet to be applied to the {@link Hologram} at the given {@link Location}.
+     */
+    private static final class PendingLabel {
+
+        private final Location location;
+        private final String label;
+
+        @ParametersAreNonnullByDefault
+        private PendingLabel(Location location, @Nullable String label) {
+            this.location = location;
+            this.label = label;
+        }
     }
 
 }
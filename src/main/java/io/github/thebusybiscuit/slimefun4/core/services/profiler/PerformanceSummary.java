@@ -33,6 +33,8 @@ class PerformanceSummary {
     private final int totalTickedBlocks;
     private final float percentage;
     private final int tickRate;
+    private final int deferredChunks;
+    private final int deferredBlocks;
 
     private final Map<String, Long> chunks;
     private final Map<String, Long> plugins;
@@ -45,6 +47,8 @@ class PerformanceSummary {
         this.totalElapsedTime = totalElapsedTime;
         this.totalTickedBlocks = totalTickedBlocks;
         this.tickRate = profiler.getTickRate();
+        this.deferredChunks = profiler.getDeferredChunks();
+        this.deferredBlocks = profiler.getDeferredBlocks();
 
         chunks = profiler.getByChunk();
         plugins = profiler.getByPlugin();
@@ -57,6 +61,11 @@ class PerformanceSummary {
         sender.sendMessage(ChatColor.GOLD + "Total time: " + ChatColor.YELLOW + NumberUtils.getAsMillis(totalElapsedTime));
         sender.sendMessage(ChatColor.GOLD + "Running every: " + ChatColor.YELLOW + NumberUtils.roundDecimalNumber(tickRate / 20.0) + "s (" + tickRate + " ticks)");
         sender.sendMessage(ChatColor.GOLD + "Performance: " + getPerformanceRating());
+
+        if (deferredChunks > 0) {
+            sender.sendMessage(ChatColor.GOLD + "Deferred: " + ChatColor.RED + deferredChunks + " chunk" + (deferredChunks != 1 ? "s" : "") + " (" + deferredBlocks + " block" + (deferredBlocks != 1 ? "s" : "") + ") ran out of time");
+        }
+
         sender.sendMessage("");
 
         summarizeTimings(totalTickedBlocks, "block", sender, items, entry -> {
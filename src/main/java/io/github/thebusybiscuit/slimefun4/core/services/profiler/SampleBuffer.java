@@ -0,0 +1,137 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.World;
+
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+
+/**
+ * A {@link SampleBuffer} is a fixed-size ring of timing samples that belongs to a single
+ * {@link Thread}. Only the owning {@link Thread} writes to it and only the {@link SlimefunProfiler}
+ * reads from it, so neither side needs a lock and recording a sample does not allocate anything.
+ * <p>
+ * If the ring is full, new samples are dropped and counted until the {@link SlimefunProfiler}
+ * has drained it again. Once its {@link Thread} has died, the {@link SlimefunProfiler} drains it one
+ * last time and then lets go of it.
+ *
+ * @see SlimefunProfiler
+ *
+ */
+final class SampleBuffer {
+
+    /**
+     * The amount of samples a single {@link Thread} can record before they are drained.
+     * This must be a power of two.
+     */
+    static final int CAPACITY = 1 << 14;
+
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] positions = new long[CAPACITY];
+    private final long[] nanos = new long[CAPACITY];
+    private final World[] worlds = new World[CAPACITY];
+    private final SlimefunItem[] items = new SlimefunItem[CAPACITY];
+
+    /**
+     * The index of the next sample to be written, only ever advanced by the owning {@link Thread}.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The index of the next sample to be read, only ever advanced by the {@link SlimefunProfiler}.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The {@link Thread} that owns this {@link SampleBuffer}, we must not keep it alive.
+     */
+    private final WeakReference<Thread> owner;
+
+    /**
+     * This creates a new {@link SampleBuffer} that is owned by the current {@link Thread}.
+     */
+    SampleBuffer() {
+        this.owner = new WeakReference<>(Thread.currentThread());
+    }
+
+    /**
+     * This returns whether the {@link Thread} that owns this {@link SampleBuffer} is still alive.
+     * If it is not, no more samples can be recorded into this {@link SampleBuffer}.
+     *
+     * @return Whether the owning {@link Thread} is alive
+     */
+    boolean isOwnerAlive() {
+        Thread thread = owner.get();
+        return thread != null && thread.isAlive();
+    }
+
+    /**
+     * This records a single sample.
+     * This must only be called by the {@link Thread} that owns this {@link SampleBuffer}.
+     *
+     * @param world
+     *            The {@link World} of the ticked block
+     * @param position
+     *            The compressed position of the ticked block
+     * @param item
+     *            The {@link SlimefunItem} that was ticked
+     * @param elapsedTime
+     *            The time it took in nanoseconds
+     */
+    void record(@Nonnull World world, long position, @Nonnull SlimefunItem item, long elapsedTime) {
+        long index = head.get();
+
+        if (index - tail.get() >= CAPACITY) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        int slot = (int) (index & MASK);
+        positions[slot] = position;
+        nanos[slot] = elapsedTime;
+        worlds[slot] = world;
+        items[slot] = item;
+
+        // Publish the sample after it has been written
+        head.lazySet(index + 1);
+    }
+
+    /**
+     * This moves every sample that has been recorded so far into the given {@link Map}.
+     * Multiple samples for the same block are summed up.
+     *
+     * @param timings
+     *            The {@link Map} to drain into, or null to discard all samples
+     *
+     * @return The amount of samples that were dropped since the last drain
+     */
+    long drainTo(@Nullable Map<ProfiledBlock, Long> timings) {
+        long index = tail.get();
+        long end = head.get();
+
+        for (; index < end; index++) {
+            int slot = (int) (index & MASK);
+
+            if (timings != null) {
+                ProfiledBlock block = new ProfiledBlock(worlds[slot], positions[slot], items[slot]);
+                timings.merge(block, nanos[slot], Long::sum);
+            }
+
+            worlds[slot] = null;
+            items[slot] = null;
+        }
+
+        // Hand the slots back to the owning Thread
+        tail.lazySet(end);
+        return dropped.getAndSet(0);
+    }
+
+}
@@ -2,13 +2,16 @@ package io.github.thebusybiscuit.slimefun4.core.services.profiler;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -54,10 +57,10 @@ public class SlimefunProfiler {
      * Our internal instance of {@link SlimefunThreadFactory}, it provides the naming
      * convention for our {@link Thread} pool and also the count of this pool.
      */
-    private final SlimefunThreadFactory threadFactory = new SlimefunThreadFactory(2);
+    private final SlimefunThreadFactory threadFactory = new SlimefunThreadFactory(1);
 
     /**
-     * This is our {@link Thread} pool to evaluate timings data.
+     * This is our {@link Thread} pool to evaluate timings data once a report is finished.
      * We cannot use the {@link BukkitScheduler} here because we need to evaluate
      * this data in split seconds.
      * So we cannot simply wait until the next server tick for this.
@@ -82,9 +85,27 @@ public class SlimefunProfiler {
      */
     private final AtomicInteger queued = new AtomicInteger(0);
 
+    /**
+     * This marks that profiling has stopped and a report should be finished
+     * as soon as the last queued entry has been closed.
+     */
+    private final AtomicBoolean reportPending = new AtomicBoolean(false);
+
+    /**
+     * Every {@link Thread} records its samples into its own {@link SampleBuffer}.
+     * These are drained whenever a report is finished, the ones of dead {@link Thread Threads}
+     * are dropped afterwards.
+     */
+    private final List<SampleBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<SampleBuffer> localBuffer = ThreadLocal.withInitial(this::createBuffer);
+    private boolean warnedAboutDroppedSamples = false;
+
     private long totalElapsedTime;
+    private volatile int deferredChunks;
+    private volatile int deferredBlocks;
 
     private final Map<ProfiledBlock, Long> timings = new ConcurrentHashMap<>();
+    private final TickTelemetry telemetry = new TickTelemetry();
     private final Queue<PerformanceInspector> requests = new ConcurrentLinkedQueue<>();
 
     private final AtomicLong totalMsTicked = new AtomicLong();
@@ -105,9 +126,14 @@ public class SlimefunProfiler {
      * This method starts the profiling, data from previous runs will be cleared.
      */
     public void start() {
+        /*
+         * If the previous report is still waiting for samples, we give up on it.
+         * Any pending requests will simply be answered by the next report.
+         */
+        reportPending.set(false);
         isProfiling = true;
         queued.set(0);
-        timings.clear();
+        drainSamples(true);
     }
 
     /**
@@ -162,20 +188,19 @@ public class SlimefunProfiler {
         }
 
         long elapsedTime = System.nanoTime() - timestamp;
+        long position = ProfiledBlock.getLocationAsLong((int) l.getX(), (int) l.getY(), (int) l.getZ());
+        localBuffer.get().record(l.getWorld(), position, item, elapsedTime);
 
-        executor.execute(() -> {
-            ProfiledBlock block = new ProfiledBlock(l, item);
-
-            // Merge (if we have multiple samples for whatever reason)
-            timings.merge(block, elapsedTime, Long::sum);
-            queued.decrementAndGet();
-        });
+        if (queued.decrementAndGet() <= 0 && !isProfiling) {
+            scheduleReport();
+        }
 
         return elapsedTime;
     }
 
     /**
      * This stops the profiling.
+     * The report is finished once every queued entry has been closed.
      */
     public void stop() {
         isProfiling = false;
@@ -185,40 +210,53 @@ public class SlimefunProfiler {
             return;
         }
 
-        executor.execute(this::finishReport);
+        reportPending.set(true);
+
+        if (queued.get() <= 0) {
+            scheduleReport();
+        }
     }
 
-    private void finishReport() {
-        // We will only wait for a maximum of this many 1ms sleeps
-        int iterations = 4000;
-
-        // Wait for all timing results to come in
-        while (!isProfiling && queued.get() > 0) {
-            try {
-                /*
-                 * Since we got more than one Thread in our pool,
-                 * blocking this one is (hopefully) completely fine
-                 */
-                Thread.sleep(1);
-                iterations--;
-
-                // If we waited for too long, then we should just abort
-                if (iterations <= 0) {
-                    Iterator<PerformanceInspector> iterator = requests.iterator();
-
-                    while (iterator.hasNext()) {
-                        iterator.next().sendMessage("Your timings report has timed out, we were still waiting for " + queued.get() + " samples to be collected :/");
-                        iterator.remove();
-                    }
-
-                    return;
-                }
-            } catch (InterruptedException e) {
-                Slimefun.logger().log(Level.SEVERE, "A Profiler Thread was interrupted", e);
-                Thread.currentThread().interrupt();
+    private void scheduleReport() {
+        // Only the first caller gets to finish this report
+        if (reportPending.compareAndSet(true, false)) {
+            executor.execute(this::finishReport);
+        }
+    }
+
+    @Nonnull
+    private SampleBuffer createBuffer() {
+        SampleBuffer buffer = new SampleBuffer();
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private synchronized void drainSamples(boolean discard) {
+        if (discard) {
+            timings.clear();
+        }
+
+        long dropped = 0;
+
+        for (SampleBuffer buffer : buffers) {
+            // A dead Thread cannot record anything anymore, so this is its last drain
+            boolean alive = buffer.isOwnerAlive();
+            dropped += buffer.drainTo(discard ? null : timings);
+
+            if (!alive) {
+                buffers.remove(buffer);
             }
         }
 
+        if (dropped > 0 && !warnedAboutDroppedSamples) {
+            warnedAboutDroppedSamples = true;
+            Slimefun.logger().log(Level.WARNING, "The Profiler had to drop {0} samples, a single Thread ticked more than {1} blocks in one cycle.", new Object[] { dropped, SampleBuffer.CAPACITY });
+        }
+    }
+
+    private void finishReport() {
+        drainSamples(false);
+
         if (isProfiling && queued.get() > 0) {
             // Looks like the next profiling has already started, abort!
             return;
@@ -235,6 +273,7 @@ public class SlimefunProfiler {
         totalMsTicked.addAndGet(TimeUnit.NANOSECONDS.toMillis(totalElapsedTime));
         totalNsTicked.addAndGet(totalElapsedTime);
         ticksPassed.incrementAndGet();
+        telemetry.record(timings, totalElapsedTime);
 
         if (!requests.isEmpty()) {
             PerformanceSummary summary = new PerformanceSummary(this, totalElapsedTime, timings.size());
@@ -247,6 +286,51 @@ public class SlimefunProfiler {
         }
     }
 
+    /**
+     * This reports how much work the ticker had to defer to the next cycle
+     * because it ran out of time in the current one.
+     * 
+     * @param chunks
+     *            The amount of chunks that were not ticked
+     * @param blocks
+     *            The amount of blocks within these chunks
+     */
+    public void reportDeferredWork(int chunks, int blocks) {
+        this.deferredChunks = chunks;
+        this.deferredBlocks = blocks;
+    }
+
+    /**
+     * This returns the amount of chunks that had to be deferred to the next cycle
+     * during the last cycle.
+     * 
+     * @return The amount of deferred chunks
+     */
+    public int getDeferredChunks() {
+        return deferredChunks;
+    }
+
+    /**
+     * This returns the amount of blocks that had to be deferred to the next cycle
+     * during the last cycle.
+     * 
+     * @return The amount of deferred blocks
+     */
+    public int getDeferredBlocks() {
+        return deferredBlocks;
+    }
+
+    /**
+     * This returns the {@link TickTelemetry} which continuously collects
+     * tick time histograms from every profiled cycle.
+     * 
+     * @return Our {@link TickTelemetry}
+     */
+    @Nonnull
+    public TickTelemetry getTelemetry() {
+        return telemetry;
+    }
+
     /**
      * This method requests a summary for the given {@link PerformanceInspector}.
      * The summary will be sent upon the next available moment in time.
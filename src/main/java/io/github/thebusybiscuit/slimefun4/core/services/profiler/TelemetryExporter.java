@@ -0,0 +1,189 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang.Validate;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.thebusybiscuit.slimefun4.core.services.CustomItemDataService;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+
+/**
+ * The {@link TelemetryExporter} makes the {@link TickTelemetry} of our {@link SlimefunProfiler}
+ * available to local monitoring tools.
+ * <p>
+ * The metrics are written in the Prometheus text format, either periodically to a {@link File}
+ * in the plugin folder (for node exporters or log shippers) or served on request by a small
+ * HTTP endpoint. The HTTP endpoint is disabled by default and only binds to the loopback
+ * address unless configured otherwise.
+ *
+ * @see TickTelemetry
+ *
+ */
+public class TelemetryExporter {
+
+    private static final String METRIC = "slimefun_tick_time_nanoseconds";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final JavaPlugin plugin;
+    private final TickTelemetry telemetry;
+    private HttpServer server;
+
+    public TelemetryExporter(@Nonnull JavaPlugin plugin, @Nonnull TickTelemetry telemetry) {
+        Validate.notNull(plugin, "The plugin cannot be null");
+        Validate.notNull(telemetry, "The telemetry cannot be null");
+
+        this.plugin = plugin;
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * This starts exporting according to the given {@link Config}.
+     *
+     * @param cfg
+     *            The {@link Config} to read our settings from
+     */
+    public void start(@Nonnull Config cfg) {
+        telemetry.setEnabled(cfg.getBoolean("metrics.telemetry.enabled"));
+
+        if (!telemetry.isEnabled()) {
+            return;
+        }
+
+        int windowLength = cfg.getInt("metrics.telemetry.window-in-minutes");
+
+        if (windowLength > 0) {
+            telemetry.setWindowLength(windowLength);
+        } else {
+            plugin.getLogger().log(Level.WARNING, "Your 'metrics.telemetry.window-in-minutes' setting must be at least 1, it was set to: {0}", windowLength);
+        }
+
+        if (cfg.getBoolean("metrics.telemetry.export-file")) {
+            File file = new File(plugin.getDataFolder(), "telemetry.prom");
+            Slimefun.getThreadService().newScheduledThread(plugin, "TelemetryExporter - File", () -> writeFile(file), 1, 1, TimeUnit.MINUTES);
+        }
+
+        int port = cfg.getInt("metrics.telemetry.http-port");
+
+        if (port > 0) {
+            startServer(cfg.getString("metrics.telemetry.http-address"), port);
+        }
+    }
+
+    private void startServer(@Nullable String address, int port) {
+        String host = address == null || address.isEmpty() ? "127.0.0.1" : address;
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+            server.createContext("/metrics", this::handle);
+            server.start();
+            plugin.getLogger().log(Level.INFO, "Serving tick telemetry on http://{0}:{1}/metrics", new Object[] { host, String.valueOf(port) });
+        } catch (IOException | IllegalArgumentException x) {
+            plugin.getLogger().log(Level.WARNING, x, () -> "Could not start the telemetry endpoint on " + host + ':' + port);
+        }
+    }
+
+    private void handle(@Nonnull HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = export().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void writeFile(@Nonnull File file) {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try {
+            Files.writeString(tmpFile.toPath(), export(), StandardCharsets.UTF_8);
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException x) {
+            plugin.getLogger().log(Level.WARNING, x, () -> "Could not write the telemetry file " + file.getName());
+        }
+    }
+
+    /**
+     * This stops the HTTP endpoint if it is running.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /**
+     * This formats the current {@link TickTelemetry} in the Prometheus text format.
+     *
+     * @return The formatted metrics
+     */
+    @Nonnull
+    public String export() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("# HELP ").append(METRIC).append(" Time spent ticking Slimefun blocks.\n");
+        builder.append("# TYPE ").append(METRIC).append(" summary\n");
+
+        append(builder, "total", "all", telemetry.getTotalTimings());
+        append(builder, "item", telemetry.getItemTimings());
+        append(builder, "addon", telemetry.getAddonTimings());
+        append(builder, "chunk", telemetry.getChunkTimings());
+
+        if (Slimefun.instance() != null) {
+            CustomItemDataService itemDataService = Slimefun.getItemDataService();
+            builder.append("# TYPE slimefun_item_data_cache_lookups_total counter\n");
+            builder.append("slimefun_item_data_cache_lookups_total{result=\"hit\"} ").append(itemDataService.getCacheHits()).append('\n');
+            builder.append("slimefun_item_data_cache_lookups_total{result=\"miss\"} ").append(itemDataService.getCacheMisses()).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    private static void append(@Nonnull StringBuilder builder, @Nonnull String kind, @Nonnull Map<String, TickHistogram> histograms) {
+        for (Map.Entry<String, TickHistogram> entry : histograms.entrySet()) {
+            append(builder, kind, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void append(@Nonnull StringBuilder builder, @Nonnull String kind, @Nonnull String key, @Nonnull TickHistogram histogram) {
+        String labels = "kind=\"" + kind + "\",key=\"" + escape(key) + '"';
+
+        builder.append(METRIC).append('{').append(labels).append(",quantile=\"0.5\"} ").append(histogram.getPercentile(0.5)).append('\n');
+        builder.append(METRIC).append('{').append(labels).append(",quantile=\"0.99\"} ").append(histogram.getPercentile(0.99)).append('\n');
+        builder.append(METRIC).append('{').append(labels).append(",quantile=\"1\"} ").append(histogram.getMax()).append('\n');
+        builder.append(METRIC).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    @Nonnull
+    private static String escape(@Nonnull String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
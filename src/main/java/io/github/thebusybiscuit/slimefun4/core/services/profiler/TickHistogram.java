@@ -0,0 +1,169 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A {@link TickHistogram} records tick durations in nanoseconds with a fixed amount of memory.
+ * <p>
+ * Samples are sorted into logarithmic buckets: every power of two is split into
+ * {@value #SUB_BUCKETS} linear buckets, so percentiles are accurate to within 25%
+ * regardless of their magnitude. The maximum is tracked exactly.
+ *
+ * @see TickTelemetry
+ *
+ */
+@ThreadSafe
+public final class TickHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int SUB_BUCKET_BITS = 2;
+
+    /**
+     * We do not need to distinguish anything above 2^40 nanoseconds (about 18 minutes).
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    /**
+     * This records a single sample.
+     *
+     * @param nanos
+     *            The duration in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[getBucket(value)]++;
+        count++;
+
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * This adds all samples of the given {@link TickHistogram} to this one.
+     *
+     * @param other
+     *            The {@link TickHistogram} to merge into this one
+     */
+    public void merge(@Nonnull TickHistogram other) {
+        Validate.notNull(other, "Cannot merge a null histogram");
+
+        long[] otherBuckets;
+        long otherCount;
+        long otherMax;
+
+        synchronized (other) {
+            otherBuckets = other.buckets.clone();
+            otherCount = other.count;
+            otherMax = other.max;
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += otherBuckets[i];
+            }
+
+            count += otherCount;
+            max = Math.max(max, otherMax);
+        }
+    }
+
+    /**
+     * This returns a copy of this {@link TickHistogram}.
+     *
+     * @return A copy of this {@link TickHistogram}
+     */
+    @Nonnull
+    public TickHistogram copy() {
+        TickHistogram copy = new TickHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * This returns the amount of samples that were recorded.
+     *
+     * @return The amount of samples
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * This returns the longest duration that was recorded.
+     *
+     * @return The maximum in nanoseconds
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * This estimates the given percentile of all recorded samples.
+     * The estimate is the upper bound of the bucket the percentile falls into, but never
+     * more than the recorded maximum.
+     *
+     * @param percentile
+     *            The percentile, between 0 and 1
+     *
+     * @return The estimated percentile in nanoseconds, or 0 if no samples were recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        Validate.isTrue(percentile >= 0 && percentile <= 1, "The percentile must be between 0 and 1");
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+
+            if (seen >= rank) {
+                // The last bucket has no upper bound
+                return i == BUCKETS - 1 ? max : Math.min(getUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + subBucket;
+    }
+
+    static long getUpperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int subBucket = bucket % SUB_BUCKETS;
+
+        if (exponent < SUB_BUCKET_BITS) {
+            // The first buckets each hold exactly one value
+            return bucket;
+        }
+
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+}
@@ -0,0 +1,243 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang.Validate;
+
+import io.github.thebusybiscuit.slimefun4.api.SlimefunAddon;
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+
+/**
+ * The {@link TickTelemetry} continuously collects {@link TickHistogram TickHistograms} from
+ * every cycle the {@link SlimefunProfiler} finishes, whether or not anyone asked for a timings report.
+ * <ul>
+ * <li>Every {@link SlimefunItem} id gets a histogram of the time a single block took to tick.</li>
+ * <li>Every {@link SlimefunAddon} and every chunk gets a histogram of its total time per cycle.</li>
+ * <li>The total time of every cycle is recorded as well.</li>
+ * </ul>
+ * Samples are collected in windows of a fixed length. A snapshot always covers the current
+ * and the previous window, so that the numbers neither reset to zero nor grow stale.
+ * The amount of chunks and items that are tracked is limited, anything beyond that limit is
+ * recorded under {@value #OTHER}.
+ *
+ * @see SlimefunProfiler
+ * @see TelemetryExporter
+ *
+ */
+@ThreadSafe
+public final class TickTelemetry {
+
+    /**
+     * The key under which everything is recorded that exceeds our limits.
+     */
+    public static final String OTHER = "other";
+
+    private static final int MAX_ITEMS = 2048;
+    private static final int MAX_ADDONS = 256;
+    private static final int MAX_CHUNKS = 4096;
+
+    private volatile boolean enabled = true;
+    private volatile long windowLength = TimeUnit.MINUTES.toNanos(5);
+
+    private Window current = new Window(System.nanoTime());
+    private Window previous = new Window(System.nanoTime());
+
+    /**
+     * This enables or disables the {@link TickTelemetry}.
+     * Disabling it will not clear any data collected so far.
+     *
+     * @param enabled
+     *            Whether telemetry should be collected
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This sets the length of a single window.
+     *
+     * @param minutes
+     *            The length of a window in minutes
+     */
+    public void setWindowLength(int minutes) {
+        Validate.isTrue(minutes > 0, "The window length must be at least one minute");
+
+        this.windowLength = TimeUnit.MINUTES.toNanos(minutes);
+    }
+
+    /**
+     * This records all timings of a single cycle.
+     *
+     * @param timings
+     *            The timings of every block that was ticked in this cycle
+     * @param totalTime
+     *            The total time of this cycle in nanoseconds
+     */
+    void record(@Nonnull Map<ProfiledBlock, Long> timings, long totalTime) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Long> addons = new HashMap<>();
+        Map<String, Long> chunks = new HashMap<>();
+        Window window = getWindow();
+
+        for (Map.Entry<ProfiledBlock, Long> entry : timings.entrySet()) {
+            ProfiledBlock block = entry.getKey();
+            long time = entry.getValue();
+
+            window.getHistogram(window.items, block.getId(), MAX_ITEMS).record(time);
+            addons.merge(block.getAddon().getName(), time, Long::sum);
+            chunks.merge(block.getWorld().getName() + ';' + block.getChunkX() + ';' + block.getChunkZ(), time, Long::sum);
+        }
+
+        for (Map.Entry<String, Long> entry : addons.entrySet()) {
+            window.getHistogram(window.addons, entry.getKey(), MAX_ADDONS).record(entry.getValue());
+        }
+
+        for (Map.Entry<String, Long> entry : chunks.entrySet()) {
+            window.getHistogram(window.chunks, entry.getKey(), MAX_CHUNKS).record(entry.getValue());
+        }
+
+        window.total.record(totalTime);
+    }
+
+    @Nonnull
+    private synchronized Window getWindow() {
+        long now = System.nanoTime();
+
+        if (now - current.start >= windowLength) {
+            previous = current;
+            current = new Window(now);
+        }
+
+        return current;
+    }
+
+    /**
+     * This returns a snapshot of the time a single block of each {@link SlimefunItem} took to tick,
+     * keyed by the id of the {@link SlimefunItem}.
+     *
+     * @return A snapshot of all item histograms
+     */
+    @Nonnull
+    public Map<String, TickHistogram> getItemTimings() {
+        return snapshot(Type.ITEM);
+    }
+
+    /**
+     * This returns a snapshot of the time each {@link SlimefunAddon} took per cycle,
+     * keyed by the name of the {@link SlimefunAddon}.
+     *
+     * @return A snapshot of all addon histograms
+     */
+    @Nonnull
+    public Map<String, TickHistogram> getAddonTimings() {
+        return snapshot(Type.ADDON);
+    }
+
+    /**
+     * This returns a snapshot of the time each chunk took per cycle,
+     * keyed by {@code world;x;z}.
+     *
+     * @return A snapshot of all chunk histograms
+     */
+    @Nonnull
+    public Map<String, TickHistogram> getChunkTimings() {
+        return snapshot(Type.CHUNK);
+    }
+
+    /**
+     * This returns a snapshot of the total time of every cycle.
+     *
+     * @return A snapshot of the total cycle times
+     */
+    @Nonnull
+    public TickHistogram getTotalTimings() {
+        Window[] windows = getWindows();
+        TickHistogram histogram = new TickHistogram();
+
+        for (Window window : windows) {
+            histogram.merge(window.total);
+        }
+
+        return histogram;
+    }
+
+    @Nonnull
+    private synchronized Window[] getWindows() {
+        return new Window[] { previous, current };
+    }
+
+    @Nonnull
+    private Map<String, TickHistogram> snapshot(@Nonnull Type type) {
+        Map<String, TickHistogram> snapshot = new HashMap<>();
+
+        for (Window window : getWindows()) {
+            Map<String, TickHistogram> histograms = window.get(type);
+
+            synchronized (histograms) {
+                for (Map.Entry<String, TickHistogram> entry : histograms.entrySet()) {
+                    snapshot.computeIfAbsent(entry.getKey(), key -> new TickHistogram()).merge(entry.getValue());
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private enum Type {
+
+        ITEM,
+        ADDON,
+        CHUNK;
+
+    }
+
+    private static final class Window {
+
+        private final long start;
+        private final Map<String, TickHistogram> items = new HashMap<>();
+        private final Map<String, TickHistogram> addons = new HashMap<>();
+        private final Map<String, TickHistogram> chunks = new HashMap<>();
+        private final TickHistogram total = new TickHistogram();
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        @Nonnull
+        private Map<String, TickHistogram> get(@Nonnull Type type) {
+            return switch (type) {
+                case ITEM -> items;
+                case ADDON -> addons;
+                case CHUNK -> chunks;
+            };
+        }
+
+        @Nonnull
+        private TickHistogram getHistogram(@Nonnull Map<String, TickHistogram> histograms, @Nonnull String key, int limit) {
+            synchronized (histograms) {
+                TickHistogram histogram = histograms.get(key);
+
+                if (histogram == null) {
+                    String actualKey = histograms.size() < limit ? key : OTHER;
+                    histogram = histograms.computeIfAbsent(actualKey, k -> new TickHistogram());
+                }
+
+                return histogram;
+            }
+        }
+    }
+
+}
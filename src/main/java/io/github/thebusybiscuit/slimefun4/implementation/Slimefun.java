@@ -11,6 +11,7 @@ import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.player.PlayerProfile;
 import io.github.thebusybiscuit.slimefun4.core.SlimefunRegistry;
 import io.github.thebusybiscuit.slimefun4.core.commands.SlimefunCommand;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineProcessor;
 import io.github.thebusybiscuit.slimefun4.core.networks.NetworkManager;
 import io.github.thebusybiscuit.slimefun4.core.services.AnalyticsService;
 import io.github.thebusybiscuit.slimefun4.core.services.AutoSavingService;
@@ -28,9 +29,11 @@ import io.github.thebusybiscuit.slimefun4.core.services.UpdaterService;
 import io.github.thebusybiscuit.slimefun4.core.services.github.GitHubService;
 import io.github.thebusybiscuit.slimefun4.core.services.holograms.HologramsService;
 import io.github.thebusybiscuit.slimefun4.core.services.profiler.SlimefunProfiler;
+import io.github.thebusybiscuit.slimefun4.core.services.profiler.TelemetryExporter;
 import io.github.thebusybiscuit.slimefun4.core.services.sounds.SoundService;
 import io.github.thebusybiscuit.slimefun4.implementation.items.altar.AncientAltar;
 import io.github.thebusybiscuit.slimefun4.implementation.items.altar.AncientPedestal;
+import io.github.thebusybiscuit.slimefun4.implementation.items.androids.ProgrammableAndroid;
 import io.github.thebusybiscuit.slimefun4.implementation.items.backpacks.Cooler;
 import io.github.thebusybiscuit.slimefun4.implementation.items.magical.BeeWings;
 import io.github.thebusybiscuit.slimefun4.implementation.items.tools.GrapplingHook;
@@ -189,6 +192,7 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
     // Some other things we need
     private final IntegrationsManager integrations = new IntegrationsManager(this);
     private final SlimefunProfiler profiler = new SlimefunProfiler();
+    private final TelemetryExporter telemetryExporter = new TelemetryExporter(this, profiler.getTelemetry());
     private final GPSNetwork gpsNetwork = new GPSNetwork(this);
 
     // Even more things we need
@@ -331,6 +335,7 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
         // Setting up bStats and analytics
         new Thread(metricsService::start, "Slimefun Metrics").start();
         analyticsService.start();
+        telemetryExporter.start(config);
 
         // Starting the Auto-Updater
         if (config.getBoolean("options.auto-update")) {
@@ -441,6 +446,7 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
 
         // Kill our Profiler Threads
         profiler.kill();
+        telemetryExporter.stop();
 
         // Save all Player Profiles that are still in memory
         PlayerProfile.iterator().forEachRemaining(profile -> {
@@ -449,6 +455,10 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
             }
         });
 
+        // Write the progress of all running machine operations and androids
+        MachineProcessor.saveAllOperations();
+        ProgrammableAndroid.saveAllStates();
+
         // Save all registered Worlds
         for (Map.Entry<String, BlockStorage> entry : getRegistry().getWorlds().entrySet()) {
             try {
@@ -458,6 +468,9 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
             }
         }
 
+        // Save all GEO resources
+        gpsNetwork.getResourceManager().close();
+
         // Save all "universal" inventories (ender chests for example)
         for (UniversalBlockMenu menu : registry.getUniversalInventories().values()) {
             menu.save();
@@ -598,7 +611,7 @@ public class Slimefun extends JavaPlugin implements SlimefunAddon {
      * This method creates all necessary directories (and sub directories) for Slimefun.
      */
     private void createDirectories() {
-        String[] storageFolders = { "Players", "blocks", "stored-blocks", "stored-inventories", "stored-chunks", "universal-inventories", "waypoints", "block-backups" };
+        String[] storageFolders = { "Players", "blocks", "stored-blocks", "stored-regions", "stored-inventories", "stored-chunks", "universal-inventories", "waypoints", "block-backups" };
         String[] pluginFolders = { "scripts", "error-reports", "cache/github", "world-settings" };
 
         for (String folder : storageFolders) {
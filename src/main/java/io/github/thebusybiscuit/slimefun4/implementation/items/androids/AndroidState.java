@@ -0,0 +1,169 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Location;
+import org.bukkit.block.BlockFace;
+
+import io.github.bakedlibs.dough.common.CommonPatterns;
+
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+
+/**
+ * The {@link AndroidState} holds the state of a single running {@link ProgrammableAndroid}.
+ * <p>
+ * The script is compiled into an array of {@link Instruction Instructions} once, instead of being
+ * parsed again on every tick. Fuel, the index of the current {@link Instruction} and the rotation
+ * are held as typed values and only written back into the {@link BlockStorage} in batches,
+ * see {@link ProgrammableAndroid#saveAllStates()}.
+ *
+ * @see ProgrammableAndroid
+ *
+ */
+final class AndroidState {
+
+    /*
+     * Androids are ticked on the ticker threads while their state is saved by the auto-saver
+     * and their script is changed on the main thread, so every field must be visible to all of them.
+     * The script is only replaced as a whole while holding the lock of this state.
+     */
+    private String source;
+    private String[] tokens;
+    private Instruction[] program;
+
+    private volatile int index;
+    private volatile float fuel;
+    private volatile BlockFace rotation;
+    private volatile boolean dirty = false;
+
+    private AndroidState(@Nonnull String source, int index, float fuel, @Nonnull BlockFace rotation) {
+        this.index = index;
+        this.fuel = fuel;
+        this.rotation = rotation;
+        setScript(source);
+    }
+
+    /**
+     * This reads the state of an android from its block data.
+     *
+     * @param data
+     *            The block data of the android
+     * @param defaultScript
+     *            The script to use if none was set
+     *
+     * @return The {@link AndroidState} of that android
+     */
+    @Nonnull
+    static AndroidState load(@Nonnull Config data, @Nonnull String defaultScript) {
+        String script = data.getString("script");
+        String indexData = data.getString("index");
+        String fuelData = data.getString("fuel");
+        String rotationData = data.getString("rotation");
+
+        int index = indexData == null ? 0 : Integer.parseInt(indexData);
+        float fuel = fuelData == null ? 0 : Float.parseFloat(fuelData);
+        BlockFace rotation = rotationData == null ? BlockFace.NORTH : BlockFace.valueOf(rotationData);
+
+        return new AndroidState(script == null ? defaultScript : script, index, fuel, rotation);
+    }
+
+    /**
+     * This compiles the given script, unless it is the script we are already running.
+     *
+     * @param script
+     *            The source code of the script
+     */
+    synchronized void setScript(@Nonnull String script) {
+        if (script.equals(source)) {
+            return;
+        }
+
+        String[] parts = CommonPatterns.DASH.split(script);
+        Instruction[] instructions = new Instruction[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            instructions[i] = Instruction.getInstruction(parts[i]);
+        }
+
+        this.source = script;
+        this.tokens = parts;
+        this.program = instructions;
+    }
+
+    /**
+     * This returns the compiled script. An element is null if that {@link Instruction}
+     * could not be parsed, see {@link #getToken(int)}.
+     *
+     * @return The compiled script
+     */
+    @Nonnull
+    synchronized Instruction[] getProgram() {
+        return program;
+    }
+
+    /**
+     * This returns the source code of the {@link Instruction} at the given index.
+     *
+     * @param index
+     *            The index within the script
+     *
+     * @return The source code of that {@link Instruction}
+     */
+    @Nonnull
+    synchronized String getToken(int index) {
+        return tokens[index];
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        if (this.index != index) {
+            this.index = index;
+            dirty = true;
+        }
+    }
+
+    float getFuel() {
+        return fuel;
+    }
+
+    void setFuel(float fuel) {
+        if (this.fuel != fuel) {
+            this.fuel = fuel;
+            dirty = true;
+        }
+    }
+
+    @Nonnull
+    BlockFace getRotation() {
+        return rotation;
+    }
+
+    void setRotation(@Nonnull BlockFace rotation) {
+        if (this.rotation != rotation) {
+            this.rotation = rotation;
+            dirty = true;
+        }
+    }
+
+    /**
+     * This writes this state into the block data at the given {@link Location},
+     * if it has changed since it was last written.
+     *
+     * @param l
+     *            The {@link Location} of the android, if it is still loaded
+     */
+    void save(@Nullable Location l) {
+        if (dirty && l != null) {
+            dirty = false;
+            BlockStorage.addBlockInfo(l, "index", String.valueOf(index));
+            BlockStorage.addBlockInfo(l, "fuel", String.valueOf(fuel));
+            BlockStorage.addBlockInfo(l, "rotation", rotation.name());
+        }
+    }
+
+}
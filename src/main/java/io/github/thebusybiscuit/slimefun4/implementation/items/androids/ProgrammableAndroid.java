@@ -3,11 +3,15 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import org.apache.commons.lang.Validate;
@@ -15,6 +19,7 @@ import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Tag;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
@@ -29,6 +34,7 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
+import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.chat.ChatInput;
 import io.github.bakedlibs.dough.common.ChatColors;
 import io.github.bakedlibs.dough.common.CommonPatterns;
@@ -70,9 +76,12 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
     private static final String DEFAULT_SCRIPT = "START-TURN_LEFT-REPEAT";
     private static final int MAX_SCRIPT_LENGTH = 54;
 
+    private static final Set<ProgrammableAndroid> androids = ConcurrentHashMap.newKeySet();
+
     protected final List<MachineFuel> fuelTypes = new ArrayList<>();
     protected final String texture;
     private final int tier;
+    private final Map<BlockPosition, AndroidState> states = new ConcurrentHashMap<>();
 
     @ParametersAreNonnullByDefault
     public ProgrammableAndroid(ItemGroup itemGroup, int tier, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe) {
@@ -144,6 +153,9 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
                 Player p = e.getPlayer();
                 Block b = e.getBlock();
 
+                // Another android may have been here before
+                states.remove(new BlockPosition(b));
+
                 BlockStorage.addBlockInfo(b, "owner", p.getUniqueId().toString());
                 BlockStorage.addBlockInfo(b, "script", DEFAULT_SCRIPT);
                 BlockStorage.addBlockInfo(b, "index", "0");
@@ -177,6 +189,7 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
                     return;
                 }
 
+                states.remove(new BlockPosition(b));
                 BlockMenu inv = BlockStorage.getInventory(b);
 
                 if (inv != null) {
@@ -214,6 +227,7 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
     @Override
     public void preRegister() {
         super.preRegister();
+        androids.add(this);
 
         addItemHandler(new BlockTicker() {
 
@@ -590,6 +604,53 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
         Validate.isTrue(CommonPatterns.DASH.split(script).length <= MAX_SCRIPT_LENGTH, "Scripts may not have more than " + MAX_SCRIPT_LENGTH + " segments");
 
         BlockStorage.addBlockInfo(l, "script", script);
+
+        AndroidState state = states.get(new BlockPosition(l));
+
+        if (state != null) {
+            state.setScript(script);
+        }
+    }
+
+    /**
+     * This writes the fuel, position in the script and rotation of every running
+     * {@link ProgrammableAndroid} into its block data.
+     * These values are only written in batches, not on every tick.
+     */
+    public static void saveAllStates() {
+        for (ProgrammableAndroid android : androids) {
+            android.saveStates();
+        }
+    }
+
+    private void saveStates() {
+        for (Map.Entry<BlockPosition, AndroidState> entry : states.entrySet()) {
+            Location l = toLocation(entry.getKey());
+
+            if (l == null || !BlockStorage.isChunkResident(l)) {
+                /*
+                 * This chunk was evicted after its state was written by the previous save.
+                 * We must not load it again from here, the state is loaded again once the android ticks.
+                 */
+                states.remove(entry.getKey(), entry.getValue());
+            } else if (BlockStorage.check(l, getId())) {
+                entry.getValue().save(l);
+            } else {
+                // This android is gone, it will be loaded again if it comes back
+                states.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Nonnull
+    private AndroidState getState(@Nonnull Block b, @Nonnull Config data) {
+        return states.computeIfAbsent(new BlockPosition(b), pos -> AndroidState.load(data, DEFAULT_SCRIPT));
+    }
+
+    @Nullable
+    private static Location toLocation(@Nonnull BlockPosition pos) {
+        World world = pos.getWorld();
+        return world == null ? null : new Location(world, pos.getX(), pos.getY(), pos.getZ());
     }
 
     private void registerDefaultFuelTypes() {
@@ -678,61 +739,56 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
 
         if ("false".equals(data.getString("paused"))) {
             BlockMenu menu = BlockStorage.getInventory(b);
-
-            String fuelData = data.getString("fuel");
-            float fuel = fuelData == null ? 0 : Float.parseFloat(fuelData);
+            AndroidState state = getState(b, data);
+            float fuel = state.getFuel();
 
             if (fuel < 0.001) {
-                consumeFuel(b, menu);
+                consumeFuel(menu, state);
             } else {
-                String code = data.getString("script");
-                String[] script = CommonPatterns.DASH.split(code == null ? DEFAULT_SCRIPT : code);
-
-                String indexData = data.getString("index");
-                int index = (indexData == null ? 0 : Integer.parseInt(indexData)) + 1;
+                Instruction[] script = state.getProgram();
+                int index = state.getIndex() + 1;
 
                 if (index >= script.length) {
                     index = 0;
                 }
 
-                BlockStorage.addBlockInfo(b, "fuel", String.valueOf(fuel - 1));
-                Instruction instruction = Instruction.getInstruction(script[index]);
+                state.setFuel(fuel - 1);
+                Instruction instruction = script[index];
 
                 if (instruction == null) {
-                    Slimefun.instance().getLogger().log(Level.WARNING, "Failed to parse Android instruction: {0}, maybe your server is out of date?", script[index]);
+                    Slimefun.instance().getLogger().log(Level.WARNING, "Failed to parse Android instruction: {0}, maybe your server is out of date?", state.getToken(index));
                     return;
                 }
 
-                executeInstruction(instruction, b, menu, data, index);
+                executeInstruction(instruction, b, menu, state, index);
             }
         }
     }
 
     @ParametersAreNonnullByDefault
-    private void executeInstruction(Instruction instruction, Block b, BlockMenu inv, Config data, int index) {
+    private void executeInstruction(Instruction instruction, Block b, BlockMenu inv, AndroidState state, int index) {
         if (getAndroidType().isType(instruction.getRequiredType())) {
-            String rotationData = data.getString("rotation");
-            BlockFace face = rotationData == null ? BlockFace.NORTH : BlockFace.valueOf(rotationData);
+            BlockFace face = state.getRotation();
 
             switch (instruction) {
                 case START:
                 case WAIT:
                     // We are "waiting" here, so we only move a step forward
-                    BlockStorage.addBlockInfo(b, "index", String.valueOf(index));
+                    state.setIndex(index);
                     break;
                 case REPEAT:
                     // "repeat" just means, we reset our index
-                    BlockStorage.addBlockInfo(b, "index", String.valueOf(0));
+                    state.setIndex(0);
                     break;
                 case CHOP_TREE:
                     // We only move to the next step if we finished chopping wood
                     if (chopTree(b, inv, face)) {
-                        BlockStorage.addBlockInfo(b, "index", String.valueOf(index));
+                        state.setIndex(index);
                     }
                     break;
                 default:
                     // We set the index here in advance to fix moving android issues
-                    BlockStorage.addBlockInfo(b, "index", String.valueOf(index));
+                    state.setIndex(index);
                     instruction.execute(this, b, inv, face);
                     break;
             }
@@ -757,7 +813,13 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
         });
 
         b.setBlockData(blockData);
-        BlockStorage.addBlockInfo(b, "rotation", rotation.name());
+        AndroidState state = states.get(new BlockPosition(b));
+
+        if (state != null) {
+            state.setRotation(rotation);
+        } else {
+            BlockStorage.addBlockInfo(b, "rotation", rotation.name());
+        }
     }
 
     protected void depositItems(BlockMenu menu, Block facedBlock) {
@@ -819,7 +881,7 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
     }
 
     @ParametersAreNonnullByDefault
-    private void consumeFuel(Block b, BlockMenu menu) {
+    private void consumeFuel(BlockMenu menu, AndroidState state) {
         ItemStack item = menu.getItemInSlot(43);
 
         if (item != null && item.getType() != Material.AIR) {
@@ -831,8 +893,7 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
                         menu.pushItem(new ItemStack(Material.BUCKET), getOutputSlots());
                     }
 
-                    int fuelLevel = fuel.getTicks();
-                    BlockStorage.addBlockInfo(b, "fuel", String.valueOf(fuelLevel));
+                    state.setFuel(fuel.getTicks());
                     break;
                 }
             }
@@ -890,6 +951,13 @@ public class ProgrammableAndroid extends SlimefunItem implements InventoryBlock,
 
             b.setType(Material.AIR);
             BlockStorage.moveBlockInfo(b.getLocation(), block.getLocation());
+
+            // Our state moves with us, it still holds the latest values
+            AndroidState state = states.remove(new BlockPosition(b));
+
+            if (state != null) {
+                states.put(new BlockPosition(block), state);
+            }
         }
     }
 
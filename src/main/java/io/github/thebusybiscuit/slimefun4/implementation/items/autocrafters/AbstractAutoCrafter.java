@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
@@ -24,6 +26,7 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
+import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.data.persistent.PersistentDataAPI;
 import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.bakedlibs.dough.protection.Interaction;
@@ -34,9 +37,12 @@ import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
 import io.github.thebusybiscuit.slimefun4.core.attributes.EnergyNetComponent;
+import io.github.thebusybiscuit.slimefun4.core.handlers.BlockBreakHandler;
+import io.github.thebusybiscuit.slimefun4.core.machines.FailedLookupCache;
 import io.github.thebusybiscuit.slimefun4.core.networks.energy.EnergyNetComponentType;
 import io.github.thebusybiscuit.slimefun4.core.services.sounds.SoundEffect;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.listeners.AutoCrafterListener;
 import io.github.thebusybiscuit.slimefun4.implementation.tasks.AsyncRecipeChoiceTask;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
@@ -61,6 +67,12 @@ import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
  */
 public abstract class AbstractAutoCrafter extends SlimefunItem implements EnergyNetComponent {
 
+    /**
+     * After a failed crafting attempt, we do not try again for this many milliseconds
+     * unless the contents of the chest have visibly changed.
+     */
+    private static final long FAILED_ATTEMPT_TIMEOUT = 5000;
+
     /**
      * The amount of energy consumed per crafting operation.
      */
@@ -81,6 +93,17 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
      */
     protected final NamespacedKey recipeEnabledKey;
 
+    /**
+     * The {@link AbstractRecipe} selected by each of our blocks, so we do not have to
+     * read it from the {@link Skull} on every tick.
+     */
+    private final Map<BlockPosition, Optional<AbstractRecipe>> selectedRecipes = new ConcurrentHashMap<>();
+
+    /**
+     * The contents of the chest below each of our blocks at the time crafting last failed.
+     */
+    private final FailedLookupCache failedAttempts = new FailedLookupCache(FAILED_ATTEMPT_TIMEOUT);
+
     // @formatter:off
     protected final int[] background = {
         0, 1, 2, 3, 4, 5, 6, 7, 8,
@@ -110,6 +133,20 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
                 return true;
             }
         });
+
+        addItemHandler(onBlockBreak());
+    }
+
+    @Nonnull
+    private BlockBreakHandler onBlockBreak() {
+        return new SimpleBlockBreakHandler() {
+
+            @Override
+            public void onBlockBreak(Block b) {
+                invalidate(b);
+            }
+
+        };
     }
 
     /**
@@ -160,7 +197,8 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
      *            The data stored on this block
      */
     protected void tick(@Nonnull Block b, @Nonnull Config data) {
-        AbstractRecipe recipe = getSelectedRecipe(b);
+        BlockPosition position = new BlockPosition(b);
+        AbstractRecipe recipe = selectedRecipes.computeIfAbsent(position, pos -> Optional.ofNullable(getSelectedRecipe(b))).orElse(null);
 
         if (recipe == null || !recipe.isEnabled() || getCharge(b.getLocation(), data) < getEnergyConsumption()) {
             // No recipe / disabled recipe / no energy, abort...
@@ -176,12 +214,24 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
 
             if (state instanceof InventoryHolder inventoryHolder) {
                 Inventory inv = inventoryHolder.getInventory();
+                long fingerprint = FailedLookupCache.getFingerprint(inv.getContents());
+
+                /*
+                 * If nothing about the chest has changed since we last failed to craft,
+                 * we can skip matching all the ingredients again.
+                 */
+                if (failedAttempts.hasFailed(position, fingerprint)) {
+                    return;
+                }
 
                 if (craft(inv, recipe)) {
                     // We are done crafting!
                     Location loc = b.getLocation().add(0.5, 0.8, 0.5);
                     b.getWorld().spawnParticle(Particle.VILLAGER_HAPPY, loc, 6);
                     removeCharge(b.getLocation(), getEnergyConsumption());
+                    failedAttempts.invalidate(position);
+                } else {
+                    failedAttempts.markFailed(position, fingerprint);
                 }
             }
         }
@@ -260,6 +310,21 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
                 state.update(true, false);
             }
         }
+
+        invalidate(b);
+    }
+
+    /**
+     * This clears everything we remember about the given {@link Block}, so that the
+     * selected {@link AbstractRecipe} is read again on the next tick.
+     *
+     * @param b
+     *            The {@link Block} of the {@link AbstractAutoCrafter}
+     */
+    private void invalidate(@Nonnull Block b) {
+        BlockPosition position = new BlockPosition(b);
+        selectedRecipes.remove(position);
+        failedAttempts.invalidate(position);
     }
 
     /**
@@ -337,6 +402,8 @@ public abstract class AbstractAutoCrafter extends SlimefunItem implements Energy
                 PersistentDataAPI.setByte(skull, recipeEnabledKey, (byte) 1);
                 Slimefun.getLocalization().sendMessage(p, "messages.auto-crafting.temporarily-disabled");
             }
+
+            invalidate(b);
         }
     }
 
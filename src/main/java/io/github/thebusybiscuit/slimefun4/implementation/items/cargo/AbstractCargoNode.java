@@ -16,8 +16,10 @@ import io.github.bakedlibs.dough.protection.Interaction;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
+import io.github.thebusybiscuit.slimefun4.core.handlers.BlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.core.handlers.BlockPlaceHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.items.SimpleSlimefunItem;
 import io.github.thebusybiscuit.slimefun4.utils.ChatUtils;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
@@ -67,6 +69,8 @@ abstract class AbstractCargoNode extends SimpleSlimefunItem<BlockPlaceHandler> i
                 return new int[0];
             }
         };
+
+        addItemHandler(onBreak());
     }
 
     @Override
@@ -82,11 +86,28 @@ abstract class AbstractCargoNode extends SimpleSlimefunItem<BlockPlaceHandler> i
                 BlockStorage.addBlockInfo(b, FREQUENCY, "0");
 
                 onPlace(e);
+
+                // The routing of a network that already reaches this block must take this node into account
+                markDirty(b.getLocation());
             }
 
         };
     }
 
+    @Nonnull
+    private BlockBreakHandler onBreak() {
+        return new SimpleBlockBreakHandler() {
+
+            @Override
+            public void onBlockBreak(@Nonnull Block b) {
+                onBreak(b);
+
+                // The network must no longer route any items through this node
+                markDirty(b.getLocation());
+            }
+        };
+    }
+
     @ParametersAreNonnullByDefault
     protected void addChannelSelector(Block b, BlockMenu menu, int slotPrev, int slotCurrent, int slotNext) {
         int channel = getSelectedChannel(b);
@@ -100,6 +121,7 @@ abstract class AbstractCargoNode extends SimpleSlimefunItem<BlockPlaceHandler> i
             }
 
             BlockStorage.addBlockInfo(b, FREQUENCY, String.valueOf(newChannel));
+            markDirty(b.getLocation());
             updateBlockMenu(menu, b);
             return false;
         });
@@ -121,6 +143,7 @@ abstract class AbstractCargoNode extends SimpleSlimefunItem<BlockPlaceHandler> i
             }
 
             BlockStorage.addBlockInfo(b, FREQUENCY, String.valueOf(newChannel));
+            markDirty(b.getLocation());
             updateBlockMenu(menu, b);
             return false;
         });
@@ -146,6 +169,16 @@ abstract class AbstractCargoNode extends SimpleSlimefunItem<BlockPlaceHandler> i
 
     abstract void onPlace(@Nonnull BlockPlaceEvent e);
 
+    /**
+     * This is called when this node is broken, before its network is notified.
+     * 
+     * @param b
+     *            The {@link Block} of this node
+     */
+    protected void onBreak(@Nonnull Block b) {
+        // Most nodes have nothing to drop
+    }
+
     abstract void createBorder(@Nonnull BlockMenuPreset preset);
 
     abstract void updateBlockMenu(@Nonnull BlockMenu menu, @Nonnull Block b);
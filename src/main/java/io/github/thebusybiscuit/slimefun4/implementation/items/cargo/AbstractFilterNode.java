@@ -21,9 +21,7 @@ import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
-import io.github.thebusybiscuit.slimefun4.core.handlers.BlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoNet;
-import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
@@ -51,7 +49,6 @@ abstract class AbstractFilterNode extends AbstractCargoNode {
         super(itemGroup, item, recipeType, recipe, recipeOutput);
 
         allowCustomItems = Slimefun.getCfg().getBoolean("options.allow-custom-items-in-cargo-filters");
-        addItemHandler(onBreak());
     }
 
     @Override
@@ -59,19 +56,13 @@ abstract class AbstractFilterNode extends AbstractCargoNode {
         return true;
     }
 
-    @Nonnull
-    private BlockBreakHandler onBreak() {
-        return new SimpleBlockBreakHandler() {
-
-            @Override
-            public void onBlockBreak(@Nonnull Block b) {
-                BlockMenu inv = BlockStorage.getInventory(b);
+    @Override
+    protected void onBreak(@Nonnull Block b) {
+        BlockMenu inv = BlockStorage.getInventory(b);
 
-                if (inv != null) {
-                    inv.dropItems(b.getLocation(), SLOTS);
-                }
-            }
-        };
+        if (inv != null) {
+            inv.dropItems(b.getLocation(), SLOTS);
+        }
     }
 
     @Nonnull
@@ -50,6 +50,7 @@ public class CargoInputNode extends AbstractFilterNode {
             menu.replaceExistingItem(24, new CustomItemStack(HeadTexture.ENERGY_REGULATOR.getAsItemStack(), "&7Round-Robin Mode: &4\u2718", "", "&e> Click to enable Round Robin Mode", "&e(Items will be equally distributed on the Channel)"));
             menu.addMenuClickHandler(24, (p, slot, item, action) -> {
                 BlockStorage.addBlockInfo(b, ROUND_ROBIN_MODE, String.valueOf(true));
+                markDirty(b.getLocation());
                 updateBlockMenu(menu, b);
                 return false;
             });
@@ -57,6 +58,7 @@ public class CargoInputNode extends AbstractFilterNode {
             menu.replaceExistingItem(24, new CustomItemStack(HeadTexture.ENERGY_REGULATOR.getAsItemStack(), "&7Round-Robin Mode: &2\u2714", "", "&e> Click to disable Round Robin Mode", "&e(Items will be equally distributed on the Channel)"));
             menu.addMenuClickHandler(24, (p, slot, item, action) -> {
                 BlockStorage.addBlockInfo(b, ROUND_ROBIN_MODE, String.valueOf(false));
+                markDirty(b.getLocation());
                 updateBlockMenu(menu, b);
                 return false;
             });
@@ -67,6 +69,7 @@ public class CargoInputNode extends AbstractFilterNode {
             menu.replaceExistingItem(16, new CustomItemStack(Material.WRITABLE_BOOK, "&7\"Smart-Filling\" Mode: &4\u2718", "", "&e> Click to enable \"Smart-Filling\" Mode", "", "&fIn this mode, the Cargo node will attempt", "&fto keep a constant amount of items", "&fin the inventory. This is not perfect", "&fand will still fill in empty slots that", "&fcome before a stack of a configured item."));
             menu.addMenuClickHandler(16, (p, slot, item, action) -> {
                 BlockStorage.addBlockInfo(b, SMART_FILL_MODE, String.valueOf(true));
+                markDirty(b.getLocation());
                 updateBlockMenu(menu, b);
                 return false;
             });
@@ -74,6 +77,7 @@ public class CargoInputNode extends AbstractFilterNode {
             menu.replaceExistingItem(16, new CustomItemStack(Material.WRITTEN_BOOK, "&7\"Smart-Filling\" Mode: &2\u2714", "", "&e> Click to disable \"Smart-Filling\" Mode", "", "&fIn this mode, the Cargo node will attempt", "&fto keep a constant amount of items", "&fin the inventory. This is not perfect", "&fand will still fill in empty slots that", "&fcome before a stack of a configured item."));
             menu.addMenuClickHandler(16, (p, slot, item, action) -> {
                 BlockStorage.addBlockInfo(b, SMART_FILL_MODE, String.valueOf(false));
+                markDirty(b.getLocation());
                 updateBlockMenu(menu, b);
                 return false;
             });
@@ -12,6 +12,7 @@ import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoNet;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
@@ -50,7 +51,12 @@ public class CargoOutputNode extends AbstractCargoNode {
 
     @Override
     protected void markDirty(Location loc) {
-        // No need to mark anything as dirty, there is no item filter.
+        // There is no item filter but the frequency may have changed
+        CargoNet network = CargoNet.getNetworkFromLocation(loc);
+
+        if (network != null) {
+            network.markCargoNodeConfigurationDirty(loc);
+        }
     }
 
 }
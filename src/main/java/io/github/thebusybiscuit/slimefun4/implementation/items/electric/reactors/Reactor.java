@@ -35,6 +35,7 @@ import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBre
 import io.github.thebusybiscuit.slimefun4.implementation.items.cargo.ReactorAccessPort;
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.AbstractEnergyProvider;
 import io.github.thebusybiscuit.slimefun4.implementation.operations.FuelOperation;
+import io.github.thebusybiscuit.slimefun4.implementation.operations.OperationSerializers;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
@@ -83,6 +84,7 @@ public abstract class Reactor extends AbstractEnergyProvider implements Hologram
         super(itemGroup, item, recipeType, recipe);
 
         processor.setProgressBar(getProgressBar());
+        processor.setSerializer(OperationSerializers.FUEL);
 
         new BlockMenuPreset(getId(), getInventoryTitle()) {
 
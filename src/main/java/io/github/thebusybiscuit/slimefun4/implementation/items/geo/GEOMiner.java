@@ -33,6 +33,7 @@ import io.github.thebusybiscuit.slimefun4.core.networks.energy.EnergyNetComponen
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.operations.GEOMiningOperation;
+import io.github.thebusybiscuit.slimefun4.implementation.operations.OperationSerializers;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
@@ -68,6 +69,7 @@ public class GEOMiner extends SlimefunItem implements RecipeDisplayItem, EnergyN
         super(itemGroup, item, recipeType, recipe);
 
         processor.setProgressBar(new ItemStack(Material.DIAMOND_PICKAXE));
+        processor.setSerializer(OperationSerializers.GEO_MINING);
         createPreset(this, getItemName(), this::constructMenu);
         addItemHandler(onBlockPlace(), onBlockBreak());
     }
@@ -301,7 +303,7 @@ public class GEOMiner extends SlimefunItem implements RecipeDisplayItem, EnergyN
 
                 processor.endOperation(b);
             }
-        } else if (!BlockStorage.hasChunkInfo(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
+        } else if (!Slimefun.getGPSNetwork().getResourceManager().hasSupplies(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
             updateHologram(b, "&4GEO-Scan required!");
         } else {
             start(b, inv);
@@ -1,10 +1,25 @@
 package io.github.thebusybiscuit.slimefun4.implementation.listeners;
 
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.annotation.Nonnull;
 
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.tasks.armor.RadiationTask;
@@ -12,12 +27,18 @@ import io.github.thebusybiscuit.slimefun4.utils.RadiationUtils;
 
 /**
  * {@link RadioactivityListener} handles radioactivity level resets
- * on death
+ * on death and tells the {@link RadiationTask} whenever the inventory
+ * of a {@link Player} has changed.
  *
  * @author Semisol
  */
 public class RadioactivityListener implements Listener {
 
+    /**
+     * The players whose inventory has changed during this tick.
+     */
+    private final Set<UUID> changedInventories = ConcurrentHashMap.newKeySet();
+
     public RadioactivityListener(@Nonnull Slimefun plugin) {
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
@@ -26,5 +47,67 @@ public class RadioactivityListener implements Listener {
     public void onPlayerDeath(@Nonnull PlayerDeathEvent e) {
         RadiationUtils.clearExposure(e.getEntity());
         RadiationTask.addGracePeriod(e.getEntity());
+        onInventoryChange(e.getEntity());
+    }
+
+    @EventHandler
+    public void onPlayerQuit(@Nonnull PlayerQuitEvent e) {
+        RadiationTask.clearCache(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(@Nonnull InventoryClickEvent e) {
+        onInventoryChange(e.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(@Nonnull InventoryDragEvent e) {
+        onInventoryChange(e.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(@Nonnull InventoryCloseEvent e) {
+        // Items in a crafting grid are put back into the inventory
+        onInventoryChange(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickup(@Nonnull EntityPickupItemEvent e) {
+        if (e.getEntity() instanceof Player p) {
+            onInventoryChange(p);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDrop(@Nonnull PlayerDropItemEvent e) {
+        onInventoryChange(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(@Nonnull PlayerItemConsumeEvent e) {
+        onInventoryChange(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(@Nonnull BlockPlaceEvent e) {
+        onInventoryChange(e.getPlayer());
+    }
+
+    private void onInventoryChange(@Nonnull HumanEntity entity) {
+        if (!(entity instanceof Player p)) {
+            return;
+        }
+
+        /*
+         * These events are fired before the inventory actually changes.
+         * So we only mark the inventory as changed on the next tick, otherwise
+         * the RadiationTask could scan it in between and miss that change.
+         */
+        if (changedInventories.add(p.getUniqueId())) {
+            Slimefun.runSync(() -> {
+                changedInventories.remove(p.getUniqueId());
+                RadiationTask.markDirty(p);
+            });
+        }
     }
 }
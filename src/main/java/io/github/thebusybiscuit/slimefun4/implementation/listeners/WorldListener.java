@@ -5,7 +5,10 @@ import java.util.logging.Level;
 import javax.annotation.Nonnull;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 
@@ -22,7 +25,7 @@ public class WorldListener implements Listener {
     @EventHandler
     public void onWorldLoad(WorldLoadEvent e) {
         Slimefun.getWorldSettingsService().load(e.getWorld());
-        BlockStorage.getOrCreate(e.getWorld());
+        BlockStorage.loadAsync(e.getWorld());
     }
 
     @EventHandler
@@ -36,4 +39,23 @@ public class WorldListener implements Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChunkLoad(ChunkLoadEvent e) {
+        // We must not wait for a World that is still loading here
+        BlockStorage storage = BlockStorage.getStorageWithoutWaiting(e.getWorld());
+
+        if (storage != null && storage.isLazyLoading()) {
+            storage.onChunkLoad(e.getChunk());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        BlockStorage storage = BlockStorage.getStorageWithoutWaiting(e.getWorld());
+
+        if (storage != null && storage.isLazyLoading()) {
+            storage.onChunkUnload(e.getChunk());
+        }
+    }
+
 }
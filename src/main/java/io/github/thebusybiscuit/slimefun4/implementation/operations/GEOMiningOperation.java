@@ -32,6 +32,11 @@ public class GEOMiningOperation extends MiningOperation {
      * This returns the {@link GEOResource} back to the chunk
      * when the {@link GEOMiningOperation} gets cancelled
      */
+    @Nonnull
+    public GEOResource getResource() {
+        return resource;
+    }
+
     @Override
     public void onCancel(@Nonnull BlockPosition position) {
         ResourceManager resourceManager = Slimefun.getGPSNetwork().getResourceManager();
@@ -0,0 +1,236 @@
+package io.github.thebusybiscuit.slimefun4.implementation.operations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import io.github.thebusybiscuit.slimefun4.api.geo.GEOResource;
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineOperationSerializer;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+
+/**
+ * This class holds the {@link MachineOperationSerializer MachineOperationSerializers}
+ * for the operations that ship with Slimefun.
+ * <p>
+ * Fields are separated by {@code ;} and items by {@code ,}. To keep the data small, an item is stored
+ * as its {@link Material} if it has no meta, as its Slimefun id if it is an unmodified {@link SlimefunItem}
+ * and only otherwise as a serialized {@link ItemStack}.
+ *
+ * @see CraftingOperation
+ * @see FuelOperation
+ * @see MiningOperation
+ * @see GEOMiningOperation
+ */
+public final class OperationSerializers {
+
+    public static final MachineOperationSerializer<CraftingOperation> CRAFTING = new MachineOperationSerializer<>() {
+
+        @Override
+        public String serialize(CraftingOperation operation) {
+            String ingredients = encodeItems(operation.getIngredients());
+            String results = encodeItems(operation.getResults());
+            return ingredients == null || results == null ? null : operation.getTotalTicks() + ";" + ingredients + ';' + results;
+        }
+
+        @Override
+        public CraftingOperation deserialize(String data) {
+            String[] fields = data.split(";", -1);
+
+            if (fields.length != 3) {
+                return null;
+            }
+
+            ItemStack[] ingredients = decodeItems(fields[1]);
+            ItemStack[] results = decodeItems(fields[2]);
+            return ingredients == null || results == null ? null : new CraftingOperation(ingredients, results, Integer.parseInt(fields[0]));
+        }
+    };
+
+    public static final MachineOperationSerializer<FuelOperation> FUEL = new MachineOperationSerializer<>() {
+
+        @Override
+        public String serialize(FuelOperation operation) {
+            String ingredient = encodeItem(operation.getIngredient());
+            String result = operation.getResult() == null ? "" : encodeItem(operation.getResult());
+            return ingredient == null || result == null ? null : operation.getTotalTicks() + ";" + ingredient + ';' + result;
+        }
+
+        @Override
+        public FuelOperation deserialize(String data) {
+            String[] fields = data.split(";", -1);
+
+            if (fields.length != 3) {
+                return null;
+            }
+
+            ItemStack ingredient = decodeItem(fields[1]);
+            ItemStack result = fields[2].isEmpty() ? null : decodeItem(fields[2]);
+
+            if (ingredient == null || (result == null && !fields[2].isEmpty())) {
+                return null;
+            }
+
+            return new FuelOperation(ingredient, result, Integer.parseInt(fields[0]));
+        }
+    };
+
+    public static final MachineOperationSerializer<MiningOperation> MINING = new MachineOperationSerializer<>() {
+
+        @Override
+        public String serialize(MiningOperation operation) {
+            String result = encodeItem(operation.getResult());
+            return result == null ? null : operation.getTotalTicks() + ";" + result;
+        }
+
+        @Override
+        public MiningOperation deserialize(String data) {
+            String[] fields = data.split(";", -1);
+
+            if (fields.length != 2) {
+                return null;
+            }
+
+            ItemStack result = decodeItem(fields[1]);
+            return result == null ? null : new MiningOperation(result, Integer.parseInt(fields[0]));
+        }
+    };
+
+    public static final MachineOperationSerializer<GEOMiningOperation> GEO_MINING = new MachineOperationSerializer<>() {
+
+        @Override
+        public String serialize(GEOMiningOperation operation) {
+            return operation.getTotalTicks() + ";" + operation.getResource().getKey();
+        }
+
+        @Override
+        public GEOMiningOperation deserialize(String data) {
+            String[] fields = data.split(";", -1);
+
+            if (fields.length != 2) {
+                return null;
+            }
+
+            NamespacedKey key = NamespacedKey.fromString(fields[1]);
+            Optional<GEOResource> resource = key == null ? Optional.empty() : Slimefun.getRegistry().getGEOResources().get(key);
+            return resource.map(r -> new GEOMiningOperation(r, Integer.parseInt(fields[0]))).orElse(null);
+        }
+    };
+
+    private OperationSerializers() {}
+
+    @Nullable
+    private static String encodeItems(@Nonnull ItemStack[] items) {
+        StringBuilder builder = new StringBuilder();
+
+        for (ItemStack item : items) {
+            String encoded = item == null ? "" : encodeItem(item);
+
+            if (encoded == null) {
+                return null;
+            }
+
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+
+            builder.append(encoded);
+        }
+
+        return builder.toString();
+    }
+
+    @Nullable
+    private static ItemStack[] decodeItems(@Nonnull String data) {
+        String[] parts = data.split(",", -1);
+        ItemStack[] items = new ItemStack[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            if (!parts[i].isEmpty()) {
+                items[i] = decodeItem(parts[i]);
+
+                if (items[i] == null) {
+                    return null;
+                }
+            }
+        }
+
+        return items;
+    }
+
+    @Nullable
+    static String encodeItem(@Nonnull ItemStack item) {
+        if (!item.hasItemMeta()) {
+            return "v:" + item.getType().name() + ':' + item.getAmount();
+        }
+
+        SlimefunItem sfItem = SlimefunItem.getByItem(item);
+
+        if (sfItem != null && SlimefunUtils.isItemSimilar(item, sfItem.getItem(), true, false)) {
+            return "s:" + sfItem.getId() + ':' + item.getAmount();
+        }
+
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(); BukkitObjectOutputStream out = new BukkitObjectOutputStream(bytes)) {
+            out.writeObject(item);
+            out.flush();
+            return "b:" + Base64.getEncoder().encodeToString(bytes.toByteArray());
+        } catch (IOException x) {
+            Slimefun.logger().log(Level.WARNING, x, () -> "Could not serialize an item of a machine operation: " + item);
+            return null;
+        }
+    }
+
+    @Nullable
+    static ItemStack decodeItem(@Nonnull String data) {
+        if (data.length() < 2 || data.charAt(1) != ':') {
+            return null;
+        }
+
+        String value = data.substring(2);
+
+        switch (data.charAt(0)) {
+            case 'v' -> {
+                int separator = value.lastIndexOf(':');
+                Material material = separator < 0 ? null : Material.getMaterial(value.substring(0, separator));
+                return material == null ? null : new ItemStack(material, Integer.parseInt(value.substring(separator + 1)));
+            }
+            case 's' -> {
+                int separator = value.lastIndexOf(':');
+                SlimefunItem sfItem = separator < 0 ? null : SlimefunItem.getById(value.substring(0, separator));
+
+                if (sfItem == null) {
+                    return null;
+                }
+
+                ItemStack item = sfItem.getItem().clone();
+                item.setAmount(Integer.parseInt(value.substring(separator + 1)));
+                return item;
+            }
+            case 'b' -> {
+                try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value)))) {
+                    return in.readObject() instanceof ItemStack item ? item : null;
+                } catch (IOException | ClassNotFoundException | IllegalArgumentException x) {
+                    Slimefun.logger().log(Level.WARNING, x, () -> "Could not deserialize an item of a machine operation");
+                    return null;
+                }
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+}
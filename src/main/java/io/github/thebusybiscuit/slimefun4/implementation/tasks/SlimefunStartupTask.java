@@ -51,9 +51,10 @@ public class SlimefunStartupTask implements Runnable {
         // Load all worlds
         Slimefun.getWorldSettingsService().load(Bukkit.getWorlds());
 
+        // The data of every World is loaded off the main thread, anything that needs it will wait for it
         for (World world : Bukkit.getWorlds()) {
             try {
-                new BlockStorage(world);
+                BlockStorage.loadAsync(world);
             } catch (Exception x) {
                 Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while trying to load World \"" + world.getName() + "\" for Slimefun v" + Slimefun.getVersion());
             }
@@ -0,0 +1,94 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import javax.annotation.Nonnull;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+
+/**
+ * The {@link SyncTickDispatcher} collects all work of a {@link TickerTask} cycle that has to
+ * happen on the main thread, such as synchronized {@link BlockTicker BlockTickers}.
+ * <p>
+ * Instead of scheduling one task per block, all work is run by a single task. That task stops
+ * once it has used up its time budget for this server tick, the remaining work is picked up
+ * again on the next server tick.
+ *
+ * @see TickerTask
+ *
+ */
+final class SyncTickDispatcher implements Runnable {
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final long budget;
+
+    /**
+     * This creates a new {@link SyncTickDispatcher}.
+     *
+     * @param budget
+     *            The time in milliseconds we may spend per server tick, or zero for no limit
+     */
+    SyncTickDispatcher(int budget) {
+        this.budget = budget > 0 ? TimeUnit.MILLISECONDS.toNanos(budget) : Long.MAX_VALUE;
+    }
+
+    /**
+     * This adds the given task to the work of the current cycle.
+     * It will not run before {@link #flush()} was called.
+     *
+     * @param task
+     *            The task to run on the main thread
+     */
+    void submit(@Nonnull Runnable task) {
+        queue.add(task);
+    }
+
+    /**
+     * This schedules all work that was submitted so far to run on the main thread.
+     */
+    void flush() {
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true) && Slimefun.runSync(this) == null) {
+            /*
+             * Either we are in a unit test and everything already ran
+             * or Slimefun was disabled and nothing can run anymore.
+             */
+            scheduled.set(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        Runnable task;
+
+        // We always run at least one task, so that we make progress
+        do {
+            task = queue.poll();
+
+            if (task == null) {
+                break;
+            }
+
+            try {
+                task.run();
+            } catch (Exception | LinkageError x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "An Exception was caught while running a synchronized tick for Slimefun v" + Slimefun.getVersion());
+            }
+        } while (System.nanoTime() - start < budget);
+
+        scheduled.set(false);
+
+        if (!queue.isEmpty()) {
+            // Whatever did not fit into this server tick will run on the next one
+            flush();
+        }
+    }
+
+}
@@ -1,16 +1,28 @@
 package io.github.thebusybiscuit.slimefun4.implementation.tasks;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import org.apache.commons.lang.Validate;
@@ -18,6 +30,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.scheduler.BukkitScheduler;
 
@@ -26,6 +39,7 @@ import io.github.bakedlibs.dough.blocks.ChunkPosition;
 import io.github.thebusybiscuit.slimefun4.api.ErrorReport;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.tasks.TickingChunk.TickingBlock;
 
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
@@ -44,8 +58,10 @@ public class TickerTask implements Runnable {
 
     /**
      * This Map holds all currently actively ticking locations.
+     * It is indexed by the {@link UUID} of the {@link World} and then by
+     * the {@link TickingChunk#getAsLong(int, int) packed chunk coordinates}.
      */
-    private final Map<ChunkPosition, Set<Location>> tickingLocations = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<Long, TickingChunk>> tickingChunks = new ConcurrentHashMap<>();
 
     // These are "Queues" of blocks that need to be removed or moved
     private final Map<Location, Location> movingQueue = new ConcurrentHashMap<>();
@@ -57,7 +73,43 @@ public class TickerTask implements Runnable {
      */
     private final Map<BlockPosition, Integer> bugs = new ConcurrentHashMap<>();
 
+    /**
+     * This is our pool of worker {@link Thread Threads} when parallel ticking is enabled.
+     * It will be null if every {@link BlockTicker} should be ticked on the main ticker {@link Thread}.
+     */
+    private ExecutorService workers;
+
+    /**
+     * This collects the synchronized work of each cycle and runs it on the main thread.
+     */
+    private SyncTickDispatcher syncDispatcher = new SyncTickDispatcher(0);
+
+    /**
+     * A suspended ticker is woken up after this many cycles, even if nobody woke it up before.
+     * This limits the damage if a change to a suspended block went unnoticed.
+     */
+    private static final int MAX_SUSPENDED_CYCLES = 20;
+
+    /**
+     * How many seconds we wait for our worker {@link Thread Threads} to finish when halting.
+     */
+    private static final int WORKER_SHUTDOWN_TIMEOUT = 10;
+
+    /**
+     * How many cycles a {@link SlimefunItem} may skip between two ticks, indexed by its id.
+     */
+    private final Map<String, Integer> tickDivisors = new HashMap<>();
+
+    /**
+     * How much work had to be deferred to the next cycle because we ran out of time.
+     */
+    private final AtomicInteger deferredChunks = new AtomicInteger();
+    private final AtomicInteger deferredBlocks = new AtomicInteger();
+
     private int tickRate;
+    private long maxTickTime;
+    private boolean suspendIdleTickers;
+    private volatile long cycle = 1;
     private boolean halted = false;
     private boolean running = false;
 
@@ -69,6 +121,38 @@ public class TickerTask implements Runnable {
      */
     public void start(@Nonnull Slimefun plugin) {
         this.tickRate = Slimefun.getCfg().getInt("URID.custom-ticker-delay");
+        this.suspendIdleTickers = Slimefun.getCfg().getBoolean("URID.suspend-idle-machines");
+        this.syncDispatcher = new SyncTickDispatcher(Slimefun.getCfg().getInt("URID.sync-tick-budget-in-ms"));
+        this.maxTickTime = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Slimefun.getCfg().getInt("URID.max-tick-time-in-ms")));
+
+        if (Slimefun.getCfg().contains("URID.tick-divisors")) {
+            for (String id : Slimefun.getCfg().getKeys("URID.tick-divisors")) {
+                int divisor = Slimefun.getCfg().getInt("URID.tick-divisors." + id);
+
+                if (divisor < 1) {
+                    plugin.getLogger().log(Level.WARNING, "The tick divisor of {0} is misconfigured! It must be at least 1, it was set to: {1}", new Object[] { id, divisor });
+                } else if (divisor > 1) {
+                    tickDivisors.put(id, divisor);
+                }
+            }
+        }
+
+        if (Slimefun.getCfg().getBoolean("URID.parallel-ticking.enabled")) {
+            int threads = Slimefun.getCfg().getInt("URID.parallel-ticking.threads");
+
+            if (threads < 1) {
+                plugin.getLogger().log(Level.WARNING, "Your 'URID.parallel-ticking.threads' setting is misconfigured! It must be at least 1, it was set to: {0}", threads);
+                threads = 1;
+            }
+
+            plugin.getLogger().log(Level.INFO, "Parallel ticking is enabled, using {0} worker thread(s)", threads);
+            workers = Executors.newFixedThreadPool(threads, runnable -> {
+                // Our workers must never keep the server from shutting down
+                Thread thread = new Thread(runnable, "Slimefun Ticker Worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
 
         BukkitScheduler scheduler = plugin.getServer().getScheduler();
         scheduler.runTaskTimerAsynchronously(plugin, this, 100L, tickRate);
@@ -90,6 +174,7 @@ public class TickerTask implements Runnable {
             }
 
             running = true;
+            cycle++;
             Slimefun.getProfiler().start();
             Set<BlockTicker> tickers = new HashSet<>();
 
@@ -106,9 +191,24 @@ public class TickerTask implements Runnable {
 
             // Run our ticker code
             if (!halted) {
-                for (Map.Entry<ChunkPosition, Set<Location>> entry : tickingLocations.entrySet()) {
-                    tickChunk(entry.getKey(), tickers, entry.getValue());
+                long deadline = System.nanoTime() + maxTickTime;
+                deferredChunks.set(0);
+                deferredBlocks.set(0);
+
+                if (workers != null) {
+                    tickers = ConcurrentHashMap.newKeySet();
+                    tickChunksInParallel(tickers, deadline);
+                } else if (maxTickTime > 0) {
+                    tickChunks(getChunks(), tickers, deadline);
+                } else {
+                    for (Map<Long, TickingChunk> chunks : tickingChunks.values()) {
+                        for (TickingChunk chunk : chunks.values()) {
+                            tickChunk(chunk, tickers);
+                        }
+                    }
                 }
+
+                Slimefun.getProfiler().reportDeferredWork(deferredChunks.get(), deferredBlocks.get());
             }
 
             // Move any moved block data
@@ -124,6 +224,9 @@ public class TickerTask implements Runnable {
                 ticker.startNewTick();
             }
 
+            // Run all synchronized work of this cycle in one go
+            syncDispatcher.flush();
+
             reset();
             Slimefun.getProfiler().stop();
         } catch (Exception | LinkageError x) {
@@ -132,46 +235,163 @@ public class TickerTask implements Runnable {
         }
     }
 
+    /**
+     * This method splits all ticking chunks into region-sized shards (32x32 chunks)
+     * and ticks them on our pool of worker {@link Thread Threads}.
+     * It only returns after every shard has been ticked, so the deletion and
+     * movement queues are still processed before and after the entire cycle.
+     * 
+     * @param tickers
+     *            A thread-safe {@link Set} to collect every ticked {@link BlockTicker}
+     * @param deadline
+     *            The {@link System#nanoTime()} at which this cycle runs out of time
+     */
+    private void tickChunksInParallel(@Nonnull Set<BlockTicker> tickers, long deadline) {
+        List<Callable<Void>> shards = new ArrayList<>();
+
+        for (Map<Long, TickingChunk> chunks : tickingChunks.values()) {
+            Map<Long, List<TickingChunk>> regions = new HashMap<>();
+
+            for (TickingChunk chunk : chunks.values()) {
+                ChunkPosition position = chunk.getPosition();
+                long region = TickingChunk.getAsLong(position.getX() >> 5, position.getZ() >> 5);
+                regions.computeIfAbsent(region, key -> new ArrayList<>()).add(chunk);
+            }
+
+            for (List<TickingChunk> region : regions.values()) {
+                shards.add(() -> {
+                    if (maxTickTime > 0) {
+                        region.sort(Comparator.comparingLong(TickingChunk::getLastTicked));
+                        tickChunks(region, tickers, deadline);
+                    } else {
+                        for (TickingChunk chunk : region) {
+                            tickChunk(chunk, tickers);
+                        }
+                    }
+
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : workers.invokeAll(shards)) {
+                try {
+                    future.get();
+                } catch (ExecutionException x) {
+                    Slimefun.logger().log(Level.SEVERE, x.getCause(), () -> "An Exception was caught while ticking a region for Slimefun v" + Slimefun.getVersion());
+                }
+            }
+        } catch (InterruptedException x) {
+            Slimefun.logger().log(Level.SEVERE, "The Ticker Task was interrupted while waiting for its worker threads", x);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This returns every {@link TickingChunk}, the ones that were ticked the longest time ago first.
+     * 
+     * @return All {@link TickingChunk TickingChunks}
+     */
+    @Nonnull
+    private List<TickingChunk> getChunks() {
+        List<TickingChunk> list = new ArrayList<>();
+
+        for (Map<Long, TickingChunk> chunks : tickingChunks.values()) {
+            list.addAll(chunks.values());
+        }
+
+        // This sort is stable, chunks that were deferred simply move to the front
+        list.sort(Comparator.comparingLong(TickingChunk::getLastTicked));
+        return list;
+    }
+
+    /**
+     * This ticks the given chunks in order until the deadline has passed.
+     * Any remaining chunks are deferred to the next cycle.
+     * 
+     * @param chunks
+     *            The chunks to tick
+     * @param tickers
+     *            A {@link Set} to collect every ticked {@link BlockTicker}
+     * @param deadline
+     *            The {@link System#nanoTime()} at which this cycle runs out of time
+     */
     @ParametersAreNonnullByDefault
-    private void tickChunk(ChunkPosition chunk, Set<BlockTicker> tickers, Set<Location> locations) {
+    private void tickChunks(List<TickingChunk> chunks, Set<BlockTicker> tickers, long deadline) {
+        long currentCycle = cycle;
+        int ticked = 0;
+
+        for (TickingChunk chunk : chunks) {
+            if (System.nanoTime() - deadline >= 0) {
+                deferredChunks.addAndGet(chunks.size() - ticked);
+
+                for (int i = ticked; i < chunks.size(); i++) {
+                    deferredBlocks.addAndGet(chunks.get(i).getBlocks().length);
+                }
+
+                return;
+            }
+
+            tickChunk(chunk, tickers);
+            chunk.setLastTicked(currentCycle);
+            ticked++;
+        }
+    }
+
+    @ParametersAreNonnullByDefault
+    private void tickChunk(TickingChunk chunk, Set<BlockTicker> tickers) {
         try {
             // Only continue if the Chunk is actually loaded
-            if (chunk.isLoaded()) {
-                for (Location l : locations) {
-                    tickLocation(tickers, l);
+            if (chunk.getPosition().isLoaded()) {
+                long currentCycle = cycle;
+
+                for (TickingBlock block : chunk.getBlocks()) {
+                    if (!block.isSuspended(currentCycle) && block.isDue(currentCycle)) {
+                        tickLocation(tickers, block);
+                    }
                 }
             }
         } catch (ArrayIndexOutOfBoundsException | NumberFormatException x) {
-            Slimefun.logger().log(Level.SEVERE, x, () -> "An Exception has occurred while trying to resolve Chunk: " + chunk);
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Exception has occurred while trying to resolve Chunk: " + chunk.getPosition());
         }
     }
 
-    private void tickLocation(@Nonnull Set<BlockTicker> tickers, @Nonnull Location l) {
-        Config data = BlockStorage.getLocationInfo(l);
-        SlimefunItem item = SlimefunItem.getById(data.getString("id"));
+    private void tickLocation(@Nonnull Set<BlockTicker> tickers, @Nonnull TickingBlock block) {
+        if (block.resolve(tickDivisors)) {
+            Location l = block.getLocation();
+            SlimefunItem item = block.getItem();
+            BlockTicker ticker = block.getTicker();
+            Config data = block.getData();
 
-        if (item != null && item.getBlockTicker() != null) {
             try {
-                if (item.getBlockTicker().isSynchronized()) {
+                if (ticker.isSynchronized()) {
+                    if (block.isSyncTickPending()) {
+                        // The last synchronized tick of this block did not fit into the main thread yet
+                        return;
+                    }
+
                     Slimefun.getProfiler().scheduleEntries(1);
-                    item.getBlockTicker().update();
+                    ticker.update();
+                    block.setSyncTickPending(true);
 
                     /**
                      * We are inserting a new timestamp because synchronized actions
-                     * are always ran with a 50ms delay (1 game tick)
+                     * are always ran with a delay (at least 1 game tick)
                      */
-                    Slimefun.runSync(() -> {
+                    syncDispatcher.submit(() -> {
+                        block.setSyncTickPending(false);
                         Block b = l.getBlock();
                         tickBlock(l, b, item, data, System.nanoTime());
                     });
                 } else {
                     long timestamp = Slimefun.getProfiler().newEntry();
-                    item.getBlockTicker().update();
+                    ticker.update();
                     Block b = l.getBlock();
                     tickBlock(l, b, item, data, timestamp);
                 }
 
-                tickers.add(item.getBlockTicker());
+                tickers.add(ticker);
             } catch (Exception x) {
                 reportErrors(l, item, x);
             }
@@ -218,6 +438,49 @@ public class TickerTask implements Runnable {
 
     public void halt() {
         halted = true;
+
+        if (workers != null) {
+            workers.shutdown();
+
+            try {
+                // Let the current cycle finish before the block data is saved
+                if (!workers.awaitTermination(WORKER_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    Slimefun.logger().log(Level.WARNING, "The ticker workers did not finish within {0} seconds", WORKER_SHUTDOWN_TIMEOUT);
+                }
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This method checks whether this {@link TickerTask} distributes its chunks
+     * across a pool of worker {@link Thread Threads}.
+     * 
+     * @return Whether parallel ticking is enabled
+     */
+    public boolean isParallel() {
+        return workers != null;
+    }
+
+    /**
+     * This runs the given task on the main thread together with all synchronized
+     * {@link BlockTicker BlockTickers} of the current cycle, instead of scheduling a
+     * separate task for it.
+     * The task runs once the current cycle has finished and may be postponed by a few
+     * server ticks if the main thread is busy.
+     * <p>
+     * Submissions are not deduplicated and there is no limit on how many tasks may be waiting.
+     * If you submit a task every cycle, make sure not to submit another one while your previous
+     * task has not run yet, otherwise they pile up whenever the main thread falls behind.
+     * 
+     * @param task
+     *            The task to run on the main thread
+     */
+    public void runSync(@Nonnull Runnable task) {
+        Validate.notNull(task, "The task cannot be null!");
+
+        syncDispatcher.submit(task);
     }
 
     @ParametersAreNonnullByDefault
@@ -306,12 +569,21 @@ public class TickerTask implements Runnable {
      * {@link Set} of ticking {@link Location Locations}.
      * 
      * This does include any {@link Location} from an unloaded {@link Chunk} too!
+     * Note that this is a snapshot which is built upon calling this method.
      * 
      * @return A {@link Map} representation of all ticking {@link Location Locations}
      */
     @Nonnull
     public Map<ChunkPosition, Set<Location>> getLocations() {
-        return Collections.unmodifiableMap(tickingLocations);
+        Map<ChunkPosition, Set<Location>> locations = new HashMap<>();
+
+        for (Map<Long, TickingChunk> chunks : tickingChunks.values()) {
+            for (TickingChunk chunk : chunks.values()) {
+                locations.put(chunk.getPosition(), Collections.unmodifiableSet(chunk.toLocations()));
+            }
+        }
+
+        return Collections.unmodifiableMap(locations);
     }
 
     /**
@@ -329,12 +601,25 @@ public class TickerTask implements Runnable {
     public Set<Location> getLocations(@Nonnull Chunk chunk) {
         Validate.notNull(chunk, "The Chunk cannot be null!");
 
-        Set<Location> locations = tickingLocations.getOrDefault(new ChunkPosition(chunk), new HashSet<>());
-        return Collections.unmodifiableSet(locations);
+        TickingChunk tickingChunk = getTickingChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+
+        if (tickingChunk == null) {
+            return Collections.emptySet();
+        }
+
+        return Collections.unmodifiableSet(tickingChunk.toLocations());
+    }
+
+    @Nullable
+    private TickingChunk getTickingChunk(@Nonnull World world, int x, int z) {
+        Map<Long, TickingChunk> chunks = tickingChunks.get(world.getUID());
+        return chunks == null ? null : chunks.get(TickingChunk.getAsLong(x, z));
     }
 
     /**
      * This enables the ticker at the given {@link Location} and adds it to our "queue".
+     * If the ticker was already enabled, the {@link SlimefunItem} at this {@link Location}
+     * will be resolved again on the next tick.
      * 
      * @param l
      *            The {@link Location} to activate
@@ -342,19 +627,13 @@ public class TickerTask implements Runnable {
     public void enableTicker(@Nonnull Location l) {
         Validate.notNull(l, "Location cannot be null!");
 
-        ChunkPosition chunk = new ChunkPosition(l.getWorld(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
-        Set<Location> newValue = new HashSet<>();
-        Set<Location> oldValue = tickingLocations.putIfAbsent(chunk, newValue);
+        World world = l.getWorld();
+        int x = l.getBlockX() >> 4;
+        int z = l.getBlockZ() >> 4;
 
-        /**
-         * This is faster than doing computeIfAbsent(...)
-         * on a ConcurrentHashMap because it won't block the Thread for too long
-         */
-        if (oldValue != null) {
-            oldValue.add(l);
-        } else {
-            newValue.add(l);
-        }
+        Map<Long, TickingChunk> chunks = tickingChunks.computeIfAbsent(world.getUID(), uid -> new ConcurrentHashMap<>());
+        TickingChunk chunk = chunks.computeIfAbsent(TickingChunk.getAsLong(x, z), key -> new TickingChunk(world, x, z));
+        chunk.add(l);
     }
 
     /**
@@ -367,16 +646,102 @@ public class TickerTask implements Runnable {
     public void disableTicker(@Nonnull Location l) {
         Validate.notNull(l, "Location cannot be null!");
 
-        ChunkPosition chunk = new ChunkPosition(l.getWorld(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
-        Set<Location> locations = tickingLocations.get(chunk);
+        Map<Long, TickingChunk> chunks = tickingChunks.get(l.getWorld().getUID());
 
-        if (locations != null) {
-            locations.remove(l);
+        if (chunks != null) {
+            long key = TickingChunk.getAsLong(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+            TickingChunk chunk = chunks.get(key);
 
-            if (locations.isEmpty()) {
-                tickingLocations.remove(chunk);
+            if (chunk != null) {
+                chunk.remove(l);
+
+                if (chunk.isEmpty()) {
+                    chunks.remove(key, chunk);
+                }
             }
         }
     }
 
+    /**
+     * This method notifies this {@link TickerTask} that the block data at the given
+     * {@link Location} has been replaced or has changed its id.
+     * The {@link SlimefunItem} and data at this {@link Location} will be resolved again
+     * on the next tick.
+     * 
+     * @param l
+     *            The {@link Location} whose data has changed
+     */
+    public void invalidateTicker(@Nonnull Location l) {
+        Validate.notNull(l, "Location cannot be null!");
+
+        TickingChunk chunk = getTickingChunk(l.getWorld(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
+
+        if (chunk != null) {
+            chunk.invalidate(l);
+        }
+    }
+
+    /**
+     * This method checks whether idle tickers may be suspended,
+     * see {@link #suspendTicker(Location)}.
+     * 
+     * @return Whether idle tickers may be suspended
+     */
+    public boolean isSuspendingIdleTickers() {
+        return suspendIdleTickers;
+    }
+
+    /**
+     * This suspends the ticker at the given {@link Location} until it is woken up again
+     * using {@link #wakeTicker(Location)}. This is meant for blocks that have nothing to do
+     * until something about them changes.
+     * As a safety net, a suspended ticker will wake up by itself after a few cycles.
+     * <p>
+     * This does nothing unless suspending idle tickers has been enabled in the config.
+     * 
+     * @param l
+     *            The {@link Location} to suspend
+     * 
+     * @return Whether the ticker at this {@link Location} has been suspended
+     */
+    public boolean suspendTicker(@Nonnull Location l) {
+        Validate.notNull(l, "Location cannot be null!");
+
+        if (!suspendIdleTickers) {
+            return false;
+        }
+
+        TickingBlock block = findTickingBlock(l);
+
+        if (block != null) {
+            block.suspend(cycle + MAX_SUSPENDED_CYCLES);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * This wakes up the ticker at the given {@link Location} if it was suspended.
+     * It will be ticked again on the next cycle.
+     * 
+     * @param l
+     *            The {@link Location} to wake up
+     */
+    public void wakeTicker(@Nonnull Location l) {
+        Validate.notNull(l, "Location cannot be null!");
+
+        TickingBlock block = findTickingBlock(l);
+
+        if (block != null) {
+            block.wake();
+        }
+    }
+
+    @Nullable
+    private TickingBlock findTickingBlock(@Nonnull Location l) {
+        TickingChunk chunk = getTickingChunk(l.getWorld(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
+        return chunk == null ? null : chunk.find(l);
+    }
+
 }
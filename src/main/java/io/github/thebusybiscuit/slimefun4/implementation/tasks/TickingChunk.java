@@ -0,0 +1,331 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import io.github.bakedlibs.dough.blocks.BlockPosition;
+import io.github.bakedlibs.dough.blocks.ChunkPosition;
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+
+/**
+ * A {@link TickingChunk} holds every ticking {@link Location} within a single {@link Chunk}.
+ * Positions are stored as packed longs next to the resolved {@link SlimefunItem}, its
+ * {@link BlockTicker} and the block's {@link Config}, so that the {@link TickerTask} does
+ * not have to hash any {@link Location} or look up any id while ticking.
+ * <p>
+ * Every block can be looked up by its position in constant time. Adding or removing a ticker only
+ * changes a private array, the {@link TickerTask} iterates a snapshot of it that is copied at most
+ * once per cycle, so it never has to hold a lock while ticking.
+ *
+ * @see TickerTask
+ *
+ */
+final class TickingChunk {
+
+    private static final TickingBlock[] EMPTY = new TickingBlock[0];
+
+    private final ChunkPosition position;
+    private final Map<Long, TickingBlock> blocksByPosition = new ConcurrentHashMap<>();
+
+    /**
+     * The current blocks, only accessed while holding the lock of this {@link TickingChunk}.
+     * The index of every block in this array is stored in {@link TickingBlock#index}.
+     */
+    private TickingBlock[] blocks = EMPTY;
+    private int size;
+
+    private volatile TickingBlock[] snapshot = EMPTY;
+    private volatile boolean snapshotDirty;
+    private volatile long lastTicked;
+
+    TickingChunk(@Nonnull World world, int x, int z) {
+        this.position = new ChunkPosition(world, x, z);
+    }
+
+    /**
+     * This compresses the given chunk coordinates into a single long.
+     *
+     * @param x
+     *            The x coordinate of the {@link Chunk}
+     * @param z
+     *            The z coordinate of the {@link Chunk}
+     *
+     * @return A {@link Long} representation of this {@link Chunk}
+     */
+    static long getAsLong(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    @Nonnull
+    ChunkPosition getPosition() {
+        return position;
+    }
+
+    /**
+     * This returns a snapshot of all {@link TickingBlock TickingBlocks} in this {@link Chunk}.
+     * The returned array must not be modified.
+     *
+     * @return All ticking blocks in this {@link Chunk}
+     */
+    @Nonnull
+    TickingBlock[] getBlocks() {
+        if (snapshotDirty) {
+            synchronized (this) {
+                if (snapshotDirty) {
+                    snapshot = Arrays.copyOf(blocks, size);
+                    snapshotDirty = false;
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    boolean isEmpty() {
+        return blocksByPosition.isEmpty();
+    }
+
+    /**
+     * This returns the last cycle of the {@link TickerTask} in which this {@link TickingChunk}
+     * was ticked. Chunks that had to be deferred are ticked first in the next cycle.
+     *
+     * @return The last cycle in which this chunk was ticked
+     */
+    long getLastTicked() {
+        return lastTicked;
+    }
+
+    void setLastTicked(long cycle) {
+        lastTicked = cycle;
+    }
+
+    /**
+     * This adds the given {@link Location} to this {@link TickingChunk}.
+     * If the {@link Location} is already present, its resolved data will be reset instead.
+     *
+     * @param l
+     *            The {@link Location} to add
+     */
+    synchronized void add(@Nonnull Location l) {
+        long packed = BlockPosition.getAsLong(l);
+        TickingBlock block = blocksByPosition.get(packed);
+
+        if (block != null) {
+            block.invalidate();
+        } else {
+            if (size == blocks.length) {
+                blocks = Arrays.copyOf(blocks, Math.max(4, size * 2));
+            }
+
+            block = new TickingBlock(l, packed);
+            block.index = size;
+            blocks[size++] = block;
+            blocksByPosition.put(packed, block);
+            snapshotDirty = true;
+        }
+    }
+
+    /**
+     * This removes the given {@link Location} from this {@link TickingChunk}.
+     *
+     * @param l
+     *            The {@link Location} to remove
+     */
+    synchronized void remove(@Nonnull Location l) {
+        TickingBlock block = blocksByPosition.remove(BlockPosition.getAsLong(l));
+
+        if (block != null) {
+            // Move the last block into the gap, the order of our blocks does not matter
+            TickingBlock last = blocks[--size];
+            blocks[block.index] = last;
+            last.index = block.index;
+            blocks[size] = null;
+            snapshotDirty = true;
+        }
+    }
+
+    /**
+     * This resets any data that was resolved for the given {@link Location},
+     * it will be resolved again on the next tick.
+     *
+     * @param l
+     *            The {@link Location} whose data has changed
+     */
+    void invalidate(@Nonnull Location l) {
+        TickingBlock block = find(l);
+
+        if (block != null) {
+            block.invalidate();
+        }
+    }
+
+    /**
+     * This returns the {@link TickingBlock} at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location}
+     *
+     * @return The {@link TickingBlock} or null if this {@link Location} is not ticking
+     */
+    @Nullable
+    TickingBlock find(@Nonnull Location l) {
+        return blocksByPosition.get(BlockPosition.getAsLong(l));
+    }
+
+    @Nonnull
+    Set<Location> toLocations() {
+        Set<Location> locations = new HashSet<>(blocksByPosition.size() * 2);
+
+        for (TickingBlock block : blocksByPosition.values()) {
+            locations.add(block.location);
+        }
+
+        return locations;
+    }
+
+    /**
+     * A single ticking block and whatever we resolved for it.
+     */
+    static final class TickingBlock {
+
+        private final Location location;
+        private final long position;
+
+        private volatile boolean resolved;
+        private volatile SlimefunItem item;
+        private volatile BlockTicker ticker;
+        private volatile Config data;
+        private volatile long suspendedUntil;
+        private volatile int tickDivisor = 1;
+        private volatile boolean syncTickPending;
+
+        /**
+         * The index of this block in {@link TickingChunk#blocks}, guarded by the lock of its {@link TickingChunk}.
+         */
+        private int index;
+
+        private TickingBlock(@Nonnull Location location, long position) {
+            this.location = location;
+            this.position = position;
+        }
+
+        @Nonnull
+        Location getLocation() {
+            return location;
+        }
+
+        /**
+         * This resolves the {@link SlimefunItem} and {@link BlockTicker} at this {@link Location}
+         * if that has not happened yet.
+         *
+         * @param tickDivisors
+         *            The configured tick divisors, indexed by the id of a {@link SlimefunItem}
+         *
+         * @return Whether this block has a {@link BlockTicker} that should be ticked
+         */
+        boolean resolve(@Nonnull Map<String, Integer> tickDivisors) {
+            if (!resolved) {
+                Config config = BlockStorage.getLocationInfo(location);
+                String id = config.getString("id");
+
+                if (id == null) {
+                    // The data may not have been loaded yet, so we will try again next time
+                    return false;
+                }
+
+                SlimefunItem sfItem = SlimefunItem.getById(id);
+                data = config;
+                item = sfItem;
+                ticker = sfItem == null ? null : sfItem.getBlockTicker();
+                tickDivisor = tickDivisors.getOrDefault(id, 1);
+                resolved = true;
+            }
+
+            return ticker != null;
+        }
+
+        @Nonnull
+        SlimefunItem getItem() {
+            return item;
+        }
+
+        @Nonnull
+        BlockTicker getTicker() {
+            return ticker;
+        }
+
+        @Nonnull
+        Config getData() {
+            return data;
+        }
+
+        /**
+         * This checks whether this block is currently suspended and should not be ticked.
+         *
+         * @param cycle
+         *            The current cycle of the {@link TickerTask}
+         *
+         * @return Whether this block is suspended
+         */
+        boolean isSuspended(long cycle) {
+            return cycle < suspendedUntil;
+        }
+
+        /**
+         * This checks whether this block is due in the given cycle.
+         * A block with a tick divisor of n is only ticked every n-th cycle, blocks of the
+         * same type are spread out across these cycles by their position.
+         *
+         * @param cycle
+         *            The current cycle of the {@link TickerTask}
+         *
+         * @return Whether this block should be ticked in this cycle
+         */
+        boolean isDue(long cycle) {
+            int divisor = tickDivisor;
+            return divisor <= 1 || Math.floorMod(cycle + position, divisor) == 0;
+        }
+
+        void suspend(long until) {
+            suspendedUntil = until;
+        }
+
+        void wake() {
+            suspendedUntil = 0;
+        }
+
+        /**
+         * This checks whether a synchronized tick of this block has been queued
+         * but has not run yet.
+         *
+         * @return Whether a synchronized tick is pending
+         */
+        boolean isSyncTickPending() {
+            return syncTickPending;
+        }
+
+        void setSyncTickPending(boolean pending) {
+            syncTickPending = pending;
+        }
+
+        private void invalidate() {
+            resolved = false;
+            wake();
+        }
+    }
+
+}
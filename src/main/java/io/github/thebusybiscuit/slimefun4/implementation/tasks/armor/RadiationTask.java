@@ -7,6 +7,7 @@ import io.github.thebusybiscuit.slimefun4.api.player.PlayerProfile;
 import io.github.thebusybiscuit.slimefun4.core.attributes.ProtectionType;
 import io.github.thebusybiscuit.slimefun4.core.attributes.RadiationSymptom;
 import io.github.thebusybiscuit.slimefun4.core.attributes.Radioactive;
+import io.github.thebusybiscuit.slimefun4.core.services.localization.Language;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.listeners.RadioactivityListener;
 import io.github.thebusybiscuit.slimefun4.utils.RadiationUtils;
@@ -23,20 +24,46 @@ import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@link RadiationTask} handles radioactivity for
  * {@link Radioactive} items.
+ * <p>
+ * The exposure caused by the inventory of a {@link Player} is cached and only
+ * recalculated when their inventory was marked as changed, see {@link #markDirty(Player)}.
+ * Every inventory is scanned again every now and then, in case it was changed
+ * in a way we were not notified about.
  *
  * @author Semisol
  */
 public class RadiationTask extends AbstractArmorTask {
 
     private static final int GRACE_PERIOD_DURATION = Slimefun.getCfg().getInt("options.radiation-grace-period");
+    private static final int FULL_SCAN_INTERVAL = Slimefun.getCfg().getInt("options.radiation-full-scan-interval");
     private static final Map<UUID, Long> ACTIVE_GRACE_PERIODS = new HashMap<>();
+    private static final Map<UUID, Integer> INVENTORY_EXPOSURES = new ConcurrentHashMap<>();
+    private static final Set<UUID> DIRTY_INVENTORIES = ConcurrentHashMap.newKeySet();
 
     private final RadiationSymptom[] symptoms = RadiationSymptom.values();
+    private final Map<String, String> actionBarMessages = new ConcurrentHashMap<>();
+
+    private volatile boolean fullScan = true;
+    private long nextFullScan = 0;
+
+    @Override
+    protected void onTick() {
+        long now = System.currentTimeMillis();
+
+        // The next run will scan every inventory again
+        fullScan = now >= nextFullScan;
+
+        if (fullScan) {
+            nextFullScan = now + FULL_SCAN_INTERVAL * 1000L;
+        }
+    }
 
     @Override
     @ParametersAreNonnullByDefault
@@ -46,19 +73,10 @@ public class RadiationTask extends AbstractArmorTask {
             return;
         }
 
-        int exposureTotal = 0;
         if (!profile.hasFullProtectionAgainst(ProtectionType.RADIATION)
                 && p.getGameMode() != GameMode.CREATIVE
                 && p.getGameMode() != GameMode.SPECTATOR) {
-            for (ItemStack item : p.getInventory()) {
-                if (item == null || item.getType().isAir()) {
-                    continue;
-                }
-                SlimefunItem sfItem = SlimefunItem.getByItem(item);
-                if (sfItem instanceof Radioactive radioactiveItem) {
-                    exposureTotal += item.getAmount() * radioactiveItem.getRadioactivity().getExposureModifier();
-                }
-            }
+            int exposureTotal = getInventoryExposure(p);
             int exposureLevelBefore = RadiationUtils.getExposure(p);
 
             if (exposureTotal > 0) {
@@ -89,11 +107,9 @@ public class RadiationTask extends AbstractArmorTask {
             });
 
             if (exposureLevelAfter > 0 || exposureLevelBefore > 0) {
-                String msg = Slimefun.getLocalization()
-                        .getMessage(p, "actionbar.radiation")
-                        .replace("%level%", "" + exposureLevelAfter);
+                String msg = getActionBarMessage(p).replace("%level%", "" + exposureLevelAfter);
                 BaseComponent[] components =
-                        new ComponentBuilder().append(ChatColors.color(msg)).create();
+                        new ComponentBuilder().append(msg).create();
                 p.spigot().sendMessage(ChatMessageType.ACTION_BAR, components);
             }
         } else {
@@ -101,6 +117,51 @@ public class RadiationTask extends AbstractArmorTask {
         }
     }
 
+    /**
+     * This returns the exposure caused by the inventory of the given {@link Player}.
+     * The inventory is only scanned if it has changed since we last scanned it.
+     *
+     * @param p
+     *              The {@link Player}
+     *
+     * @return The exposure caused by their inventory
+     */
+    private int getInventoryExposure(@Nonnull Player p) {
+        UUID uuid = p.getUniqueId();
+        Integer cachedExposure = INVENTORY_EXPOSURES.get(uuid);
+        boolean dirty = DIRTY_INVENTORIES.remove(uuid);
+
+        if (cachedExposure != null && !dirty && !fullScan) {
+            return cachedExposure;
+        }
+
+        int exposure = 0;
+
+        for (ItemStack item : p.getInventory()) {
+            if (item == null || item.getType().isAir()) {
+                continue;
+            }
+            SlimefunItem sfItem = SlimefunItem.getByItem(item);
+            if (sfItem instanceof Radioactive radioactiveItem) {
+                exposure += item.getAmount() * radioactiveItem.getRadioactivity().getExposureModifier();
+            }
+        }
+
+        INVENTORY_EXPOSURES.put(uuid, exposure);
+        return exposure;
+    }
+
+    @Nonnull
+    private String getActionBarMessage(@Nonnull Player p) {
+        Language language = Slimefun.getLocalization().getLanguage(p);
+
+        if (language == null) {
+            return ChatColors.color(Slimefun.getLocalization().getMessage(p, "actionbar.radiation"));
+        }
+
+        return actionBarMessages.computeIfAbsent(language.getId(), id -> ChatColors.color(Slimefun.getLocalization().getMessage(p, "actionbar.radiation")));
+    }
+
     /**
      * Checks if the {@link Player} is within their grace period. A grace period is granted after death
      * to give enough time to remove the radioactive items before being killed once more, which
@@ -136,4 +197,24 @@ public class RadiationTask extends AbstractArmorTask {
     public static void addGracePeriod(@Nonnull Player player) {
         ACTIVE_GRACE_PERIODS.put(player.getUniqueId(), System.currentTimeMillis() + (GRACE_PERIOD_DURATION * 1000L));
     }
+
+    /**
+     * Marks the inventory of the given {@link Player} as changed, so that the exposure
+     * it causes will be calculated again.
+     *
+     * @param player The player whose inventory has changed.
+     */
+    public static void markDirty(@Nonnull Player player) {
+        DIRTY_INVENTORIES.add(player.getUniqueId());
+    }
+
+    /**
+     * Removes everything we know about the given {@link Player}'s inventory.
+     *
+     * @param player The player who left.
+     */
+    public static void clearCache(@Nonnull Player player) {
+        INVENTORY_EXPOSURES.remove(player.getUniqueId());
+        DIRTY_INVENTORIES.remove(player.getUniqueId());
+    }
 }
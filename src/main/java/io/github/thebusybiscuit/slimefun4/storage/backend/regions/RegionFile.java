@@ -0,0 +1,332 @@
+package io.github.thebusybiscuit.slimefun4.storage.backend.regions;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang.Validate;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A {@link RegionFile} holds the data of a square of {@value #REGION_SIZE} by {@value #REGION_SIZE}
+ * chunks in a single binary {@link File}.
+ * <p>
+ * The {@link File} starts with a fixed-size header: a magic number, a format version and an offset
+ * table with one entry (offset, length and capacity) for every chunk. Chunk payloads follow
+ * the header. A payload is never overwritten in place, it is always appended to the end of the {@link File}
+ * and the header on the disk only points to it once it has been synced, see {@link #sync()}. A crash can
+ * therefore never leave a chunk with half of its old and half of its new payload.
+ * Once too much space is wasted by abandoned slots, the {@link File} is compacted.
+ * <p>
+ * The payload itself is opaque to this class, see {@link RegionStorage} for its encoding.
+ *
+ * @see RegionStorage
+ */
+@Beta
+@ThreadSafe
+public final class RegionFile implements Closeable {
+
+    /**
+     * The amount of chunks along one side of a region.
+     */
+    public static final int REGION_SIZE = 32;
+
+    private static final int MAGIC = 0x53465247;
+    private static final int VERSION = 1;
+    private static final int CHUNKS = REGION_SIZE * REGION_SIZE;
+    private static final int ENTRY_SIZE = 3 * Integer.BYTES;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + CHUNKS * ENTRY_SIZE;
+
+    /**
+     * We only compact a {@link File} once it wastes at least this many bytes.
+     */
+    private static final long COMPACTION_THRESHOLD = 1024L * 1024L;
+
+    private final File file;
+    private final int[] offsets = new int[CHUNKS];
+    private final int[] lengths = new int[CHUNKS];
+    private final int[] capacities = new int[CHUNKS];
+
+    private RandomAccessFile raf;
+    private long wasted;
+
+    /**
+     * Whether our offset table has changed since it was last written to the disk.
+     */
+    private boolean headerDirty = false;
+
+    /**
+     * This opens the given {@link File} as a {@link RegionFile}.
+     * If the {@link File} does not exist yet, it will be created.
+     *
+     * @param file
+     *            The {@link File} to open
+     *
+     * @throws IOException
+     *             If the {@link File} could not be read or is not a valid {@link RegionFile}
+     */
+    public RegionFile(@Nonnull File file) throws IOException {
+        Validate.notNull(file, "The file cannot be null");
+
+        this.file = file;
+        open();
+    }
+
+    private void open() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+
+        if (raf.length() == 0) {
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION);
+            raf.write(new byte[CHUNKS * ENTRY_SIZE]);
+            wasted = 0;
+            return;
+        }
+
+        if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC) {
+            raf.close();
+            throw new IOException("Not a valid Slimefun region file: " + file.getName());
+        }
+
+        int version = raf.readInt();
+
+        if (version != VERSION) {
+            raf.close();
+            throw new IOException("Unsupported region file version " + version + ": " + file.getName());
+        }
+
+        long used = HEADER_SIZE;
+
+        for (int i = 0; i < CHUNKS; i++) {
+            offsets[i] = raf.readInt();
+            lengths[i] = raf.readInt();
+            capacities[i] = raf.readInt();
+            used += capacities[i];
+        }
+
+        wasted = raf.length() - used;
+    }
+
+    /**
+     * This returns the index of a chunk within its region.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     *
+     * @return The index of this chunk in the offset table
+     */
+    static int getIndex(int chunkX, int chunkZ) {
+        return (chunkX & (REGION_SIZE - 1)) + (chunkZ & (REGION_SIZE - 1)) * REGION_SIZE;
+    }
+
+    @Nonnull
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * This checks whether any data has been stored for the given chunk.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     *
+     * @return Whether this chunk has any data
+     */
+    public synchronized boolean hasChunk(int chunkX, int chunkZ) {
+        return lengths[getIndex(chunkX, chunkZ)] > 0;
+    }
+
+    /**
+     * This reads the raw payload of the given chunk.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     *
+     * @return The payload or null if no data was stored for this chunk
+     *
+     * @throws IOException
+     *             If the payload could not be read
+     */
+    @Nullable
+    public synchronized byte[] read(int chunkX, int chunkZ) throws IOException {
+        return readIndex(getIndex(chunkX, chunkZ));
+    }
+
+    /**
+     * This reads the raw payload at the given index of the offset table.
+     *
+     * @param index
+     *            The index, between 0 and {@link #REGION_SIZE} squared
+     *
+     * @return The payload or null if no data was stored at this index
+     *
+     * @throws IOException
+     *             If the payload could not be read
+     */
+    @Nullable
+    public synchronized byte[] readIndex(int index) throws IOException {
+        int length = lengths[index];
+
+        if (length == 0) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        raf.seek(offsets[index]);
+        raf.readFully(payload);
+        return payload;
+    }
+
+    /**
+     * This writes the payload of a chunk.
+     * Passing null or an empty array will delete the chunk.
+     * <p>
+     * The payload is not guaranteed to be on the disk until {@link #sync()} has been called.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @param payload
+     *            The new payload
+     *
+     * @throws IOException
+     *             If the payload could not be written
+     */
+    public synchronized void write(int chunkX, int chunkZ, @Nullable byte[] payload) throws IOException {
+        int index = getIndex(chunkX, chunkZ);
+
+        if (payload == null || payload.length == 0) {
+            wasted += capacities[index];
+            setEntry(index, 0, 0, 0);
+        } else {
+            long end = raf.length();
+
+            if (end + payload.length > Integer.MAX_VALUE) {
+                throw new IOException("Region file has grown too large: " + file.getName());
+            }
+
+            // The previous slot stays untouched, the header on the disk still points to it
+            raf.seek(end);
+            raf.write(payload);
+
+            wasted += capacities[index];
+            setEntry(index, (int) end, payload.length, payload.length);
+        }
+
+        if (wasted > COMPACTION_THRESHOLD && wasted > raf.length() / 2) {
+            compact();
+        }
+    }
+
+    private void setEntry(int index, int offset, int length, int capacity) {
+        offsets[index] = offset;
+        lengths[index] = length;
+        capacities[index] = capacity;
+        headerDirty = true;
+    }
+
+    /**
+     * This rewrites this {@link RegionFile} without any abandoned slots.
+     * The new {@link File} is written next to the old one and then moved into place.
+     *
+     * @throws IOException
+     *             If the {@link File} could not be compacted
+     */
+    public synchronized void compact() throws IOException {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (RandomAccessFile out = new RandomAccessFile(tmpFile, "rw")) {
+            out.setLength(0);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(new byte[CHUNKS * ENTRY_SIZE]);
+
+            for (int i = 0; i < CHUNKS; i++) {
+                byte[] payload = readIndex(i);
+
+                if (payload != null) {
+                    long offset = out.length();
+                    out.seek(offset);
+                    out.write(payload);
+
+                    out.seek(2L * Integer.BYTES + (long) i * ENTRY_SIZE);
+                    out.writeInt((int) offset);
+                    out.writeInt(payload.length);
+                    out.writeInt(payload.length);
+                }
+            }
+
+            // The new file must be complete on the disk before it may replace the old one
+            out.getFD().sync();
+        }
+
+        raf.close();
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        headerDirty = false;
+        open();
+    }
+
+    /**
+     * This forces every write to this {@link RegionFile} onto the disk.
+     * The payloads are synced first, only then is the offset table updated to point to them.
+     *
+     * @throws IOException
+     *             If the {@link File} could not be synced
+     */
+    public synchronized void sync() throws IOException {
+        raf.getFD().sync();
+
+        if (headerDirty) {
+            ByteBuffer header = ByteBuffer.allocate(CHUNKS * ENTRY_SIZE);
+
+            for (int i = 0; i < CHUNKS; i++) {
+                header.putInt(offsets[i]);
+                header.putInt(lengths[i]);
+                header.putInt(capacities[i]);
+            }
+
+            raf.seek(2L * Integer.BYTES);
+            raf.write(header.array());
+            raf.getFD().sync();
+            headerDirty = false;
+        }
+    }
+
+    private void syncDirectory() {
+        // Not every platform allows a directory to be opened, the rename itself has still happened then
+        try (FileChannel channel = FileChannel.open(file.getParentFile().toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException x) {
+            // Best effort only
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            raf.close();
+        }
+    }
+
+}
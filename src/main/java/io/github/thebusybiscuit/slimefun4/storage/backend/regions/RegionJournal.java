@@ -0,0 +1,205 @@
+package io.github.thebusybiscuit.slimefun4.storage.backend.regions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link RegionJournal} is an append-only log of block changes that have not been
+ * written into a {@link RegionFile} yet.
+ * <p>
+ * Every record holds the complete data of a single block (or marks it as removed) and is
+ * prefixed with its length and checksum. A record that was only partially written, e.g. because
+ * the server crashed, is detected on replay and everything after it is ignored.
+ * <p>
+ * Journals are numbered by their generation. Once a {@link RegionJournal} has been folded into
+ * the {@link RegionFile RegionFiles}, it is deleted by the {@link RegionStorage}.
+ *
+ * @see RegionStorage
+ */
+final class RegionJournal implements Closeable {
+
+    private final File file;
+    private final int generation;
+    private final FileOutputStream fileStream;
+    private final DataOutputStream out;
+    private long size;
+
+    RegionJournal(@Nonnull File directory, int generation) throws IOException {
+        this.file = getFile(directory, generation);
+        this.generation = generation;
+        this.fileStream = new FileOutputStream(file, true);
+        this.out = new DataOutputStream(new BufferedOutputStream(fileStream));
+        this.size = file.length();
+    }
+
+    @Nonnull
+    static File getFile(@Nonnull File directory, int generation) {
+        return new File(directory, "journal." + generation + ".sfj");
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * This appends a single block to this {@link RegionJournal}.
+     * The record is buffered until {@link #flush()} is called.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @param position
+     *            The packed position of the block within its chunk
+     * @param data
+     *            The data of this block or null if it was removed
+     *
+     * @throws IOException
+     *             If the record could not be written
+     */
+    void append(int chunkX, int chunkZ, long position, @Nullable Map<String, String> data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream record = new DataOutputStream(bytes)) {
+            record.writeInt(chunkX);
+            record.writeInt(chunkZ);
+            record.writeLong(position);
+
+            if (data == null) {
+                record.writeInt(-1);
+            } else {
+                record.writeInt(data.size());
+
+                for (Map.Entry<String, String> entry : data.entrySet()) {
+                    RegionStorage.writeString(record, entry.getKey());
+                    RegionStorage.writeString(record, entry.getValue());
+                }
+            }
+        }
+
+        byte[] payload = bytes.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+
+        out.writeInt(payload.length);
+        out.writeInt((int) checksum.getValue());
+        out.write(payload);
+        size += 2L * Integer.BYTES + payload.length;
+    }
+
+    /**
+     * This writes any buffered records and forces them onto the disk.
+     *
+     * @throws IOException
+     *             If the records could not be written
+     */
+    void flush() throws IOException {
+        out.flush();
+        fileStream.getFD().sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * This reads every intact record of the given journal {@link File}.
+     *
+     * @param file
+     *            The journal {@link File}
+     * @param consumer
+     *            The {@link RecordConsumer} to pass every record to
+     *
+     * @return The amount of records that were read
+     *
+     * @throws IOException
+     *             If the {@link File} could not be read
+     */
+    static int replay(@Nonnull File file, @Nonnull RecordConsumer consumer) throws IOException {
+        int records = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                byte[] payload;
+                int expected;
+
+                try {
+                    int length = in.readInt();
+                    expected = in.readInt();
+
+                    if (length < 0 || length > file.length()) {
+                        // This record is corrupted, nothing after it can be trusted
+                        return records;
+                    }
+
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException x) {
+                    // We reached the end of the journal (or a partially written record)
+                    return records;
+                }
+
+                CRC32 checksum = new CRC32();
+                checksum.update(payload);
+
+                if ((int) checksum.getValue() != expected) {
+                    return records;
+                }
+
+                readRecord(payload, consumer);
+                records++;
+            }
+        }
+    }
+
+    private static void readRecord(@Nonnull byte[] payload, @Nonnull RecordConsumer consumer) throws IOException {
+        try (DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int chunkX = record.readInt();
+            int chunkZ = record.readInt();
+            long position = record.readLong();
+            int entries = record.readInt();
+            Map<String, String> data = null;
+
+            if (entries >= 0) {
+                data = new HashMap<>(entries * 2);
+
+                for (int i = 0; i < entries; i++) {
+                    data.put(RegionStorage.readString(record), RegionStorage.readString(record));
+                }
+            }
+
+            consumer.accept(chunkX, chunkZ, position, data);
+        }
+    }
+
+    /**
+     * A {@link RecordConsumer} receives every record that is replayed from a {@link RegionJournal}.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(int chunkX, int chunkZ, long position, @Nullable Map<String, String> data);
+    }
+
+}
@@ -0,0 +1,570 @@
+package io.github.thebusybiscuit.slimefun4.storage.backend.regions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.apache.commons.lang.Validate;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * The {@link RegionStorage} manages all {@link RegionFile RegionFiles} of a single world
+ * and handles the binary encoding of chunk payloads.
+ * <p>
+ * A chunk payload is a deflated list of blocks. Every block is stored with its position
+ * relative to the chunk, followed by its key-value data.
+ * <p>
+ * Changes are not written into the {@link RegionFile RegionFiles} directly. They are appended
+ * to a {@link RegionJournal} instead and kept in memory until {@link #compact()} folds them into
+ * the affected chunks. This way, saving a handful of changed blocks only costs a handful of small
+ * appends, no matter how many blocks their chunks or the world contain.
+ *
+ * @see RegionFile
+ * @see RegionJournal
+ */
+@Beta
+@ThreadSafe
+public final class RegionStorage {
+
+    private static final Pattern FILE_NAME = Pattern.compile("r\\.(-?[0-9]+)\\.(-?[0-9]+)\\.sfr");
+    private static final Pattern JOURNAL_NAME = Pattern.compile("journal\\.([0-9]+)\\.sfj");
+
+    /**
+     * Once our journal has grown beyond this many bytes, it should be compacted.
+     */
+    private static final long JOURNAL_THRESHOLD = 8L * 1024L * 1024L;
+
+    private final File directory;
+    private final Map<Long, RegionFile> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Journaled changes that have not been written into our {@link RegionFile RegionFiles} yet,
+     * grouped by chunk and then by position. A null value marks a removed block.
+     * Changes in {@link #compacting} are currently being folded in by {@link #compact()}.
+     * Both are guarded by {@link #journalLock}.
+     */
+    private final Object journalLock = new Object();
+    private Map<Long, Map<Long, Map<String, String>>> pending = new HashMap<>();
+    private final Map<Long, Map<Long, Map<String, String>>> compacting = new HashMap<>();
+    private RegionJournal journal;
+    private long replayedBytes;
+
+    /**
+     * This creates a new {@link RegionStorage} for the given directory.
+     * The directory will be created if it does not exist yet.
+     * Any journals that were left behind are replayed.
+     *
+     * @param directory
+     *            The directory which holds our {@link RegionFile RegionFiles}
+     *
+     * @throws IOException
+     *             If our journals could not be read or opened
+     */
+    public RegionStorage(@Nonnull File directory) throws IOException {
+        Validate.notNull(directory, "The directory cannot be null");
+
+        this.directory = directory;
+        directory.mkdirs();
+
+        int generation = 0;
+
+        for (int previous : getJournalGenerations()) {
+            replayedBytes += RegionJournal.getFile(directory, previous).length();
+            RegionJournal.replay(RegionJournal.getFile(directory, previous), (chunkX, chunkZ, position, data) -> pending.computeIfAbsent(getChunkKey(chunkX, chunkZ), key -> new HashMap<>()).put(position, data));
+            generation = Math.max(generation, previous + 1);
+        }
+
+        this.journal = new RegionJournal(directory, generation);
+    }
+
+    @Nonnull
+    private List<Integer> getJournalGenerations() {
+        List<Integer> generations = new ArrayList<>();
+        File[] files = directory.listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = JOURNAL_NAME.matcher(file.getName());
+
+                if (matcher.matches()) {
+                    generations.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+
+        // Older journals must be replayed first
+        generations.sort(null);
+        return generations;
+    }
+
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @Nonnull
+    public File getDirectory() {
+        return directory;
+    }
+
+    private static long getRegionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+
+    @Nullable
+    private RegionFile getRegion(int chunkX, int chunkZ, boolean create) throws IOException {
+        int regionX = chunkX >> 5;
+        int regionZ = chunkZ >> 5;
+        long key = getRegionKey(regionX, regionZ);
+        RegionFile region = regions.get(key);
+
+        if (region != null) {
+            return region;
+        }
+
+        File file = new File(directory, "r." + regionX + '.' + regionZ + ".sfr");
+
+        if (!create && !file.exists()) {
+            return null;
+        }
+
+        synchronized (regions) {
+            region = regions.get(key);
+
+            if (region == null) {
+                region = new RegionFile(file);
+                regions.put(key, region);
+            }
+
+            return region;
+        }
+    }
+
+    /**
+     * This reads all blocks of the given chunk.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @param consumer
+     *            The {@link BlockDataConsumer} to pass every block to
+     *
+     * @return The amount of blocks that were read
+     *
+     * @throws IOException
+     *             If the chunk could not be read
+     */
+    public int readChunk(int chunkX, int chunkZ, @Nonnull BlockDataConsumer consumer) throws IOException {
+        Map<Long, Map<String, String>> blocks;
+
+        synchronized (journalLock) {
+            blocks = readChunk(chunkX, chunkZ);
+        }
+
+        for (Map.Entry<Long, Map<String, String>> block : blocks.entrySet()) {
+            long position = block.getKey();
+            int x = (chunkX << 4) + (int) ((position >> 4) & 15);
+            int y = (int) (position >> 8);
+            int z = (chunkZ << 4) + (int) (position & 15);
+            consumer.accept(x, y, z, block.getValue());
+        }
+
+        return blocks.size();
+    }
+
+    /**
+     * This reads the blocks of a chunk from its {@link RegionFile} and applies any journaled changes.
+     * The caller must hold {@link #journalLock}.
+     */
+    @Nonnull
+    private Map<Long, Map<String, String>> readChunk(int chunkX, int chunkZ) throws IOException {
+        RegionFile region = getRegion(chunkX, chunkZ, false);
+        Map<Long, Map<String, String>> blocks = region == null ? new LinkedHashMap<>() : decode(region.read(chunkX, chunkZ));
+        long key = getChunkKey(chunkX, chunkZ);
+
+        applyChanges(blocks, compacting.get(key));
+        applyChanges(blocks, pending.get(key));
+        return blocks;
+    }
+
+    private static void applyChanges(@Nonnull Map<Long, Map<String, String>> blocks, @Nullable Map<Long, Map<String, String>> changes) {
+        if (changes != null) {
+            for (Map.Entry<Long, Map<String, String>> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    blocks.remove(change.getKey());
+                } else {
+                    blocks.put(change.getKey(), new HashMap<>(change.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * This reads every block in every {@link RegionFile} of this world.
+     *
+     * @param consumer
+     *            The {@link BlockDataConsumer} to pass every block to
+     *
+     * @return The amount of blocks that were read
+     *
+     * @throws IOException
+     *             If a {@link RegionFile} could not be read
+     */
+    public int readAll(@Nonnull BlockDataConsumer consumer) throws IOException {
+        Set<Long> chunks = new HashSet<>();
+        File[] files = directory.listFiles();
+        int blocks = 0;
+
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getName());
+
+                if (matcher.matches()) {
+                    int regionX = Integer.parseInt(matcher.group(1));
+                    int regionZ = Integer.parseInt(matcher.group(2));
+                    RegionFile region = getRegion(regionX << 5, regionZ << 5, false);
+
+                    for (int localZ = 0; localZ < RegionFile.REGION_SIZE; localZ++) {
+                        for (int localX = 0; localX < RegionFile.REGION_SIZE; localX++) {
+                            int chunkX = (regionX << 5) + localX;
+                            int chunkZ = (regionZ << 5) + localZ;
+
+                            if (region != null && region.hasChunk(chunkX, chunkZ)) {
+                                chunks.add(getChunkKey(chunkX, chunkZ));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized (journalLock) {
+            chunks.addAll(compacting.keySet());
+            chunks.addAll(pending.keySet());
+        }
+
+        for (long chunk : chunks) {
+            blocks += readChunk((int) (chunk >> 32), (int) chunk, consumer);
+        }
+
+        return blocks;
+    }
+
+    /**
+     * This writes a single block into our journal.
+     * The change will be visible to any further reads right away, but it will only be
+     * durable once {@link #flush()} has been called.
+     *
+     * @param x
+     *            The x coordinate of the block
+     * @param y
+     *            The y coordinate of the block
+     * @param z
+     *            The z coordinate of the block
+     * @param data
+     *            The data of this block or null to remove it
+     *
+     * @throws IOException
+     *             If the block could not be written
+     */
+    public void writeBlock(int x, int y, int z, @Nullable Map<String, String> data) throws IOException {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        long position = getPosition(x, y, z);
+
+        synchronized (journalLock) {
+            Map<String, String> copy = data == null ? null : new HashMap<>(data);
+            journal.append(chunkX, chunkZ, position, copy);
+            pending.computeIfAbsent(getChunkKey(chunkX, chunkZ), key -> new HashMap<>()).put(position, copy);
+        }
+    }
+
+    /**
+     * This writes all blocks of the given chunk into our journal, replacing any previous data of that chunk.
+     * An empty {@link Map} will delete the chunk.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @param blocks
+     *            A {@link Map} of packed positions (see {@link #getPosition(int, int, int)})
+     *            and the data of the block at that position
+     *
+     * @throws IOException
+     *             If the chunk could not be written
+     */
+    public void writeChunk(int chunkX, int chunkZ, @Nonnull Map<Long, Map<String, String>> blocks) throws IOException {
+        Validate.notNull(blocks, "The blocks cannot be null");
+
+        synchronized (journalLock) {
+            Map<Long, Map<String, String>> changes = pending.computeIfAbsent(getChunkKey(chunkX, chunkZ), key -> new HashMap<>());
+
+            for (Long position : readChunk(chunkX, chunkZ).keySet()) {
+                if (!blocks.containsKey(position)) {
+                    journal.append(chunkX, chunkZ, position, null);
+                    changes.put(position, null);
+                }
+            }
+
+            for (Map.Entry<Long, Map<String, String>> block : blocks.entrySet()) {
+                Map<String, String> copy = new HashMap<>(block.getValue());
+                journal.append(chunkX, chunkZ, block.getKey(), copy);
+                changes.put(block.getKey(), copy);
+            }
+        }
+    }
+
+    /**
+     * This forces every journaled change onto the disk.
+     *
+     * @throws IOException
+     *             If the journal could not be written
+     */
+    public void flush() throws IOException {
+        synchronized (journalLock) {
+            journal.flush();
+        }
+    }
+
+    /**
+     * This forces every {@link RegionFile} that is currently open onto the disk.
+     *
+     * @throws IOException
+     *             If a {@link RegionFile} could not be synced
+     */
+    public void sync() throws IOException {
+        synchronized (regions) {
+            for (RegionFile region : regions.values()) {
+                region.sync();
+            }
+        }
+    }
+
+    /**
+     * This returns whether our journal has grown large enough to be worth compacting.
+     *
+     * @return Whether {@link #compact()} should be called
+     */
+    public boolean needsCompaction() {
+        synchronized (journalLock) {
+            return replayedBytes + journal.getSize() > JOURNAL_THRESHOLD || !compacting.isEmpty();
+        }
+    }
+
+    /**
+     * This folds every journaled change into our {@link RegionFile RegionFiles}, syncs them and deletes
+     * the journals afterwards. New changes can still be written while this is running, they
+     * will go into a new journal.
+     * Every chunk is only locked while it is being rewritten, so this is meant to run
+     * on a background thread.
+     *
+     * @throws IOException
+     *             If a chunk could not be written, its changes will be kept for the next attempt
+     */
+    public void compact() throws IOException {
+        int generation;
+
+        synchronized (journalLock) {
+            if (pending.isEmpty() && compacting.isEmpty() && journal.getSize() == 0) {
+                return;
+            }
+
+            // Start a new journal, everything before it is about to be folded in
+            journal.flush();
+            journal.close();
+            generation = journal.getGeneration();
+            journal = new RegionJournal(directory, generation + 1);
+
+            for (Map.Entry<Long, Map<Long, Map<String, String>>> entry : pending.entrySet()) {
+                compacting.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).putAll(entry.getValue());
+            }
+
+            pending = new HashMap<>();
+        }
+
+        List<Long> chunks;
+        Set<RegionFile> touched = new HashSet<>();
+
+        synchronized (journalLock) {
+            chunks = new ArrayList<>(compacting.keySet());
+        }
+
+        for (long chunk : chunks) {
+            int chunkX = (int) (chunk >> 32);
+            int chunkZ = (int) chunk;
+
+            synchronized (journalLock) {
+                RegionFile region = getRegion(chunkX, chunkZ, false);
+                Map<Long, Map<String, String>> blocks = region == null ? new LinkedHashMap<>() : decode(region.read(chunkX, chunkZ));
+                applyChanges(blocks, compacting.get(chunk));
+
+                if (region == null && !blocks.isEmpty()) {
+                    region = getRegion(chunkX, chunkZ, true);
+                }
+
+                if (region != null) {
+                    region.write(chunkX, chunkZ, blocks.isEmpty() ? null : encode(blocks));
+                    touched.add(region);
+                }
+
+                compacting.remove(chunk);
+            }
+        }
+
+        // The journals are the only durable copy of these changes until the regions are synced
+        for (RegionFile region : touched) {
+            region.sync();
+        }
+
+        for (int previous : getJournalGenerations()) {
+            if (previous <= generation) {
+                Files.deleteIfExists(RegionJournal.getFile(directory, previous).toPath());
+            }
+        }
+
+        synchronized (journalLock) {
+            replayedBytes = 0;
+        }
+    }
+
+    /**
+     * This flushes our journal and closes every {@link RegionFile} that is currently open.
+     */
+    public void close() throws IOException {
+        synchronized (journalLock) {
+            journal.flush();
+            journal.close();
+        }
+
+        synchronized (regions) {
+            for (RegionFile region : regions.values()) {
+                region.close();
+            }
+
+            regions.clear();
+        }
+    }
+
+    /**
+     * This packs the position of a block within its chunk into a {@link Long}.
+     * Only the lower four bits of x and z are kept.
+     *
+     * @param x
+     *            The x coordinate of the block
+     * @param y
+     *            The y coordinate of the block
+     * @param z
+     *            The z coordinate of the block
+     *
+     * @return The packed position
+     */
+    public static long getPosition(int x, int y, int z) {
+        return ((long) y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    @Nonnull
+    private static byte[] encode(@Nonnull Map<Long, Map<String, String>> blocks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(blocks.size());
+
+            for (Map.Entry<Long, Map<String, String>> block : blocks.entrySet()) {
+                out.writeLong(block.getKey());
+                out.writeInt(block.getValue().size());
+
+                for (Map.Entry<String, String> entry : block.getValue().entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    private static Map<Long, Map<String, String>> decode(@Nullable byte[] payload) throws IOException {
+        Map<Long, Map<String, String>> blocks = new LinkedHashMap<>();
+
+        if (payload == null) {
+            return blocks;
+        }
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            int amount = in.readInt();
+
+            for (int i = 0; i < amount; i++) {
+                long position = in.readLong();
+                int entries = in.readInt();
+                Map<String, String> data = new HashMap<>(entries * 2);
+
+                for (int j = 0; j < entries; j++) {
+                    data.put(readString(in), readString(in));
+                }
+
+                blocks.put(position, data);
+            }
+
+            return blocks;
+        }
+    }
+
+    static void writeString(@Nonnull DataOutputStream out, @Nonnull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nonnull
+    static String readString(@Nonnull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A {@link BlockDataConsumer} receives every block that is read from a {@link RegionFile}.
+     */
+    @FunctionalInterface
+    public interface BlockDataConsumer {
+
+        /**
+         * This is called for every block that was read.
+         *
+         * @param x
+         *            The x coordinate of the block
+         * @param y
+         *            The y coordinate of the block
+         * @param z
+         *            The z coordinate of the block
+         * @param data
+         *            The key-value data of this block
+         */
+        void accept(int x, int y, int z, @Nonnull Map<String, String> data);
+    }
+
+}
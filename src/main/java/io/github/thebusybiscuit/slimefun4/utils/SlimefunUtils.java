@@ -378,7 +378,7 @@ public final class SlimefunUtils {
 
                 ItemMeta possibleSfItemMeta = sfitem.getItemMeta();
                 String id = Slimefun.getItemDataService().getItemData(itemMeta).orElse(null);
-                String possibleItemId = Slimefun.getItemDataService().getItemData(possibleSfItemMeta).orElse(null);
+                String possibleItemId = Slimefun.getItemDataService().getItemData(sfitem).orElse(null);
                 // Prioritize SlimefunItem id comparison over ItemMeta comparison
                 if (id != null && id.equals(possibleItemId)) {
                     Debug.log(TestCase.CARGO_INPUT_TESTING, "  Item IDs matched!");
@@ -15,6 +15,7 @@ import org.bukkit.block.Block;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
+import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.inventory.InvUtils;
 import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.SlimefunAddon;
@@ -26,10 +27,13 @@ import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
 import io.github.thebusybiscuit.slimefun4.core.attributes.EnergyNetComponent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.MachineProcessHolder;
 import io.github.thebusybiscuit.slimefun4.core.handlers.BlockBreakHandler;
+import io.github.thebusybiscuit.slimefun4.core.machines.FailedLookupCache;
 import io.github.thebusybiscuit.slimefun4.core.machines.MachineProcessor;
 import io.github.thebusybiscuit.slimefun4.core.networks.energy.EnergyNetComponentType;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.operations.CraftingOperation;
+import io.github.thebusybiscuit.slimefun4.implementation.operations.OperationSerializers;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
@@ -48,8 +52,16 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
     private static final int[] BORDER_IN = { 9, 10, 11, 12, 18, 21, 27, 28, 29, 30 };
     private static final int[] BORDER_OUT = { 14, 15, 16, 17, 23, 26, 32, 33, 34, 35 };
 
+    /**
+     * After a failed recipe lookup, we do not look again for this many milliseconds
+     * unless the input slots have visibly changed.
+     */
+    private static final long FAILED_LOOKUP_TIMEOUT = 5000;
+
     protected final List<MachineRecipe> recipes = new ArrayList<>();
     private final MachineProcessor<CraftingOperation> processor = new MachineProcessor<>(this);
+    private final FailedLookupCache failedLookups = new FailedLookupCache(FAILED_LOOKUP_TIMEOUT);
+    private volatile MachineRecipeIndex recipeIndex;
 
     private int energyConsumedPerTick = -1;
     private int energyCapacity = -1;
@@ -60,6 +72,7 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
         super(itemGroup, item, recipeType, recipe);
 
         processor.setProgressBar(getProgressBar());
+        processor.setSerializer(OperationSerializers.CRAFTING);
         createPreset(this, getInventoryTitle(), this::constructMenu);
 
         addItemHandler(onBlockBreak());
@@ -79,6 +92,7 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                 }
 
                 processor.endOperation(b);
+                failedLookups.invalidate(new BlockPosition(b));
             }
 
         };
@@ -353,6 +367,7 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                 }
             }
         } else {
+            int changes = inv.getUnsavedChanges();
             MachineRecipe next = findNextRecipe(inv);
 
             if (next != null) {
@@ -361,6 +376,9 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
 
                 // Fixes #3534 - Update indicator immediately
                 processor.updateProgressBar(inv, 22, currentOperation);
+            } else if (Slimefun.getTickerTask().isSuspendingIdleTickers() && !inv.hasViewer()) {
+                // Nothing to do until our inventory changes
+                inv.suspendTicker(changes);
             }
         }
     }
@@ -391,18 +409,30 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
 
     protected MachineRecipe findNextRecipe(BlockMenu inv) {
         Map<Integer, ItemStack> inventory = new HashMap<>();
+        long fingerprint = 1;
 
         for (int slot : getInputSlots()) {
             ItemStack item = inv.getItemInSlot(slot);
+            fingerprint = 31 * fingerprint + FailedLookupCache.getFingerprint(item);
 
             if (item != null) {
                 inventory.put(slot, ItemStackWrapper.wrap(item));
             }
         }
 
+        /*
+         * If nothing about our input slots has changed since we last failed to find
+         * a recipe, we can skip comparing all these items again.
+         */
+        BlockPosition position = new BlockPosition(inv.getLocation());
+
+        if (failedLookups.hasFailed(position, fingerprint)) {
+            return null;
+        }
+
         Map<Integer, Integer> found = new HashMap<>();
 
-        for (MachineRecipe recipe : recipes) {
+        for (MachineRecipe recipe : getRecipeIndex().getCandidates(inventory.values())) {
             for (ItemStack input : recipe.getInput()) {
                 for (int slot : getInputSlots()) {
                     if (SlimefunUtils.isItemSimilar(inventory.get(slot), input, true)) {
@@ -421,12 +451,28 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                     inv.consumeItem(entry.getKey(), entry.getValue());
                 }
 
+                failedLookups.invalidate(position);
                 return recipe;
             } else {
                 found.clear();
             }
         }
 
+        failedLookups.markFailed(position, fingerprint);
         return null;
     }
+
+    @Nonnull
+    private MachineRecipeIndex getRecipeIndex() {
+        MachineRecipeIndex index = recipeIndex;
+
+        // Addons may modify our recipes directly, so we need to check whether our index is still valid
+        if (index == null || !index.isIndexing(recipes)) {
+            index = new MachineRecipeIndex(recipes);
+            recipeIndex = index;
+        }
+
+        return index;
+    }
+
 }
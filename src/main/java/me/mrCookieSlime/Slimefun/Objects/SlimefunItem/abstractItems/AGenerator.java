@@ -29,6 +29,7 @@ import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.handlers.SimpleBlockBreakHandler;
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.AbstractEnergyProvider;
 import io.github.thebusybiscuit.slimefun4.implementation.operations.FuelOperation;
+import io.github.thebusybiscuit.slimefun4.implementation.operations.OperationSerializers;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
@@ -55,6 +56,7 @@ public abstract class AGenerator extends AbstractEnergyProvider implements Machi
         super(itemGroup, item, recipeType, recipe);
 
         processor.setProgressBar(getProgressBar());
+        processor.setSerializer(OperationSerializers.FUEL);
 
         new BlockMenuPreset(item.getItemId(), getInventoryTitle()) {
 
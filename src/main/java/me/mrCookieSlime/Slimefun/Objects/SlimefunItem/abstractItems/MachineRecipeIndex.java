@@ -0,0 +1,183 @@
+package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+/**
+ * A {@link MachineRecipeIndex} narrows down which {@link MachineRecipe MachineRecipes} of an
+ * {@link AContainer} could possibly be crafted from the items in its input slots.
+ * <p>
+ * Recipes are indexed by the {@link Material} of their first input. Every other input is checked
+ * against the {@link Material Materials} and Slimefun ids that are present, so that only the
+ * remaining candidates have to be compared item by item. The candidates keep the order in
+ * which the recipes were registered.
+ * <p>
+ * An index is a snapshot, {@link AContainer} builds a new one whenever its recipes change.
+ *
+ * @see AContainer
+ *
+ */
+@Immutable
+final class MachineRecipeIndex {
+
+    private final MachineRecipe[] recipes;
+    private final Map<Material, BitSet> byMaterial = new EnumMap<>(Material.class);
+    private final BitSet unindexed = new BitSet();
+    private final Material[][] materials;
+    private final String[][] ids;
+
+    MachineRecipeIndex(@Nonnull List<MachineRecipe> recipes) {
+        this.recipes = recipes.toArray(new MachineRecipe[0]);
+        this.materials = new Material[this.recipes.length][];
+        this.ids = new String[this.recipes.length][];
+
+        for (int i = 0; i < this.recipes.length; i++) {
+            ItemStack[] inputs = this.recipes[i].getInput();
+            materials[i] = new Material[inputs.length];
+            ids[i] = new String[inputs.length];
+
+            for (int j = 0; j < inputs.length; j++) {
+                ItemStack input = inputs[j];
+
+                if (input != null) {
+                    materials[i][j] = input.getType();
+
+                    if (input instanceof SlimefunItemStack stack) {
+                        ids[i][j] = stack.getItemId();
+                    }
+                }
+            }
+
+            Material key = getFirstMaterial(materials[i]);
+
+            if (key == null) {
+                unindexed.set(i);
+            } else {
+                byMaterial.computeIfAbsent(key, k -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    private static Material getFirstMaterial(@Nonnull Material[] materials) {
+        for (Material material : materials) {
+            if (material != null) {
+                return material;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This checks whether this {@link MachineRecipeIndex} still reflects the given recipes.
+     *
+     * @param list
+     *            The current recipes
+     *
+     * @return Whether this index is up to date
+     */
+    boolean isIndexing(@Nonnull List<MachineRecipe> list) {
+        if (list.size() != recipes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < recipes.length; i++) {
+            if (list.get(i) != recipes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This returns every recipe that could be crafted from the given items.
+     * The items still need to be compared to the inputs of each candidate.
+     *
+     * @param items
+     *            The items found in the input slots
+     *
+     * @return The candidates, in the order in which they were registered
+     */
+    @Nonnull
+    List<MachineRecipe> getCandidates(@Nonnull Collection<ItemStack> items) {
+        Set<Material> present = EnumSet.noneOf(Material.class);
+        Set<Material> withoutId = EnumSet.noneOf(Material.class);
+        Set<String> presentIds = new HashSet<>();
+
+        for (ItemStack item : items) {
+            present.add(item.getType());
+            Optional<String> id = Slimefun.getItemDataService().getItemData(item);
+
+            if (id.isPresent()) {
+                presentIds.add(id.get());
+            } else {
+                withoutId.add(item.getType());
+            }
+        }
+
+        BitSet candidates = (BitSet) unindexed.clone();
+
+        for (Material material : present) {
+            BitSet indexed = byMaterial.get(material);
+
+            if (indexed != null) {
+                candidates.or(indexed);
+            }
+        }
+
+        List<MachineRecipe> list = new ArrayList<>();
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (isPossible(i, present, withoutId, presentIds)) {
+                list.add(recipes[i]);
+            }
+        }
+
+        return list;
+    }
+
+    private boolean isPossible(int recipe, @Nonnull Set<Material> present, @Nonnull Set<Material> withoutId, @Nonnull Set<String> presentIds) {
+        for (int j = 0; j < materials[recipe].length; j++) {
+            Material material = materials[recipe][j];
+
+            if (material == null) {
+                continue;
+            }
+
+            if (!present.contains(material)) {
+                return false;
+            }
+
+            String id = ids[recipe][j];
+
+            /*
+             * An item without a Slimefun id may still match a SlimefunItemStack by its ItemMeta,
+             * so we can only rule this recipe out if no such item of that Material is present.
+             */
+            if (id != null && !presentIds.contains(id) && !withoutId.contains(material)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
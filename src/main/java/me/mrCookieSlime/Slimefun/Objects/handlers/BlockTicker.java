@@ -13,12 +13,20 @@ import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 
 public abstract class BlockTicker implements ItemHandler {
 
-    protected boolean unique = true;
+    /*
+     * This is volatile since the TickerTask may check it from multiple worker threads at once
+     */
+    protected volatile boolean unique = true;
 
     public void update() {
         if (unique) {
-            uniqueTick();
-            unique = false;
+            // The TickerTask may call this from multiple worker threads at once
+            synchronized (this) {
+                if (unique) {
+                    uniqueTick();
+                    unique = false;
+                }
+            }
         }
     }
 
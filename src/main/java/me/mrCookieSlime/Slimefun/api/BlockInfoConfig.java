@@ -1,8 +1,14 @@
 package me.mrCookieSlime.Slimefun.api;
 
 import java.io.File;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
@@ -21,6 +27,14 @@ import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
  * 
  * This simply utilises a {@link HashMap} to cache the data and then provides the same getters
  * as a normal {@link Config}.
+ * <p>
+ * Numeric and boolean values can also be stored in typed slots, see {@link #getInt(String, int)}
+ * and {@link #setInt(String, int)}. Those slots are kept in two small parallel arrays, so reading
+ * or updating a value like the energy charge of a machine does not parse or allocate any
+ * {@link String}. A slot is only turned into a {@link String} when the data is saved.
+ * <p>
+ * Block data is read by tickers and saved from other threads, so any access to the values
+ * and slots of a {@link BlockInfoConfig} happens while holding its lock.
  * 
  * @author creator3
  * 
@@ -29,7 +43,16 @@ import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
  */
 public class BlockInfoConfig extends Config {
 
+    private static final byte TYPE_NUMBER = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+
     private final Map<String, String> data;
+    private final Map<String, String> view = new View();
+
+    private String[] slotKeys;
+    private long[] slotValues;
+    private byte[] slotTypes;
+    private int slots;
 
     public BlockInfoConfig() {
         this(new HashMap<>());
@@ -40,17 +63,43 @@ public class BlockInfoConfig extends Config {
         this.data = data;
     }
 
+    /**
+     * This returns a live view of all values of this {@link BlockInfoConfig}, including typed slots.
+     * Any changes made through this {@link Map} are written to this {@link BlockInfoConfig}.
+     * Use {@link #toMap()} if you need a snapshot instead.
+     * 
+     * @return A live view of all values
+     */
     @Nonnull
     public Map<String, String> getMap() {
-        return data;
+        return view;
+    }
+
+    /**
+     * This returns a snapshot of all values, including typed slots, as {@link String Strings}.
+     * This is what should be used when serializing this {@link BlockInfoConfig}.
+     * 
+     * @return A copy of all values
+     */
+    @Nonnull
+    public synchronized Map<String, String> toMap() {
+        Map<String, String> map = new HashMap<>(data);
+
+        for (int i = 0; i < slots; i++) {
+            map.put(slotKeys[i], slotToString(i));
+        }
+
+        return map;
     }
 
     @Override
-    public void setValue(String path, Object value) {
+    public synchronized void setValue(String path, Object value) {
         if (value != null && !(value instanceof String)) {
             throw new UnsupportedOperationException("Can't set \"" + path + "\" to \"" + value + "\" (type: " + value.getClass().getSimpleName() + ") because BlockInfoConfig only supports Strings");
         }
 
+        removeSlot(path);
+
         if (value == null) {
             data.remove(path);
         } else {
@@ -59,8 +108,8 @@ public class BlockInfoConfig extends Config {
     }
 
     @Override
-    public boolean contains(String path) {
-        return data.containsKey(path);
+    public synchronized boolean contains(String path) {
+        return findSlot(path) != -1 || data.containsKey(path);
     }
 
     @Override
@@ -69,13 +118,168 @@ public class BlockInfoConfig extends Config {
     }
 
     @Override
-    public String getString(String path) {
-        return data.get(path);
+    public synchronized String getString(String path) {
+        int slot = findSlot(path);
+        return slot == -1 ? data.get(path) : slotToString(slot);
+    }
+
+    /**
+     * This returns the value at the given path as an int.
+     * A {@link String} value will be parsed once and then kept in a typed slot.
+     * 
+     * @param path
+     *            The path
+     * @param defaultValue
+     *            The value to return if there is no valid number at this path
+     * 
+     * @return The int value
+     */
+    public int getInt(String path, int defaultValue) {
+        return (int) getLong(path, defaultValue);
+    }
+
+    /**
+     * This returns the value at the given path as a long.
+     * A {@link String} value will be parsed once and then kept in a typed slot.
+     * 
+     * @param path
+     *            The path
+     * @param defaultValue
+     *            The value to return if there is no valid number at this path
+     * 
+     * @return The long value
+     */
+    public synchronized long getLong(String path, long defaultValue) {
+        int slot = findSlot(path);
+
+        if (slot != -1) {
+            return slotValues[slot];
+        }
+
+        String value = getString(path);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            long number = Long.parseLong(value);
+            setSlot(path, number, TYPE_NUMBER);
+            return number;
+        } catch (NumberFormatException x) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * This returns the value at the given path as a boolean.
+     * A {@link String} value will be parsed once and then kept in a typed slot.
+     * 
+     * @param path
+     *            The path
+     * @param defaultValue
+     *            The value to return if there is no value at this path
+     * 
+     * @return The boolean value
+     */
+    public synchronized boolean getBoolean(String path, boolean defaultValue) {
+        int slot = findSlot(path);
+
+        if (slot != -1) {
+            return slotValues[slot] != 0;
+        }
+
+        String value = getString(path);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        boolean bool = Boolean.parseBoolean(value);
+        setSlot(path, bool ? 1 : 0, TYPE_BOOLEAN);
+        return bool;
+    }
+
+    public void setInt(String path, int value) {
+        setLong(path, value);
+    }
+
+    public synchronized void setLong(String path, long value) {
+        setSlot(path, value, TYPE_NUMBER);
+    }
+
+    public synchronized void setBoolean(String path, boolean value) {
+        setSlot(path, value ? 1 : 0, TYPE_BOOLEAN);
+    }
+
+    /**
+     * The caller must hold the lock of this {@link BlockInfoConfig}.
+     */
+    private int findSlot(String path) {
+        for (int i = 0; i < slots; i++) {
+            // Keys are almost always constants, so we can usually skip equals()
+            if (slotKeys[i] == path || slotKeys[i].equals(path)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void setSlot(String path, long value, byte type) {
+        int slot = findSlot(path);
+
+        if (slot == -1) {
+            data.remove(path);
+
+            if (slotKeys == null) {
+                slotKeys = new String[2];
+                slotValues = new long[2];
+                slotTypes = new byte[2];
+            } else if (slots == slotKeys.length) {
+                slotKeys = Arrays.copyOf(slotKeys, slots * 2);
+                slotValues = Arrays.copyOf(slotValues, slots * 2);
+                slotTypes = Arrays.copyOf(slotTypes, slots * 2);
+            }
+
+            slot = slots++;
+            slotKeys[slot] = path;
+        }
+
+        slotValues[slot] = value;
+        slotTypes[slot] = type;
+    }
+
+    private void removeSlot(String path) {
+        int slot = findSlot(path);
+
+        if (slot != -1) {
+            slots--;
+            slotKeys[slot] = slotKeys[slots];
+            slotValues[slot] = slotValues[slots];
+            slotTypes[slot] = slotTypes[slots];
+            slotKeys[slots] = null;
+        }
+    }
+
+    @Nonnull
+    private String slotToString(int slot) {
+        if (slotTypes[slot] == TYPE_BOOLEAN) {
+            return String.valueOf(slotValues[slot] != 0);
+        } else {
+            return String.valueOf(slotValues[slot]);
+        }
     }
 
     @Override
-    public Set<String> getKeys() {
-        return data.keySet();
+    public synchronized Set<String> getKeys() {
+        Set<String> keys = new HashSet<>(data.keySet());
+
+        for (int i = 0; i < slots; i++) {
+            keys.add(slotKeys[i]);
+        }
+
+        return keys;
     }
 
     @Override
@@ -115,7 +319,125 @@ public class BlockInfoConfig extends Config {
 
     @Nonnull
     public String toJSON() {
-        return new GsonBuilder().create().toJson(data);
+        return new GsonBuilder().create().toJson(toMap());
+    }
+
+    /**
+     * The {@link Map} returned by {@link #getMap()}.
+     * Every operation goes through the synchronized methods of our {@link BlockInfoConfig}.
+     */
+    private final class View extends AbstractMap<String, String> {
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String path ? getString(path) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String path && contains(path);
+        }
+
+        @Override
+        public String put(String key, String value) {
+            synchronized (BlockInfoConfig.this) {
+                String previous = getString(key);
+                setValue(key, value);
+                return previous;
+            }
+        }
+
+        @Override
+        public String remove(Object key) {
+            return key instanceof String path ? put(path, null) : null;
+        }
+
+        @Override
+        public int size() {
+            synchronized (BlockInfoConfig.this) {
+                return data.size() + slots;
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    // We iterate over a snapshot, so concurrent changes cannot break this iterator
+                    Iterator<String> keys = getKeys().iterator();
+
+                    return new Iterator<>() {
+
+                        private String current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, String> next() {
+                            current = keys.next();
+                            return new ValueEntry(current);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current == null) {
+                                throw new IllegalStateException("There is no entry to remove");
+                            }
+
+                            setValue(current, null);
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return View.this.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * A single value of our {@link View}, it always reflects the current value of its key.
+     */
+    private final class ValueEntry implements Map.Entry<String, String> {
+
+        private final String key;
+
+        private ValueEntry(@Nonnull String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return getString(key);
+        }
+
+        @Override
+        public String setValue(String value) {
+            return view.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Map.Entry<?, ?> entry && key.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
     }
 
 }
\ No newline at end of file
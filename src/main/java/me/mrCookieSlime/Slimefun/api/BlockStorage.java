@@ -6,13 +6,25 @@ import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -37,7 +49,10 @@ import com.google.gson.stream.JsonWriter;
 
 import io.github.bakedlibs.dough.common.CommonPatterns;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+import io.github.thebusybiscuit.slimefun4.api.network.Network;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineProcessor;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.storage.backend.regions.RegionStorage;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
@@ -51,33 +66,154 @@ public class BlockStorage {
     private static final String PATH_BLOCKS = "data-storage/Slimefun/stored-blocks/";
     private static final String PATH_CHUNKS = "data-storage/Slimefun/stored-chunks/";
     private static final String PATH_INVENTORIES = "data-storage/Slimefun/stored-inventories/";
+    private static final String PATH_REGIONS = "data-storage/Slimefun/stored-regions/";
 
     private static final EmptyBlockData emptyBlockData = new EmptyBlockData();
 
+    /**
+     * The worlds whose data is currently being loaded asynchronously, see {@link #loadAsync(World)}.
+     */
+    private static final Map<String, BlockStorage> loadingWorlds = new ConcurrentHashMap<>();
+
     private final World world;
     private final Map<Location, Config> storage = new ConcurrentHashMap<>();
     private final Map<Location, BlockMenu> inventories = new ConcurrentHashMap<>();
-    private final Map<String, Config> blocksCache = new ConcurrentHashMap<>();
+
+    /**
+     * The locations that have changed since the last save, grouped by the item id whose
+     * legacy block file they belong to. They are only serialized when we actually save.
+     */
+    private final Map<String, Set<Location>> blocksCache = new ConcurrentHashMap<>();
+
+    /**
+     * Our {@link RegionStorage} if this world uses binary region files, null if
+     * it uses the legacy format of one file per item id.
+     */
+    private final RegionStorage regionStorage;
+    private final Set<Location> dirtyBlocks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * This index holds every {@link Location} in {@link #storage}, grouped by their chunk.
+     */
+    private final Map<Long, Set<Location>> chunkIndex = new ConcurrentHashMap<>();
+
+    /**
+     * When lazy chunk loading is enabled, only the data of these chunks is held in memory.
+     * Chunks in {@link #pendingEviction} have been unloaded and will be evicted on the next save.
+     * Any loading, writing or evicting of a chunk happens while holding {@link #chunkLock}.
+     */
+    private final boolean lazyLoading;
+    private final Set<Long> residentChunks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingEviction = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unreadableChunks = ConcurrentHashMap.newKeySet();
+    private final Object chunkLock = new Object();
+
+    /**
+     * Unloaded chunks which are still reached by a {@link Network}. Evicting them would only make
+     * the next tick of that {@link Network} load them again, so we check them again on the next save.
+     */
+    private final Set<Long> retainedChunks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * This is increased whenever a chunk is evicted. A chunk that was read without holding
+     * {@link #chunkLock} is read again if any chunk was evicted in the meantime.
+     */
+    private volatile int evictions = 0;
+    private final AtomicBoolean inventoryTaskScheduled = new AtomicBoolean(false);
+
+    /**
+     * While this {@link BlockStorage} is loaded asynchronously, tickers are only enabled once
+     * all of its data has been read, see {@link #publish()}.
+     * {@link #parsed} completes once all data has been read, {@link #published} once this
+     * {@link BlockStorage} was registered (or null if it could not be loaded).
+     */
+    private volatile boolean loading;
+    private final CompletableFuture<Void> parsed = new CompletableFuture<>();
+    private final CompletableFuture<BlockStorage> published = new CompletableFuture<>();
+    private final Map<Long, Boolean> pendingChunkEvents = new LinkedHashMap<>();
+
+    /**
+     * Inventory files are parsed while loading, but their {@link BlockMenu BlockMenus} are only
+     * created on the main thread in {@link #publish()}.
+     */
+    private final Map<Location, io.github.bakedlibs.dough.config.Config> parsedInventories = new ConcurrentHashMap<>();
+    private final Map<String, io.github.bakedlibs.dough.config.Config> parsedUniversalInventories = new LinkedHashMap<>();
 
     private static int chunkChanges = 0;
-    private static boolean universalInventoriesLoaded = false;
+    private static final AtomicBoolean universalInventoriesLoaded = new AtomicBoolean(false);
 
     private int changes = 0;
     private AtomicBoolean isMarkedForRemoval = new AtomicBoolean(false);
 
+    /**
+     * This returns the {@link BlockStorage} of the given {@link World}.
+     * If the data of this {@link World} is still being loaded, this will wait until it has been loaded.
+     * 
+     * @param world
+     *            The {@link World}
+     * 
+     * @return The {@link BlockStorage} of that {@link World} or null if it is not loaded
+     */
     @Nullable
     public static BlockStorage getStorage(@Nonnull World world) {
-        return Slimefun.getRegistry().getWorlds().get(world.getName());
+        BlockStorage storage = Slimefun.getRegistry().getWorlds().get(world.getName());
+
+        if (storage == null) {
+            BlockStorage loadingStorage = loadingWorlds.get(world.getName());
+
+            if (loadingStorage != null) {
+                return loadingStorage.awaitLoading();
+            }
+        }
+
+        return storage;
     }
 
+    /**
+     * This returns the {@link BlockStorage} of the given {@link World} and loads it if necessary.
+     * If the data of this {@link World} is already being loaded, this will wait for it instead
+     * of loading it a second time, so every caller gets the same {@link BlockStorage}.
+     * 
+     * @param world
+     *            The {@link World}
+     * 
+     * @return The {@link BlockStorage} of that {@link World}
+     */
     @Nonnull
     public static BlockStorage getOrCreate(@Nonnull World world) {
-        BlockStorage storage = Slimefun.getRegistry().getWorlds().get(world.getName());
+        Validate.notNull(world, "The World cannot be null!");
 
-        if (storage == null) {
-            return new BlockStorage(world);
-        } else {
-            return storage;
+        while (true) {
+            BlockStorage storage;
+            boolean created = false;
+
+            synchronized (loadingWorlds) {
+                BlockStorage loaded = Slimefun.getRegistry().getWorlds().get(world.getName());
+
+                if (loaded != null) {
+                    return loaded;
+                }
+
+                storage = loadingWorlds.get(world.getName());
+
+                if (storage == null) {
+                    // Anyone else asking for this World will now wait for us
+                    storage = new BlockStorage(world, false);
+                    loadingWorlds.put(world.getName(), storage);
+                    created = true;
+                }
+            }
+
+            if (created) {
+                return storage.loadSynchronously();
+            }
+
+            BlockStorage loaded = storage.awaitLoading();
+
+            // If loading failed, it is no longer in loadingWorlds and we try it ourselves
+            if (loaded != null) {
+                return loaded;
+            }
         }
     }
 
@@ -107,24 +243,131 @@ public class BlockStorage {
         return null;
     }
 
+    private static long getChunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static long getChunkKey(Location l) {
+        return getChunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+    }
+
+    /**
+     * This returns the {@link BlockStorage} of the given {@link World}, even if it is still being loaded.
+     * Unlike {@link #getStorage(World)}, this never waits for the data of that {@link World}.
+     * 
+     * @param world
+     *            The {@link World}
+     * 
+     * @return The {@link BlockStorage} of that {@link World} or null if it is neither loaded nor loading
+     */
+    @Nullable
+    public static BlockStorage getStorageWithoutWaiting(@Nonnull World world) {
+        BlockStorage storage = Slimefun.getRegistry().getWorlds().get(world.getName());
+        return storage == null ? loadingWorlds.get(world.getName()) : storage;
+    }
+
+    /**
+     * This returns whether the data of the chunk at the given {@link Location} is currently held in memory.
+     * Unlike {@link #hasBlockInfo(Location)}, this never loads an evicted chunk, so it is safe to call
+     * from background tasks that should not drag chunks back into memory.
+     * 
+     * @param l
+     *            The {@link Location} to check
+     * 
+     * @return Whether the chunk at that {@link Location} is resident
+     */
+    public static boolean isChunkResident(@Nonnull Location l) {
+        BlockStorage storage = Slimefun.getRegistry().getWorlds().get(l.getWorld().getName());
+        return storage != null && (!storage.lazyLoading || storage.residentChunks.contains(getChunkKey(l)));
+    }
+
+    /**
+     * This loads the {@link BlockStorage} of the given {@link World} off the main thread.
+     * The block files and inventories of that {@link World} are read in parallel and the
+     * {@link BlockStorage} is only registered once all of its data has been read.
+     * Until then, only operations which access the data of this {@link World} will wait for it,
+     * see {@link #getStorage(World)}.
+     * 
+     * @param world
+     *            The {@link World} to load
+     * 
+     * @return A {@link CompletableFuture} holding the {@link BlockStorage}, or null if it could not be loaded
+     */
+    @Nonnull
+    public static CompletableFuture<BlockStorage> loadAsync(@Nonnull World world) {
+        Validate.notNull(world, "The World cannot be null!");
+
+        BlockStorage storage;
+
+        synchronized (loadingWorlds) {
+            BlockStorage loaded = Slimefun.getRegistry().getWorlds().get(world.getName());
+
+            if (loaded != null) {
+                return CompletableFuture.completedFuture(loaded);
+            }
+
+            BlockStorage loadingStorage = loadingWorlds.get(world.getName());
+
+            if (loadingStorage != null) {
+                return loadingStorage.published;
+            }
+
+            storage = new BlockStorage(world, true);
+            loadingWorlds.put(world.getName(), storage);
+        }
+
+        Slimefun.getThreadService().newThread(Slimefun.instance(), "World Loader (" + world.getName() + ')', storage::loadAsynchronously);
+        return storage.published;
+    }
+
     public BlockStorage(World w) {
+        this(w, false);
+
+        if (!Slimefun.getRegistry().getWorlds().containsKey(w.getName()) && !loadingWorlds.containsKey(w.getName())) {
+            load();
+            publish();
+        }
+    }
+
+    private BlockStorage(World w, boolean async) {
         this.world = w;
+        this.loading = async;
 
         if (world.getName().indexOf('.') != -1) {
             throw new IllegalArgumentException("Slimefun cannot deal with World names that contain a dot: " + w.getName());
         }
 
-        if (Slimefun.getRegistry().getWorlds().containsKey(w.getName())) {
-            // Cancel the loading process if the world was already loaded
-            return;
+        if (Slimefun.getRegistry().useRegionBlockStorage()) {
+            try {
+                this.regionStorage = new RegionStorage(new File(PATH_REGIONS + w.getName()));
+            } catch (IOException x) {
+                throw new IllegalStateException("Could not open the Slimefun region files of World \"" + w.getName() + '"', x);
+            }
+
+            this.lazyLoading = Slimefun.getRegistry().useLazyChunkLoading();
+        } else {
+            this.regionStorage = null;
+            this.lazyLoading = false;
         }
+    }
 
-        Slimefun.logger().log(Level.INFO, "Loading Blocks for World \"{0}\"", w.getName());
+    /**
+     * This reads all block data and inventories of this {@link World}.
+     * This does not access the {@link World} itself, so it is safe to call off the main thread.
+     */
+    private void load() {
+        Slimefun.logger().log(Level.INFO, "Loading Blocks for World \"{0}\"", world.getName());
         Slimefun.logger().log(Level.INFO, "This may take a long time...");
 
-        File dir = new File(PATH_BLOCKS + w.getName());
+        File dir = new File(PATH_BLOCKS + world.getName());
 
-        if (dir.exists()) {
+        if (regionStorage != null) {
+            if (dir.exists()) {
+                migrateLegacyBlocks(dir);
+            } else if (!lazyLoading) {
+                loadRegions();
+            }
+        } else if (dir.exists()) {
             loadBlocks(dir);
         } else {
             dir.mkdirs();
@@ -136,38 +379,478 @@ public class BlockStorage {
         if (!Slimefun.instance().isUnitTest()) {
             loadInventories();
         }
+    }
+
+    /**
+     * This loads this {@link BlockStorage} on the current {@link Thread}, it must already have been
+     * added to {@link #loadingWorlds}.
+     * 
+     * @return This {@link BlockStorage}
+     */
+    @Nonnull
+    private BlockStorage loadSynchronously() {
+        try {
+            load();
+        } catch (RuntimeException | LinkageError x) {
+            loadingWorlds.remove(world.getName(), this);
+            published.complete(null);
+            throw x;
+        } finally {
+            parsed.complete(null);
+        }
+
+        publish();
+        return this;
+    }
+
+    private void loadAsynchronously() {
+        try {
+            load();
+        } catch (Exception | LinkageError x) {
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while trying to load World \"" + world.getName() + "\" for Slimefun v" + Slimefun.getVersion());
+            loadingWorlds.remove(world.getName(), this);
+            published.complete(null);
+            return;
+        } finally {
+            parsed.complete(null);
+        }
+
+        if (Slimefun.runSync(this::publish) == null && !published.isDone()) {
+            // Slimefun was disabled in the meantime
+            loadingWorlds.remove(world.getName(), this);
+            published.complete(null);
+        }
+    }
+
+    /**
+     * This waits until this {@link BlockStorage} has been loaded.
+     * On the main thread, we register it right away instead of waiting for our scheduled task.
+     * 
+     * @return This {@link BlockStorage} or null if it could not be loaded
+     */
+    @Nullable
+    private BlockStorage awaitLoading() {
+        parsed.join();
+
+        if (!published.isDone() && Bukkit.isPrimaryThread()) {
+            publish();
+        }
+
+        return published.join();
+    }
+
+    /**
+     * This registers this {@link BlockStorage} once all of its data has been read.
+     * This must be called on the main thread.
+     */
+    private synchronized void publish() {
+        if (published.isDone()) {
+            return;
+        }
+
+        createInventories();
         Slimefun.getRegistry().getWorlds().put(world.getName(), this);
+        loadingWorlds.remove(world.getName(), this);
+
+        if (loading) {
+            loading = false;
+
+            for (Map.Entry<Location, Config> entry : storage.entrySet()) {
+                if (Slimefun.getRegistry().getTickerBlocks().contains(entry.getValue().getString("id"))) {
+                    Slimefun.getTickerTask().enableTicker(entry.getKey());
+                }
+            }
+        }
+
+        if (lazyLoading) {
+            loadResidentChunks();
+
+            for (Map.Entry<Long, Boolean> event : pendingChunkEvents.entrySet()) {
+                if (event.getValue()) {
+                    applyChunkLoad(event.getKey());
+                } else if (residentChunks.contains(event.getKey())) {
+                    pendingEviction.add(event.getKey());
+                }
+            }
+
+            pendingChunkEvents.clear();
+        }
+
+        published.complete(this);
+    }
+
+    /**
+     * This marks every chunk whose data is already in memory (e.g. after a migration) as resident
+     * and then loads the data of every chunk that is currently loaded in this {@link World}.
+     * Resident chunks which are not loaded in the {@link World} will be evicted on the next save.
+     */
+    private void loadResidentChunks() {
+        synchronized (chunkLock) {
+            for (Long key : chunkIndex.keySet()) {
+                residentChunks.add(key);
+                parsedInventories.putAll(readChunkInventories(chunkIndex.get(key), storage::get));
+
+                if (!world.isChunkLoaded((int) (key >> 32), (int) (long) key)) {
+                    pendingEviction.add(key);
+                }
+            }
+
+            for (Chunk chunk : world.getLoadedChunks()) {
+                long key = getChunkKey(chunk.getX(), chunk.getZ());
+
+                if (!residentChunks.contains(key)) {
+                    loadChunk(key);
+                }
+            }
+
+            createInventories();
+        }
+
+        Slimefun.logger().log(Level.INFO, "Loaded the Slimefun data of {0} chunk(s) in World \"{1}\", other chunks will be loaded on demand", new Object[] { residentChunks.size(), world.getName() });
+    }
+
+    /**
+     * This reads the blocks and inventories of a single chunk from our region files and makes it resident.
+     * The files are read without holding {@link #chunkLock}, only the result is added while holding it.
+     * The {@link BlockMenu BlockMenus} of this chunk are created on the main thread, see {@link #createInventories()}.
+     * 
+     * @param key
+     *            The key of the chunk
+     */
+    private void loadChunk(long key) {
+        while (true) {
+            int generation = evictions;
+            LoadedChunk chunk = readChunk(key);
+
+            synchronized (chunkLock) {
+                if (residentChunks.contains(key)) {
+                    // Someone else was faster
+                    return;
+                }
+
+                if (generation != evictions) {
+                    // Our copy may be older than what was written when a chunk was evicted
+                    continue;
+                }
+
+                addChunk(key, chunk);
+                return;
+            }
+        }
+    }
+
+    @Nonnull
+    private LoadedChunk readChunk(long key) {
+        int x = (int) (key >> 32);
+        int z = (int) key;
+        LoadedChunk chunk = new LoadedChunk();
+
+        try {
+            regionStorage.readChunk(x, z, (blockX, blockY, blockZ, data) -> {
+                if (data.get("id") != null) {
+                    chunk.blocks.put(new Location(world, blockX, blockY, blockZ), new BlockInfoConfig(data));
+                }
+            });
+        } catch (IOException e) {
+            chunk.unreadable = true;
+            Slimefun.logger().log(Level.SEVERE, e, () -> "An Error occurred while loading chunk " + x + ", " + z + " of World \"" + world.getName() + "\" for Slimefun " + Slimefun.getVersion());
+        }
+
+        chunk.inventories.putAll(readChunkInventories(chunk.blocks.keySet(), chunk.blocks::get));
+        return chunk;
+    }
+
+    /**
+     * This adds a chunk that was read by {@link #readChunk(long)}.
+     * The caller must hold {@link #chunkLock}.
+     * 
+     * @param key
+     *            The key of the chunk
+     * @param chunk
+     *            The data of that chunk
+     */
+    private void addChunk(long key, @Nonnull LoadedChunk chunk) {
+        if (chunk.unreadable) {
+            // We must not overwrite this chunk with an incomplete copy of its data
+            unreadableChunks.add(key);
+        }
+
+        for (Map.Entry<Location, BlockInfoConfig> entry : chunk.blocks.entrySet()) {
+            loadBlock(entry.getKey(), entry.getValue(), entry.getValue().getString("id"));
+        }
+
+        for (Map.Entry<Location, io.github.bakedlibs.dough.config.Config> entry : chunk.inventories.entrySet()) {
+            if (!inventories.containsKey(entry.getKey())) {
+                parsedInventories.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        residentChunks.add(key);
+
+        if (!world.isChunkLoaded((int) (key >> 32), (int) key)) {
+            pendingEviction.add(key);
+        }
+
+        if (!chunk.inventories.isEmpty()) {
+            scheduleInventories();
+        }
+    }
+
+    /**
+     * This parses the inventory files of the given {@link Location Locations}.
+     * This does not create any {@link BlockMenu BlockMenus}, so it is safe to call from any thread.
+     * 
+     * @param locations
+     *            The {@link Location Locations} of the blocks
+     * @param blocks
+     *            A lookup for the block data at each {@link Location}
+     * 
+     * @return The parsed inventory data for every {@link Location} that has an inventory
+     */
+    @Nonnull
+    private Map<Location, io.github.bakedlibs.dough.config.Config> readChunkInventories(@Nullable Collection<Location> locations, @Nonnull Function<Location, Config> blocks) {
+        Map<Location, io.github.bakedlibs.dough.config.Config> result = new HashMap<>();
+
+        if (locations == null) {
+            return result;
+        }
+
+        for (Location l : locations) {
+            Config cfg = blocks.apply(l);
+            String id = cfg == null ? null : cfg.getString("id");
+
+            if (id != null && BlockMenuPreset.getPreset(id) != null && !BlockMenuPreset.isUniversalInventory(id)) {
+                File file = new File(PATH_INVENTORIES + serializeLocation(l) + ".sfi");
+
+                if (file.exists()) {
+                    try {
+                        result.put(l, new io.github.bakedlibs.dough.config.Config(file));
+                    } catch (Exception x) {
+                        Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * This creates all parsed {@link BlockMenu BlockMenus} on the main thread.
+     * Only one task is scheduled at a time.
+     */
+    private void scheduleInventories() {
+        if (Bukkit.isPrimaryThread()) {
+            createInventories();
+        } else if (inventoryTaskScheduled.compareAndSet(false, true)) {
+            Slimefun.runSync(() -> {
+                inventoryTaskScheduled.set(false);
+                createInventories();
+            });
+        }
+    }
+
+    /**
+     * This makes sure that the data of the chunk at the given {@link Location} is held in memory.
+     * This does nothing unless lazy chunk loading is enabled.
+     * 
+     * @param l
+     *            The {@link Location} that is about to be accessed
+     */
+    private void ensureLoaded(@Nonnull Location l) {
+        // Nested calls while loading or evicting a chunk must not load any other chunks
+        if (!lazyLoading || Thread.holdsLock(chunkLock)) {
+            return;
+        }
+
+        long key = getChunkKey(l);
+
+        if (!residentChunks.contains(key)) {
+            loadChunk(key);
+        }
+    }
+
+    /**
+     * This is called whenever a {@link Chunk} of this {@link World} was loaded.
+     * 
+     * @param chunk
+     *            The {@link Chunk} that was loaded
+     */
+    public void onChunkLoad(@Nonnull Chunk chunk) {
+        if (lazyLoading) {
+            long key = getChunkKey(chunk.getX(), chunk.getZ());
+
+            if (!recordChunkEvent(key, true)) {
+                applyChunkLoad(key);
+            }
+        }
+    }
+
+    private void applyChunkLoad(long key) {
+        pendingEviction.remove(key);
+        retainedChunks.remove(key);
+        ensureLoaded(new Location(world, (int) (key >> 32) << 4, 0, (int) key << 4));
+    }
+
+    /**
+     * This is called whenever a {@link Chunk} of this {@link World} was unloaded.
+     * The data of this {@link Chunk} will be saved and evicted from memory on the next save.
+     * 
+     * @param chunk
+     *            The {@link Chunk} that was unloaded
+     */
+    public void onChunkUnload(@Nonnull Chunk chunk) {
+        if (lazyLoading) {
+            long key = getChunkKey(chunk.getX(), chunk.getZ());
+
+            if (!recordChunkEvent(key, false) && residentChunks.contains(key)) {
+                pendingEviction.add(key);
+            }
+        }
+    }
+
+    /**
+     * While this {@link BlockStorage} is still being loaded, chunk events are only recorded
+     * and then applied in {@link #publish()}, so that they never have to wait for our data.
+     * 
+     * @param key
+     *            The key of the chunk
+     * @param loaded
+     *            Whether the chunk was loaded or unloaded
+     * 
+     * @return Whether the event was recorded
+     */
+    private synchronized boolean recordChunkEvent(long key, boolean loaded) {
+        if (published.isDone()) {
+            return false;
+        }
+
+        // Only the latest event of every chunk matters
+        pendingChunkEvents.put(key, loaded);
+        return true;
+    }
+
+    /**
+     * This returns whether this {@link BlockStorage} only holds the data of loaded chunks.
+     * 
+     * @return Whether lazy chunk loading is enabled for this {@link World}
+     */
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    private void evictUnloadedChunks() {
+        pendingEviction.addAll(retainedChunks);
+        retainedChunks.clear();
+
+        for (Long key : new ArrayList<>(pendingEviction)) {
+            if (isReachedByNetwork(key)) {
+                pendingEviction.remove(key);
+                retainedChunks.add(key);
+                continue;
+            }
+
+            synchronized (chunkLock) {
+                if (pendingEviction.remove(key) && !evictChunk(key)) {
+                    pendingEviction.add(key);
+                }
+            }
+        }
+    }
+
+    private boolean isReachedByNetwork(long key) {
+        for (Location l : chunkIndex.getOrDefault(key, Collections.emptySet())) {
+            if (!Slimefun.getNetworkManager().getNetworksFromLocation(l, Network.class).isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This writes the given chunk and removes its blocks, inventories and tickers from memory.
+     * The caller must hold {@link #chunkLock}.
+     * 
+     * @param key
+     *            The key of the chunk
+     * 
+     * @return Whether the chunk was evicted
+     */
+    private boolean evictChunk(long key) {
+        Set<Location> locations = chunkIndex.getOrDefault(key, Collections.emptySet());
+
+        for (Location l : locations) {
+            BlockMenu menu = inventories.get(l);
+
+            if (menu != null && menu.hasViewer()) {
+                // Someone is still looking at this inventory, we will try again later
+                return false;
+            }
+        }
+
+        // Running machines write their progress into the block data before it is journaled
+        MachineProcessor.unloadOperations(locations);
+
+        // Any changes to this chunk must be journaled before we let go of them
+        for (Location l : dirtyBlocks) {
+            if (getChunkKey(l) == key && dirtyBlocks.remove(l) && !journalBlock(l)) {
+                dirtyBlocks.add(l);
+                return false;
+            }
+        }
+
+        for (Location l : new ArrayList<>(locations)) {
+            BlockMenu menu = inventories.remove(l);
+
+            if (menu != null) {
+                menu.save(l);
+            }
+
+            // This inventory was never created, its file has not changed either
+            parsedInventories.remove(l);
+
+            storage.remove(l);
+            Slimefun.getTickerTask().disableTicker(l);
+        }
+
+        chunkIndex.remove(key);
+        residentChunks.remove(key);
+        evictions++;
+        return true;
     }
 
     private void loadBlocks(File directory) {
-        long total = directory.listFiles().length;
+        File[] files = directory.listFiles();
+        long total = files.length;
         long start = System.currentTimeMillis();
-        long done = 0;
-        long timestamp = System.currentTimeMillis();
+        AtomicLong done = new AtomicLong();
+        AtomicLong timestamp = new AtomicLong(start);
         long totalBlocks = 0;
         int delay = Slimefun.getCfg().getInt("URID.info-delay");
 
         try {
-            for (File file : directory.listFiles()) {
-                if (file.getName().equals("null.sfb")) {
-                    Slimefun.logger().log(Level.WARNING, "File with corrupted blocks detected!");
-                    Slimefun.logger().log(Level.WARNING, "Slimefun will simply skip this File, you should look inside though!");
-                    Slimefun.logger().log(Level.WARNING, file.getPath());
-                } else if (file.getName().endsWith(".sfb")) {
-                    if (timestamp + delay < System.currentTimeMillis()) {
-                        int progress = Math.round((((done * 100.0F) / total) * 100.0F) / 100.0F);
-                        Slimefun.logger().log(Level.INFO, "Loading Blocks... {0}% done (\"{1}\")", new Object[] { progress, world.getName() });
-                        timestamp = System.currentTimeMillis();
-                    }
+            // Parsing is what takes the longest, so we parse all files in parallel
+            List<Map<Location, Config>> parsedFiles = Arrays.stream(files).parallel().map(file -> {
+                Map<Location, Config> blocks = parseBlocks(file);
+                long progress = done.incrementAndGet();
+                long lastUpdate = timestamp.get();
+
+                if (lastUpdate + delay < System.currentTimeMillis() && timestamp.compareAndSet(lastUpdate, System.currentTimeMillis())) {
+                    int percentage = Math.round((((progress * 100.0F) / total) * 100.0F) / 100.0F);
+                    Slimefun.logger().log(Level.INFO, "Loading Blocks... {0}% done (\"{1}\")", new Object[] { percentage, world.getName() });
+                }
 
-                    FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+                return blocks;
+            }).collect(Collectors.toList());
 
-                    for (String key : cfg.getKeys(false)) {
-                        loadBlock(file, cfg, key);
-                        totalBlocks++;
-                    }
+            // The blocks are then added in the order of their files, like before
+            for (int i = 0; i < files.length; i++) {
+                String id = files[i].getName().replace(".sfb", "");
 
-                    done++;
+                for (Map.Entry<Location, Config> entry : parsedFiles.get(i).entrySet()) {
+                    loadBlock(entry.getKey(), entry.getValue(), id);
+                    totalBlocks++;
                 }
             }
         } finally {
@@ -181,40 +864,134 @@ public class BlockStorage {
         }
     }
 
-    private void loadBlock(File file, FileConfiguration cfg, String key) {
-        Location l = deserializeLocation(key);
+    @Nonnull
+    private Map<Location, Config> parseBlocks(@Nonnull File file) {
+        Map<Location, Config> blocks = new LinkedHashMap<>();
+
+        if (file.getName().equals("null.sfb")) {
+            Slimefun.logger().log(Level.WARNING, "File with corrupted blocks detected!");
+            Slimefun.logger().log(Level.WARNING, "Slimefun will simply skip this File, you should look inside though!");
+            Slimefun.logger().log(Level.WARNING, file.getPath());
+        } else if (file.getName().endsWith(".sfb")) {
+            FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+
+            for (String key : cfg.getKeys(false)) {
+                Location l = deserializeLocation(key);
+
+                if (l == null) {
+                    // That location was malformed, we will skip this one
+                    continue;
+                }
+
+                try {
+                    String json = cfg.getString(key);
+                    Config blockInfo = parseBlockInfo(l, json);
+
+                    if (blockInfo != null && blockInfo.contains("id")) {
+                        blocks.put(l, blockInfo);
+                    }
+                } catch (Exception x) {
+                    Slimefun.logger().log(Level.WARNING, x, () -> "Failed to load " + file.getName() + '(' + key + ") for Slimefun " + Slimefun.getVersion());
+                }
+            }
+        }
+
+        return blocks;
+    }
+
+    private void indexBlock(Location l) {
+        chunkIndex.computeIfAbsent(getChunkKey(l), key -> ConcurrentHashMap.newKeySet()).add(l);
+    }
+
+    private void unindexBlock(Location l) {
+        Set<Location> locations = chunkIndex.get(getChunkKey(l));
+
+        if (locations != null) {
+            locations.remove(l);
+        }
+    }
+
+    private void loadBlock(Location l, Config blockInfo, String id) {
+        if (storage.putIfAbsent(l, blockInfo) != null) {
+            /*
+             * It should not be possible to have two blocks on the same location.
+             * Ignore the new entry if a block is already present and print an
+             * error to the console (if enabled).
+             */
+            if (Slimefun.getRegistry().logDuplicateBlockEntries()) {
+                Slimefun.logger().log(Level.INFO, "Ignoring duplicate block @ {0}, {1}, {2} ({3} -> {4})", new Object[] { l.getBlockX(), l.getBlockY(), l.getBlockZ(), blockInfo.getString("id"), storage.get(l).getString("id") });
+            }
 
-        if (l == null) {
-            // That location was malformed, we will skip this one
             return;
         }
 
+        indexBlock(l);
+
+        // While loading asynchronously, all tickers are enabled at once when we are done
+        if (!loading && Slimefun.getRegistry().getTickerBlocks().contains(id)) {
+            Slimefun.getTickerTask().enableTicker(l);
+        }
+    }
+
+    private void loadRegions() {
+        long start = System.currentTimeMillis();
+
         try {
-            String json = cfg.getString(key);
-            Config blockInfo = parseBlockInfo(l, json);
-
-            if (blockInfo != null && blockInfo.contains("id")) {
-                if (storage.putIfAbsent(l, blockInfo) != null) {
-                    /*
-                     * It should not be possible to have two blocks on the same location.
-                     * Ignore the new entry if a block is already present and print an
-                     * error to the console (if enabled).
-                     */
-                    if (Slimefun.getRegistry().logDuplicateBlockEntries()) {
-                        Slimefun.logger().log(Level.INFO, "Ignoring duplicate block @ {0}, {1}, {2} ({3} -> {4})", new Object[] { l.getBlockX(), l.getBlockY(), l.getBlockZ(), blockInfo.getString("id"), storage.get(l).getString("id") });
-                    }
+            int totalBlocks = regionStorage.readAll((x, y, z, data) -> {
+                String id = data.get("id");
 
-                    return;
+                if (id != null) {
+                    loadBlock(new Location(world, x, y, z), new BlockInfoConfig(data), id);
                 }
+            });
 
-                String fileName = file.getName().replace(".sfb", "");
+            long time = (System.currentTimeMillis() - start);
+            Slimefun.logger().log(Level.INFO, "Loaded a total of {0} Blocks for World \"{1}\" in {2}ms", new Object[] { totalBlocks, world.getName(), time });
+        } catch (IOException x) {
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading the region files of World \"" + world.getName() + "\" for Slimefun " + Slimefun.getVersion());
+        }
+    }
 
-                if (Slimefun.getRegistry().getTickerBlocks().contains(fileName)) {
-                    Slimefun.getTickerTask().enableTicker(l);
-                }
-            }
-        } catch (Exception x) {
-            Slimefun.logger().log(Level.WARNING, x, () -> "Failed to load " + file.getName() + '(' + key + ") for Slimefun " + Slimefun.getVersion());
+    /**
+     * This loads the legacy block files (one file per item id) from the given directory
+     * and writes them into our region files.
+     * Once every chunk has been written, the legacy directory is renamed so that
+     * the migration only ever happens once.
+     * 
+     * @param directory
+     *            The legacy directory of this world
+     */
+    private void migrateLegacyBlocks(File directory) {
+        Slimefun.logger().log(Level.INFO, "Migrating the block data of World \"{0}\" to region files...", world.getName());
+
+        // Any region files that may already exist are loaded first, legacy data only fills the gaps
+        loadRegions();
+        loadBlocks(directory);
+
+        dirtyBlocks.addAll(storage.keySet());
+        saveRegions();
+
+        try {
+            regionStorage.compact();
+
+            // The legacy data may only be retired once the region files are safely on the disk
+            regionStorage.sync();
+        } catch (IOException x) {
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while compacting the region files of World \"" + world.getName() + "\", the legacy block data will be kept!");
+            return;
+        }
+
+        if (!dirtyBlocks.isEmpty()) {
+            Slimefun.logger().log(Level.SEVERE, "Could not migrate {0} Blocks of World \"{1}\", the legacy block data will be kept!", new Object[] { dirtyBlocks.size(), world.getName() });
+            return;
+        }
+
+        File backup = new File(PATH_BLOCKS + world.getName() + ".migrated");
+
+        if (directory.renameTo(backup)) {
+            Slimefun.logger().log(Level.INFO, "Migrated {0} Blocks, the legacy block data was moved to \"{1}\"", new Object[] { storage.size(), backup.getPath() });
+        } else {
+            Slimefun.logger().log(Level.WARNING, "Could not move the legacy block data of World \"{0}\", it will be migrated again on the next start!", world.getName());
         }
     }
 
@@ -237,57 +1014,101 @@ public class BlockStorage {
         }
     }
 
+    /**
+     * This reads the inventory files of this {@link World}, the files are parsed in parallel.
+     * The actual {@link BlockMenu BlockMenus} are only created on the main thread, see {@link #createInventories()}.
+     */
     private void loadInventories() {
-        for (File file : new File("data-storage/Slimefun/stored-inventories").listFiles()) {
-            if (file.getName().startsWith(world.getName()) && file.getName().endsWith(".sfi")) {
+        // Block inventories are loaded together with their chunk
+        File[] blockInventories = lazyLoading ? new File[0] : new File("data-storage/Slimefun/stored-inventories").listFiles();
+
+        Arrays.stream(blockInventories).parallel().filter(file -> file.getName().startsWith(world.getName()) && file.getName().endsWith(".sfi")).forEach(this::loadInventory);
+
+        if (!universalInventoriesLoaded.compareAndSet(false, true)) {
+            return;
+        }
+
+        for (File file : new File("data-storage/Slimefun/universal-inventories").listFiles()) {
+            if (file.getName().endsWith(".sfi")) {
                 try {
-                    Location l = deserializeLocation(file.getName().replace(".sfi", ""));
+                    parsedUniversalInventories.put(file.getName(), new io.github.bakedlibs.dough.config.Config(file));
+                } catch (Exception x) {
+                    Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this universal Inventory: " + file.getName());
+                }
+            }
+        }
+    }
 
-                    // We only want to only load this world's menus
-                    if (world != l.getWorld()) {
-                        continue;
-                    }
+    private void loadInventory(@Nonnull File file) {
+        try {
+            Location l = deserializeLocation(file.getName().replace(".sfi", ""));
+
+            // We only want to only load this world's menus
+            if (world != l.getWorld()) {
+                return;
+            }
+
+            parsedInventories.put(l, new io.github.bakedlibs.dough.config.Config(file));
+        } catch (Exception x) {
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+        }
+    }
 
-                    io.github.bakedlibs.dough.config.Config cfg = new io.github.bakedlibs.dough.config.Config(file);
+    /**
+     * This creates the {@link BlockMenu BlockMenus} for all inventories that were read by {@link #loadInventories()}.
+     * Creating a {@link BlockMenu} creates an {@link org.bukkit.inventory.Inventory}, so this must be called on the main thread.
+     */
+    private void createInventories() {
+        // Chunks may be evicted at the same time, so we must not create a menu for a block that was just evicted
+        synchronized (chunkLock) {
+            Iterator<Map.Entry<Location, io.github.bakedlibs.dough.config.Config>> iterator = parsedInventories.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<Location, io.github.bakedlibs.dough.config.Config> entry = iterator.next();
+                Location l = entry.getKey();
+                io.github.bakedlibs.dough.config.Config cfg = entry.getValue();
+                iterator.remove();
+
+                if (inventories.containsKey(l)) {
+                    continue;
+                }
+
+                try {
                     BlockMenuPreset preset = BlockMenuPreset.getPreset(cfg.getString("preset"));
 
                     if (preset == null) {
-                        preset = BlockMenuPreset.getPreset(checkID(l));
+                        Config blockInfo = storage.get(l);
+                        preset = BlockMenuPreset.getPreset(blockInfo == null ? null : blockInfo.getString("id"));
                     }
 
                     if (preset != null) {
                         inventories.put(l, new BlockMenu(preset, l, cfg));
                     }
                 } catch (Exception x) {
-                    Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+                    Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + serializeLocation(l) + ".sfi");
                 }
             }
         }
 
-        if (universalInventoriesLoaded) {
-            return;
-        }
-
-        universalInventoriesLoaded = true;
+        for (Map.Entry<String, io.github.bakedlibs.dough.config.Config> entry : parsedUniversalInventories.entrySet()) {
+            io.github.bakedlibs.dough.config.Config cfg = entry.getValue();
 
-        for (File file : new File("data-storage/Slimefun/universal-inventories").listFiles()) {
-            if (file.getName().endsWith(".sfi")) {
-                try {
-                    io.github.bakedlibs.dough.config.Config cfg = new io.github.bakedlibs.dough.config.Config(file);
-                    BlockMenuPreset preset = BlockMenuPreset.getPreset(cfg.getString("preset"));
+            try {
+                BlockMenuPreset preset = BlockMenuPreset.getPreset(cfg.getString("preset"));
 
-                    if (preset != null) {
-                        Slimefun.getRegistry().getUniversalInventories().put(preset.getID(), new UniversalBlockMenu(preset, cfg));
-                    }
-                } catch (Exception x) {
-                    Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this universal Inventory: " + file.getName());
+                if (preset != null) {
+                    Slimefun.getRegistry().getUniversalInventories().put(preset.getID(), new UniversalBlockMenu(preset, cfg));
                 }
+            } catch (Exception x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while loading this universal Inventory: " + entry.getKey());
             }
         }
+
+        parsedUniversalInventories.clear();
     }
 
     public void computeChanges() {
-        changes = blocksCache.size();
+        changes = blocksCache.size() + dirtyBlocks.size() + pendingEviction.size();
 
         Map<Location, BlockMenu> inventories2 = new HashMap<>(inventories);
         for (Map.Entry<Location, BlockMenu> entry : inventories2.entrySet()) {
@@ -312,11 +1133,18 @@ public class BlockStorage {
         }
 
         Slimefun.logger().log(Level.INFO, "Saving block data for world \"{0}\" ({1} change(s) queued)", new Object[] { world.getName(), changes });
-        Map<String, Config> cache = new HashMap<>(blocksCache);
+        Map<String, Set<Location>> cache = new HashMap<>(blocksCache);
 
-        for (Map.Entry<String, Config> entry : cache.entrySet()) {
+        for (Map.Entry<String, Set<Location>> entry : cache.entrySet()) {
             blocksCache.remove(entry.getKey());
-            Config cfg = entry.getValue();
+            Config cfg = new Config(PATH_BLOCKS + world.getName() + '/' + entry.getKey() + ".sfb");
+
+            for (Location l : entry.getValue()) {
+                // The block may have been removed or replaced by a different item since it was marked
+                Config blockInfo = storage.get(l);
+                boolean present = blockInfo != null && entry.getKey().equals(blockInfo.getString("id"));
+                cfg.setValue(serializeLocation(l), present ? serializeBlockInfo(blockInfo) : null);
+            }
 
             if (cfg.getKeys().isEmpty()) {
                 File file = cfg.getFile();
@@ -340,6 +1168,22 @@ public class BlockStorage {
             }
         }
 
+        if (regionStorage != null) {
+            saveRegions();
+        }
+
+        if (lazyLoading) {
+            evictUnloadedChunks();
+        }
+
+        if (regionStorage != null) {
+            try {
+                regionStorage.flush();
+            } catch (IOException x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while writing the block journal of World \"" + world.getName() + '"');
+            }
+        }
+
         Map<Location, BlockMenu> unsavedInventories = new HashMap<>(inventories);
         for (Map.Entry<Location, BlockMenu> entry : unsavedInventories.entrySet()) {
             entry.getValue().save(entry.getKey());
@@ -353,10 +1197,93 @@ public class BlockStorage {
         changes = 0;
     }
 
+    /**
+     * This appends every block that has changed since the last save to our journal.
+     * Blocks which could not be written will stay dirty.
+     * The journal is folded into the region files by {@link #compactRegions()}.
+     */
+    private void saveRegions() {
+        synchronized (chunkLock) {
+            for (Location l : new ArrayList<>(dirtyBlocks)) {
+                if (dirtyBlocks.remove(l) && !journalBlock(l)) {
+                    dirtyBlocks.add(l);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * This appends the current data of the given {@link Location} to our journal.
+     * The caller must hold {@link #chunkLock}.
+     * 
+     * @param l
+     *            The {@link Location} of the block
+     * 
+     * @return Whether the block was written successfully
+     */
+    private boolean journalBlock(Location l) {
+        if (unreadableChunks.contains(getChunkKey(l))) {
+            Slimefun.logger().log(Level.WARNING, "Not saving the Block @ {0}, {1}, {2} of World \"{3}\" since its chunk could not be loaded", new Object[] { l.getBlockX(), l.getBlockY(), l.getBlockZ(), world.getName() });
+            return true;
+        }
+
+        Config cfg = storage.get(l);
+
+        try {
+            regionStorage.writeBlock(l.getBlockX(), l.getBlockY(), l.getBlockZ(), cfg == null ? null : toMap(cfg));
+            return true;
+        } catch (IOException x) {
+            Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while saving the Block @ " + l.getBlockX() + ", " + l.getBlockY() + ", " + l.getBlockZ() + " of World \"" + world.getName() + "\" for Slimefun " + Slimefun.getVersion());
+            return false;
+        }
+    }
+
+    /**
+     * This folds our block journal into the region files once it has grown large enough.
+     * This is meant to be called from an asynchronous task after {@link #save()}.
+     */
+    public void compactRegions() {
+        if (regionStorage != null && regionStorage.needsCompaction()) {
+            long start = System.currentTimeMillis();
+
+            try {
+                regionStorage.compact();
+                Slimefun.logger().log(Level.INFO, "Compacted the block journal of World \"{0}\" in {1}ms", new Object[] { world.getName(), System.currentTimeMillis() - start });
+            } catch (IOException x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while compacting the region files of World \"" + world.getName() + '"');
+            }
+        }
+    }
+
+    @Nonnull
+    private static Map<String, String> toMap(@Nonnull Config cfg) {
+        if (cfg instanceof BlockInfoConfig blockInfo) {
+            return blockInfo.toMap();
+        }
+
+        Map<String, String> map = new HashMap<>();
+
+        for (String key : cfg.getKeys()) {
+            map.put(key, cfg.getString(key));
+        }
+
+        return map;
+    }
+
     public void saveAndRemove() {
         save();
         saveChunks();
         isMarkedForRemoval.set(true);
+
+        if (regionStorage != null) {
+            try {
+                regionStorage.compact();
+                regionStorage.close();
+            } catch (IOException x) {
+                Slimefun.logger().log(Level.SEVERE, x, () -> "An Error occurred while closing the region files of World \"" + world.getName() + '"');
+            }
+        }
     }
 
     public boolean isMarkedForRemoval() {
@@ -454,6 +1381,7 @@ public class BlockStorage {
             return emptyBlockData;
         }
 
+        storage.ensureLoaded(l);
         Config cfg = storage.storage.get(l);
         return cfg == null ? emptyBlockData : cfg;
     }
@@ -497,8 +1425,9 @@ public class BlockStorage {
             writer.setLenient(true);
             writer.beginObject();
 
-            for (String key : cfg.getKeys()) {
-                writer.name(key).value(cfg.getString(key));
+            // We take a snapshot, the data may be modified by a ticker while we are saving
+            for (Map.Entry<String, String> entry : toMap(cfg).entrySet()) {
+                writer.name(entry.getKey()).value(entry.getValue());
             }
 
             writer.endObject();
@@ -530,12 +1459,92 @@ public class BlockStorage {
 
         if (cfg == emptyBlockData) {
             cfg = new BlockInfoConfig();
+        } else if ("id".equals(key)) {
+            // The existing data is changing its id, the ticker needs to pick that up
+            Slimefun.getTickerTask().invalidateTicker(l);
         }
 
         cfg.setValue(key, value);
         setBlockInfo(l, cfg, updateTicker);
     }
 
+    /**
+     * This returns the int value stored under the given key at this {@link Location}.
+     * Unlike {@link #getLocationInfo(Location, String)}, this does not parse the value every time.
+     * 
+     * @param l
+     *            The {@link Location} of the block
+     * @param key
+     *            The key of the value
+     * @param defaultValue
+     *            The value to return if there is no valid number stored
+     * 
+     * @return The stored int value
+     */
+    public static int getIntBlockInfo(@Nonnull Location l, @Nonnull String key, int defaultValue) {
+        return (int) getLongBlockInfo(l, key, defaultValue);
+    }
+
+    public static long getLongBlockInfo(@Nonnull Location l, @Nonnull String key, long defaultValue) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg instanceof BlockInfoConfig blockInfo) {
+            return blockInfo.getLong(key, defaultValue);
+        }
+
+        String value = cfg.getString(key);
+        return value != null && CommonPatterns.NUMERIC.matcher(value).matches() ? Long.parseLong(value) : defaultValue;
+    }
+
+    public static boolean getBooleanBlockInfo(@Nonnull Location l, @Nonnull String key, boolean defaultValue) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg instanceof BlockInfoConfig blockInfo) {
+            return blockInfo.getBoolean(key, defaultValue);
+        }
+
+        String value = cfg.getString(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * This stores an int value under the given key at this {@link Location}.
+     * If the block already has data, the value is written into a typed slot and
+     * the block is only marked as changed, nothing is serialized until we save.
+     * 
+     * @param l
+     *            The {@link Location} of the block
+     * @param key
+     *            The key of the value
+     * @param value
+     *            The value to store
+     */
+    public static void setIntBlockInfo(@Nonnull Location l, @Nonnull String key, int value) {
+        setLongBlockInfo(l, key, value);
+    }
+
+    public static void setLongBlockInfo(@Nonnull Location l, @Nonnull String key, long value) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg != emptyBlockData && cfg instanceof BlockInfoConfig blockInfo) {
+            blockInfo.setLong(key, value);
+            refreshCache(getStorage(l.getWorld()), l, blockInfo.getString("id"), blockInfo, false);
+        } else {
+            addBlockInfo(l, key, String.valueOf(value));
+        }
+    }
+
+    public static void setBooleanBlockInfo(@Nonnull Location l, @Nonnull String key, boolean value) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg != emptyBlockData && cfg instanceof BlockInfoConfig blockInfo) {
+            blockInfo.setBoolean(key, value);
+            refreshCache(getStorage(l.getWorld()), l, blockInfo.getString("id"), blockInfo, false);
+        } else {
+            addBlockInfo(l, key, String.valueOf(value));
+        }
+    }
+
     public static boolean hasBlockInfo(Block block) {
         return hasBlockInfo(block.getLocation());
     }
@@ -544,6 +1553,7 @@ public class BlockStorage {
         BlockStorage storage = getStorage(l.getWorld());
 
         if (storage != null) {
+            storage.ensureLoaded(l);
             Config cfg = storage.storage.get(l);
             return cfg != null && cfg.getString("id") != null;
         } else {
@@ -559,7 +1569,15 @@ public class BlockStorage {
             return;
         }
 
-        storage.storage.put(l, cfg);
+        storage.ensureLoaded(l);
+        Config previous = storage.storage.put(l, cfg);
+
+        if (previous == null) {
+            storage.indexBlock(l);
+        } else if (previous != cfg) {
+            Slimefun.getTickerTask().invalidateTicker(l);
+        }
+
         String id = cfg.getString("id");
         BlockMenuPreset preset = BlockMenuPreset.getPreset(id);
 
@@ -578,7 +1596,7 @@ public class BlockStorage {
             }
         }
 
-        refreshCache(storage, l, id, serializeBlockInfo(cfg), updateTicker);
+        refreshCache(storage, l, id, cfg, updateTicker);
     }
 
     public static void setBlockInfo(Block b, String json, boolean updateTicker) {
@@ -620,13 +1638,13 @@ public class BlockStorage {
         if (blockStorage == null) {
             return;
         }
+        blockStorage.ensureLoaded(new Location(world, chunkX << 4, 0, chunkZ << 4));
         Map<Location, Boolean> toClear = new HashMap<>();
-        // Unsafe: get raw storage for this world
-        for (Location location : blockStorage.storage.keySet()) {
-            if (location.getBlockX() >> 4 == chunkX && location.getBlockZ() >> 4 == chunkZ) {
-                toClear.put(location, destroy);
-            }
+
+        for (Location location : blockStorage.chunkIndex.getOrDefault(getChunkKey(chunkX, chunkZ), Collections.emptySet())) {
+            toClear.put(location, destroy);
         }
+
         Slimefun.getTickerTask().queueDelete(toClear);
     }
 
@@ -649,6 +1667,9 @@ public class BlockStorage {
         if (hasBlockInfo(l)) {
             refreshCache(storage, l, getLocationInfo(l).getString("id"), null, destroy);
             storage.storage.remove(l);
+            storage.unindexBlock(l);
+            Slimefun.getTickerTask().invalidateTicker(l);
+            MachineProcessor.forgetOperations(l);
         }
 
         if (destroy) {
@@ -700,11 +1721,12 @@ public class BlockStorage {
 
         refreshCache(storage, from, previousData.getString("id"), null, true);
         storage.storage.remove(from);
+        storage.unindexBlock(from);
 
         Slimefun.getTickerTask().disableTicker(from);
     }
 
-    private static void refreshCache(BlockStorage storage, Location l, String key, String value, boolean updateTicker) {
+    private static void refreshCache(BlockStorage storage, Location l, String key, @Nullable Config value, boolean updateTicker) {
         if (key == null) {
             /**
              * This Block is no longer valid...
@@ -713,8 +1735,13 @@ public class BlockStorage {
             return;
         }
 
-        Config cfg = storage.blocksCache.computeIfAbsent(key, k -> new Config(PATH_BLOCKS + l.getWorld().getName() + '/' + key + ".sfb"));
-        cfg.setValue(serializeLocation(l), value);
+        if (storage.regionStorage != null) {
+            // Only the blocks that actually changed will be appended to our journal
+            storage.dirtyBlocks.add(l);
+        } else {
+            // The block will only be serialized once we save
+            storage.blocksCache.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(l);
+        }
 
         if (updateTicker) {
             SlimefunItem item = SlimefunItem.getById(key);
@@ -850,6 +1877,7 @@ public class BlockStorage {
         if (storage == null) {
             return false;
         } else {
+            storage.ensureLoaded(b.getLocation());
             return storage.hasInventory(b.getLocation());
         }
     }
@@ -861,6 +1889,7 @@ public class BlockStorage {
             return null;
         }
 
+        storage.ensureLoaded(l);
         BlockMenu menu = storage.inventories.get(l);
 
         if (menu != null) {
@@ -872,7 +1901,7 @@ public class BlockStorage {
 
     public static Config getChunkInfo(World world, int x, int z) {
         try {
-            if (!isWorldLoaded(world)) {
+            if (getStorage(world) == null) {
                 return emptyBlockData;
             }
 
@@ -930,4 +1959,16 @@ public class BlockStorage {
         String id = checkID(l);
         return id != null && hasUniversalInventory(id);
     }
+
+    /**
+     * The blocks and parsed inventories of a chunk that was read from our region files.
+     */
+    private static final class LoadedChunk {
+
+        private final Map<Location, BlockInfoConfig> blocks = new HashMap<>();
+        private final Map<Location, io.github.bakedlibs.dough.config.Config> inventories = new HashMap<>();
+        private boolean unreadable = false;
+
+    }
+
 }
@@ -21,6 +21,16 @@ class EmptyBlockData extends BlockInfoConfig {
         throw new UnsupportedOperationException("Cannot store values (" + path + ':' + value + " on a read-only data object!");
     }
 
+    @Override
+    public void setLong(String path, long value) {
+        throw new UnsupportedOperationException("Cannot store values (" + path + ':' + value + " on a read-only data object!");
+    }
+
+    @Override
+    public void setBoolean(String path, boolean value) {
+        throw new UnsupportedOperationException("Cannot store values (" + path + ':' + value + " on a read-only data object!");
+    }
+
     @Override
     public String getString(String path) {
         return null;
@@ -11,11 +11,13 @@ import org.bukkit.inventory.ItemStack;
 
 import io.github.bakedlibs.dough.config.Config;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.tasks.TickerTask;
 
 // This class will be deprecated, relocated and rewritten in a future version.
 public class BlockMenu extends DirtyChestMenu {
 
     private Location location;
+    private volatile boolean tickerSuspended;
 
     private static String serializeLocation(Location l) {
         return l.getWorld().getName() + ';' + l.getBlockX() + ';' + l.getBlockY() + ';' + l.getBlockZ();
@@ -83,6 +85,37 @@ public class BlockMenu extends DirtyChestMenu {
         this.preset.clone(this);
     }
 
+    @Override
+    public void markDirty() {
+        super.markDirty();
+
+        if (tickerSuspended) {
+            tickerSuspended = false;
+            Slimefun.getTickerTask().wakeTicker(location);
+        }
+    }
+
+    /**
+     * This suspends the ticker of this {@link BlockMenu}'s block until this {@link BlockMenu}
+     * is modified again, see {@link TickerTask#suspendTicker(Location)}.
+     * Only call this if your block has nothing to do until its inventory changes.
+     * 
+     * @param expectedChanges
+     *            The value of {@link #getUnsavedChanges()} at the time the inventory was inspected,
+     *            if any changes happened since then, the ticker will not stay suspended
+     */
+    public void suspendTicker(int expectedChanges) {
+        tickerSuspended = true;
+
+        if (!Slimefun.getTickerTask().suspendTicker(location)) {
+            tickerSuspended = false;
+        } else if (!tickerSuspended || changes != expectedChanges) {
+            // We were modified while suspending
+            tickerSuspended = false;
+            Slimefun.getTickerTask().wakeTicker(location);
+        }
+    }
+
     public Block getBlock() {
         return location.getBlock();
     }
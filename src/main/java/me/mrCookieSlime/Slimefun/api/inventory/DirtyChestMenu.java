@@ -130,6 +130,7 @@ public class DirtyChestMenu extends ChestMenu {
                         amount -= (maxStackSize - stack.getAmount());
                         stack.setAmount(Math.min(stack.getAmount() + item.getAmount(), maxStackSize));
                         item.setAmount(amount);
+                        markDirty();
                     }
                 }
             }
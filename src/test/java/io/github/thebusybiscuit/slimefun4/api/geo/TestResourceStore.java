@@ -0,0 +1,75 @@
+package io.github.thebusybiscuit.slimefun4.api.geo;
+
+import java.io.File;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+
+class TestResourceStore {
+
+    private static ServerMock server;
+    private static Slimefun plugin;
+
+    @BeforeAll
+    public static void load() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(Slimefun.class);
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test getting and setting supplies")
+    void testSupplies(@TempDir File directory) {
+        World world = server.addSimpleWorld("resource_store_test");
+        ResourceStore store = new ResourceStore(directory);
+        int oil = store.getIndex(new NamespacedKey(plugin, "oil"));
+        int salt = store.getIndex(new NamespacedKey(plugin, "salt"));
+
+        Assertions.assertFalse(store.hasChunk(world, 3, -7));
+        Assertions.assertEquals(ResourceStore.NOT_GENERATED, store.get(world, 3, -7, oil));
+
+        store.set(world, 3, -7, salt, 12);
+        Assertions.assertTrue(store.hasChunk(world, 3, -7));
+        Assertions.assertEquals(12, store.get(world, 3, -7, salt));
+        Assertions.assertEquals(ResourceStore.NOT_GENERATED, store.get(world, 3, -7, oil));
+        Assertions.assertFalse(store.hasChunk(world, -7, 3));
+    }
+
+    @Test
+    @DisplayName("Test saving and loading supplies")
+    void testPersistence(@TempDir File directory) {
+        World world = server.addSimpleWorld("resource_store_persistence_test");
+        NamespacedKey oil = new NamespacedKey(plugin, "oil");
+        NamespacedKey salt = new NamespacedKey(plugin, "salt");
+
+        ResourceStore store = new ResourceStore(directory);
+        store.set(world, 40, -100, store.getIndex(oil), 0);
+        store.set(world, 40, -100, store.getIndex(salt), 25);
+        store.set(world, -1, 1, store.getIndex(oil), 8);
+        store.close();
+
+        // Resources may be registered in a different order after a restart
+        ResourceStore restored = new ResourceStore(directory);
+        Assertions.assertEquals(25, restored.get(world, 40, -100, restored.getIndex(salt)));
+        Assertions.assertEquals(0, restored.get(world, 40, -100, restored.getIndex(oil)));
+        Assertions.assertEquals(8, restored.get(world, -1, 1, restored.getIndex(oil)));
+        Assertions.assertEquals(ResourceStore.NOT_GENERATED, restored.get(world, -1, 1, restored.getIndex(salt)));
+        restored.close();
+    }
+
+}
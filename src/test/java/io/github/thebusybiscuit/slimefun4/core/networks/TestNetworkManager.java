@@ -139,6 +139,28 @@ class TestNetworkManager {
         Assertions.assertTrue(manager.getNetworksFromLocation(loc, MockNetwork.class).contains(network));
     }
 
+    @Test
+    @DisplayName("Test finding networks by discovered locations in other chunks")
+    void testIndexedLocations() {
+        NetworkManager manager = new NetworkManager(100);
+        World world = server.addSimpleWorld("Simple Network World");
+        Map<Location, NetworkComponent> map = new HashMap<>();
+
+        Location loc = new Location(world, 0, 100, 14);
+        Location loc2 = new Location(world, 0, 100, 17);
+        map.put(loc2, NetworkComponent.CONNECTOR);
+
+        Network network = new MockNetwork(manager, loc, 3, map);
+        manager.registerNetwork(network);
+        network.tick();
+
+        Assertions.assertTrue(manager.getNetworkFromLocation(loc2, MockNetwork.class).isPresent());
+
+        manager.unregisterNetwork(network);
+        Assertions.assertFalse(manager.getNetworkFromLocation(loc2, MockNetwork.class).isPresent());
+        Assertions.assertTrue(manager.getNetworksFromLocation(loc, MockNetwork.class).isEmpty());
+    }
+
     @Test
     @DisplayName("Test a single node network")
     void testSingleNodeNetwork() {
@@ -174,6 +196,35 @@ class TestNetworkManager {
         Assertions.assertEquals(3, network.getSize());
     }
 
+    @Test
+    @DisplayName("Test removing a connector only disconnects the nodes behind it")
+    void testRemoveConnector() {
+        NetworkManager manager = new NetworkManager(100);
+        World world = server.addSimpleWorld("Simple Network World");
+        Map<Location, NetworkComponent> map = new HashMap<>();
+
+        Location loc = new Location(world, 0, 100, 0);
+
+        Location loc2 = new Location(world, 0, 100, 2);
+        map.put(loc2, NetworkComponent.CONNECTOR);
+
+        Location loc3 = new Location(world, 2, 100, 2);
+        map.put(loc3, NetworkComponent.CONNECTOR);
+
+        Network network = new MockNetwork(manager, loc, 3, map);
+        manager.registerNetwork(network);
+        network.tick();
+        Assertions.assertEquals(3, network.getSize());
+
+        map.remove(loc2);
+        network.markDirty(loc2);
+        network.tick();
+
+        Assertions.assertEquals(1, network.getSize());
+        Assertions.assertTrue(manager.getNetworkList().contains(network));
+        Assertions.assertFalse(network.connectsTo(loc3));
+    }
+
     @Test
     @DisplayName("Test empty network list for null locations")
     void testNullLocations() {
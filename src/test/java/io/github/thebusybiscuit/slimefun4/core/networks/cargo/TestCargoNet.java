@@ -0,0 +1,79 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import java.util.Arrays;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoRoutingPlan.Node;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.test.TestUtilities;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+
+class TestCargoNet {
+
+    private static ServerMock server;
+
+    @BeforeAll
+    public static void load() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Slimefun.class);
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test that nodes cut off by a removed connector are no longer routed")
+    void testSplitNetwork() {
+        World world = TestUtilities.createWorld(server);
+
+        Location manager = new Location(world, 0, 100, 0);
+        Location connector = new Location(world, 0, 100, 5);
+        Location input = new Location(world, 0, 100, 10);
+        Location output = new Location(world, 0, 100, 3);
+
+        placeNode(manager, "CARGO_MANAGER");
+        placeNode(connector, "CARGO_NODE");
+        placeNode(input, "CARGO_NODE_INPUT");
+        placeNode(output, "CARGO_NODE_OUTPUT");
+
+        CargoNet network = new CargoNet(manager);
+        Slimefun.getNetworkManager().registerNetwork(network);
+        network.tick();
+
+        Assertions.assertTrue(isRouted(network.getRoutingPlan().getInputs(), input));
+        Assertions.assertTrue(isRouted(network.getRoutingPlan().getOutputs(0), output));
+
+        // Only the input node is behind this connector
+        BlockStorage.deleteLocationInfoUnsafely(connector, false);
+        network.markDirty(connector);
+        network.tick();
+
+        Assertions.assertFalse(network.connectsTo(input));
+        Assertions.assertFalse(isRouted(network.getRoutingPlan().getInputs(), input));
+        Assertions.assertTrue(isRouted(network.getRoutingPlan().getOutputs(0), output));
+
+        Slimefun.getNetworkManager().unregisterNetwork(network);
+    }
+
+    private void placeNode(Location l, String id) {
+        BlockStorage.addBlockInfo(l, "id", id);
+        BlockStorage.addBlockInfo(l, "frequency", "0");
+    }
+
+    private boolean isRouted(Node[] nodes, Location l) {
+        return Arrays.stream(nodes).anyMatch(node -> node.getLocation().equals(l));
+    }
+
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 
 import be.seeseemelk.mockbukkit.MockBukkit;
 
@@ -69,4 +70,35 @@ class TestItemDataService {
         Assertions.assertTrue(data2.isPresent());
         Assertions.assertEquals("Hello World", data2.get());
     }
+
+    @Test
+    @DisplayName("Test that item data is cached per ItemStackWrapper")
+    void testCachedItemData() {
+        CustomItemDataService service = new CustomItemDataService(plugin, "test");
+        ItemStack item = new ItemStack(Material.EMERALD);
+        service.setItemData(item, "Hello World");
+        ItemStack wrapper = ItemStackWrapper.wrap(item);
+
+        Assertions.assertEquals(Optional.of("Hello World"), service.getItemData(wrapper));
+        Assertions.assertEquals(Optional.of("Hello World"), service.getItemData(wrapper));
+        Assertions.assertEquals(1, service.getCacheHits());
+        Assertions.assertEquals(1, service.getCacheMisses());
+    }
+
+    @Test
+    @DisplayName("Test that replacing the ItemMeta of an ItemStack is never hidden by the cache")
+    void testReplacedItemMeta() {
+        CustomItemDataService service = new CustomItemDataService(plugin, "test");
+        ItemStack item = new ItemStack(Material.EMERALD);
+        ItemMeta meta = item.getItemMeta();
+        service.setItemData(meta, "Goodbye World");
+
+        service.setItemData(item, "Hello World");
+        Assertions.assertEquals(Optional.of("Hello World"), service.getItemData(item));
+
+        item.setItemMeta(meta);
+        Assertions.assertEquals(Optional.of("Goodbye World"), service.getItemData(item));
+        Assertions.assertEquals(0, service.getCacheHits());
+    }
+
 }
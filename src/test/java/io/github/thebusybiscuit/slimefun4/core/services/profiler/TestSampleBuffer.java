@@ -0,0 +1,25 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestSampleBuffer {
+
+    @Test
+    @DisplayName("Test that a SampleBuffer knows whether its Thread is alive")
+    void testOwnerAlive() throws InterruptedException {
+        Assertions.assertTrue(new SampleBuffer().isOwnerAlive());
+
+        AtomicReference<SampleBuffer> buffer = new AtomicReference<>();
+        Thread thread = new Thread(() -> buffer.set(new SampleBuffer()));
+        thread.start();
+        thread.join();
+
+        Assertions.assertNotNull(buffer.get());
+        Assertions.assertFalse(buffer.get().isOwnerAlive());
+    }
+
+}
@@ -0,0 +1,47 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TestTickHistogram {
+
+    @Test
+    @DisplayName("Test percentiles of a TickHistogram")
+    void testPercentiles() {
+        TickHistogram histogram = new TickHistogram();
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        Assertions.assertEquals(1000, histogram.getCount());
+        Assertions.assertEquals(1000000, histogram.getMax());
+
+        long median = histogram.getPercentile(0.5);
+        Assertions.assertTrue(median >= 500000 && median <= 625000, "Median was " + median);
+
+        long p99 = histogram.getPercentile(0.99);
+        Assertions.assertTrue(p99 >= 990000 && p99 <= 1000000, "p99 was " + p99);
+    }
+
+    @Test
+    @DisplayName("Test merging TickHistograms")
+    void testMerge() {
+        TickHistogram a = new TickHistogram();
+        TickHistogram b = new TickHistogram();
+
+        a.record(3);
+        b.record(Long.MAX_VALUE);
+
+        TickHistogram merged = a.copy();
+        merged.merge(b);
+
+        Assertions.assertEquals(2, merged.getCount());
+        Assertions.assertEquals(Long.MAX_VALUE, merged.getMax());
+        Assertions.assertEquals(3, merged.getPercentile(0.5));
+        Assertions.assertEquals(1, a.getCount());
+        Assertions.assertEquals(0, new TickHistogram().getPercentile(0.99));
+    }
+
+}
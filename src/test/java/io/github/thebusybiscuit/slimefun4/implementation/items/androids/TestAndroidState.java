@@ -0,0 +1,68 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import java.util.Map;
+
+import org.bukkit.block.BlockFace;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
+
+class TestAndroidState {
+
+    @BeforeAll
+    public static void load() {
+        MockBukkit.mock();
+        MockBukkit.load(Slimefun.class);
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test loading the state of an Android")
+    void testLoad() {
+        BlockInfoConfig data = new BlockInfoConfig(Map.of("script", "START-GO_FORWARD-NOT_AN_INSTRUCTION-REPEAT", "index", "2", "fuel", "41.5", "rotation", "EAST"));
+        AndroidState state = AndroidState.load(data, "START-TURN_LEFT-REPEAT");
+
+        Assertions.assertArrayEquals(new Instruction[] { Instruction.START, Instruction.GO_FORWARD, null, Instruction.REPEAT }, state.getProgram());
+        Assertions.assertEquals("NOT_AN_INSTRUCTION", state.getToken(2));
+        Assertions.assertEquals(2, state.getIndex());
+        Assertions.assertEquals(41.5F, state.getFuel());
+        Assertions.assertEquals(BlockFace.EAST, state.getRotation());
+    }
+
+    @Test
+    @DisplayName("Test the default state of an Android")
+    void testDefaults() {
+        AndroidState state = AndroidState.load(new BlockInfoConfig(), "START-TURN_LEFT-REPEAT");
+
+        Assertions.assertArrayEquals(new Instruction[] { Instruction.START, Instruction.TURN_LEFT, Instruction.REPEAT }, state.getProgram());
+        Assertions.assertEquals(0, state.getIndex());
+        Assertions.assertEquals(0, state.getFuel());
+        Assertions.assertEquals(BlockFace.NORTH, state.getRotation());
+    }
+
+    @Test
+    @DisplayName("Test recompiling the script of an Android")
+    void testSetScript() {
+        AndroidState state = AndroidState.load(new BlockInfoConfig(), "START-TURN_LEFT-REPEAT");
+        Instruction[] program = state.getProgram();
+
+        state.setScript("START-TURN_LEFT-REPEAT");
+        Assertions.assertSame(program, state.getProgram());
+
+        state.setScript("START-WAIT-TURN_RIGHT-REPEAT");
+        Assertions.assertArrayEquals(new Instruction[] { Instruction.START, Instruction.WAIT, Instruction.TURN_RIGHT, Instruction.REPEAT }, state.getProgram());
+    }
+
+}
@@ -0,0 +1,69 @@
+package io.github.thebusybiscuit.slimefun4.implementation.operations;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+
+class TestOperationSerializers {
+
+    @BeforeAll
+    public static void load() {
+        MockBukkit.mock();
+        MockBukkit.load(Slimefun.class);
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test serializing a CraftingOperation")
+    void testCraftingOperation() {
+        ItemStack[] ingredients = { new ItemStack(Material.IRON_INGOT, 3), null, new ItemStack(Material.COAL) };
+        ItemStack[] results = { new ItemStack(Material.IRON_BLOCK) };
+        CraftingOperation operation = new CraftingOperation(ingredients, results, 12);
+
+        String data = OperationSerializers.CRAFTING.serialize(operation);
+        Assertions.assertNotNull(data);
+
+        CraftingOperation restored = OperationSerializers.CRAFTING.deserialize(data);
+        Assertions.assertNotNull(restored);
+        Assertions.assertEquals(12, restored.getTotalTicks());
+        Assertions.assertEquals(0, restored.getProgress());
+        Assertions.assertArrayEquals(ingredients, restored.getIngredients());
+        Assertions.assertArrayEquals(results, restored.getResults());
+    }
+
+    @Test
+    @DisplayName("Test serializing a FuelOperation without a result")
+    void testFuelOperation() {
+        FuelOperation operation = new FuelOperation(new ItemStack(Material.COAL_BLOCK), null, 40);
+
+        String data = OperationSerializers.FUEL.serialize(operation);
+        Assertions.assertNotNull(data);
+
+        FuelOperation restored = OperationSerializers.FUEL.deserialize(data);
+        Assertions.assertNotNull(restored);
+        Assertions.assertEquals(40, restored.getTotalTicks());
+        Assertions.assertEquals(new ItemStack(Material.COAL_BLOCK), restored.getIngredient());
+        Assertions.assertNull(restored.getResult());
+    }
+
+    @Test
+    @DisplayName("Test deserializing invalid data")
+    void testInvalidData() {
+        Assertions.assertNull(OperationSerializers.CRAFTING.deserialize("12;v:IRON_INGOT:1"));
+        Assertions.assertNull(OperationSerializers.MINING.deserialize("12;v:NOT_A_MATERIAL:1"));
+        Assertions.assertNull(OperationSerializers.decodeItem("x:STONE:1"));
+    }
+
+}
@@ -0,0 +1,60 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+
+class TestTickingChunk {
+
+    private static ServerMock server;
+
+    @BeforeAll
+    public static void load() {
+        server = MockBukkit.mock();
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test adding and removing blocks of a TickingChunk")
+    void testAddAndRemove() {
+        World world = server.addSimpleWorld("ticking_chunk");
+        TickingChunk chunk = new TickingChunk(world, 0, 0);
+
+        Location first = new Location(world, 1, 64, 1);
+        Location second = new Location(world, 2, 64, 2);
+        Location third = new Location(world, 3, 64, 3);
+
+        chunk.add(first);
+        chunk.add(second);
+        chunk.add(third);
+        chunk.add(second);
+        Assertions.assertEquals(3, chunk.getBlocks().length);
+
+        TickingChunk.TickingBlock[] snapshot = chunk.getBlocks();
+        chunk.remove(first);
+
+        // Snapshots that were handed out before must not change
+        Assertions.assertEquals(3, snapshot.length);
+        Assertions.assertEquals(2, chunk.getBlocks().length);
+        Assertions.assertNull(chunk.find(first));
+        Assertions.assertEquals(second, chunk.find(second).getLocation());
+        Assertions.assertEquals(third, chunk.find(third).getLocation());
+
+        chunk.remove(third);
+        chunk.remove(second);
+        Assertions.assertTrue(chunk.isEmpty());
+        Assertions.assertEquals(0, chunk.getBlocks().length);
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.github.thebusybiscuit.slimefun4.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
+
+class TestBlockInfoConfig {
+
+    @Test
+    @DisplayName("Test typed slots and their String representation")
+    void testTypedSlots() {
+        BlockInfoConfig cfg = new BlockInfoConfig();
+        cfg.setValue("id", "SMALL_CAPACITOR");
+        cfg.setInt("energy-charge", 128);
+        cfg.setBoolean("enabled", true);
+
+        Assertions.assertEquals(128, cfg.getInt("energy-charge", 0));
+        Assertions.assertEquals("128", cfg.getString("energy-charge"));
+        Assertions.assertEquals("true", cfg.getString("enabled"));
+        Assertions.assertTrue(cfg.contains("enabled"));
+        Assertions.assertEquals(3, cfg.getKeys().size());
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("id", "SMALL_CAPACITOR");
+        expected.put("energy-charge", "128");
+        expected.put("enabled", "true");
+        Map<String, String> snapshot = cfg.toMap();
+        Assertions.assertEquals(expected, snapshot);
+        Assertions.assertEquals(expected, cfg.getMap());
+
+        // A snapshot must not change with the values
+        cfg.setInt("energy-charge", 64);
+        Assertions.assertEquals(64, cfg.getInt("energy-charge", 0));
+        Assertions.assertEquals("128", snapshot.get("energy-charge"));
+    }
+
+    @Test
+    @DisplayName("Test that the Map of a BlockInfoConfig is a live view")
+    void testLiveMap() {
+        BlockInfoConfig cfg = new BlockInfoConfig();
+        cfg.setValue("id", "SMALL_CAPACITOR");
+        cfg.setInt("energy-charge", 128);
+
+        Map<String, String> map = cfg.getMap();
+        Assertions.assertEquals(2, map.size());
+
+        cfg.setInt("energy-charge", 64);
+        Assertions.assertEquals("64", map.get("energy-charge"));
+
+        map.put("energy-charge", "32");
+        Assertions.assertEquals(32, cfg.getInt("energy-charge", 0));
+
+        map.put("owner", "Notch");
+        Assertions.assertEquals("Notch", cfg.getString("owner"));
+
+        map.remove("id");
+        Assertions.assertFalse(cfg.contains("id"));
+
+        map.entrySet().removeIf(entry -> entry.getKey().equals("owner"));
+        Assertions.assertFalse(cfg.contains("owner"));
+        Assertions.assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Test that String values are parsed into typed slots")
+    void testStringValues() {
+        BlockInfoConfig cfg = new BlockInfoConfig();
+        cfg.setValue("frequency", "7");
+        cfg.setValue("owner", "not-a-number");
+
+        Assertions.assertEquals(7, cfg.getInt("frequency", 0));
+        Assertions.assertEquals(-1, cfg.getInt("owner", -1));
+
+        cfg.setValue("frequency", "9");
+        Assertions.assertEquals(9, cfg.getInt("frequency", 0));
+
+        cfg.setValue("frequency", null);
+        Assertions.assertFalse(cfg.contains("frequency"));
+        Assertions.assertEquals(0, cfg.getInt("frequency", 0));
+    }
+
+}
@@ -0,0 +1,43 @@
+package io.github.thebusybiscuit.slimefun4.storage;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.test.TestUtilities;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+
+class TestBlockStorage {
+
+    private static ServerMock server;
+
+    @BeforeAll
+    public static void load() {
+        server = MockBukkit.mock();
+        MockBukkit.load(Slimefun.class);
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test that BlockStorage#getOrCreate only ever creates one BlockStorage per World")
+    void testGetOrCreate() {
+        World world = server.addSimpleWorld("world_" + TestUtilities.randomInt());
+
+        BlockStorage storage = BlockStorage.getOrCreate(world);
+        Assertions.assertSame(storage, Slimefun.getRegistry().getWorlds().get(world.getName()));
+        Assertions.assertSame(storage, BlockStorage.getOrCreate(world));
+        Assertions.assertSame(storage, BlockStorage.getStorage(world));
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.github.thebusybiscuit.slimefun4.storage.backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.thebusybiscuit.slimefun4.storage.backend.regions.RegionFile;
+import io.github.thebusybiscuit.slimefun4.storage.backend.regions.RegionStorage;
+
+class TestRegionStorage {
+
+    @TempDir
+    File directory;
+
+    @Test
+    @DisplayName("Test writing and reading a chunk from region files")
+    void testReadWrite() throws IOException {
+        RegionStorage storage = new RegionStorage(directory);
+
+        Map<Long, Map<String, String>> blocks = new HashMap<>();
+        blocks.put(RegionStorage.getPosition(-17, -60, 33), Map.of("id", "ELECTRIC_FURNACE", "energy-charge", "12"));
+        storage.writeChunk(-2, 2, blocks);
+        storage.close();
+
+        Map<String, String> found = new HashMap<>();
+        RegionStorage reopened = new RegionStorage(directory);
+        int amount = reopened.readChunk(-2, 2, (x, y, z, data) -> {
+            Assertions.assertEquals(-17, x);
+            Assertions.assertEquals(-60, y);
+            Assertions.assertEquals(33, z);
+            found.putAll(data);
+        });
+
+        Assertions.assertEquals(1, amount);
+        Assertions.assertEquals("ELECTRIC_FURNACE", found.get("id"));
+        Assertions.assertEquals("12", found.get("energy-charge"));
+        Assertions.assertEquals(1, reopened.readAll((x, y, z, data) -> {}));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Test deleting a chunk from a region file")
+    void testDeleteChunk() throws IOException {
+        RegionStorage storage = new RegionStorage(directory);
+
+        storage.writeChunk(3, 4, Map.of(RegionStorage.getPosition(48, 64, 64), Map.of("id", "CARGO_NODE")));
+        storage.writeChunk(3, 4, new HashMap<>());
+
+        Assertions.assertEquals(0, storage.readChunk(3, 4, (x, y, z, data) -> {}));
+        storage.close();
+    }
+
+    @Test
+    @DisplayName("Test that journaled blocks survive a restart and are compacted into region files")
+    void testJournal() throws IOException {
+        RegionStorage storage = new RegionStorage(directory);
+        storage.writeBlock(5, 70, -3, Map.of("id", "ENERGY_REGULATOR"));
+        storage.writeBlock(6, 70, -3, Map.of("id", "SMALL_CAPACITOR", "energy-charge", "128"));
+        storage.writeBlock(5, 70, -3, null);
+        storage.close();
+
+        // The journal has not been compacted yet, so it must be replayed
+        RegionStorage reopened = new RegionStorage(directory);
+        Map<String, String> found = new HashMap<>();
+        Assertions.assertEquals(1, reopened.readChunk(0, -1, (x, y, z, data) -> found.putAll(data)));
+        Assertions.assertEquals("128", found.get("energy-charge"));
+
+        reopened.compact();
+        Assertions.assertFalse(new File(directory, "journal.0.sfj").exists());
+        Assertions.assertEquals(1, reopened.readAll((x, y, z, data) -> {}));
+        reopened.close();
+
+        RegionStorage compacted = new RegionStorage(directory);
+        Assertions.assertEquals(1, compacted.readChunk(0, -1, (x, y, z, data) -> {}));
+        compacted.close();
+    }
+
+    @Test
+    @DisplayName("Test that region files do not grow endlessly")
+    void testCompaction() throws IOException {
+        File file = new File(directory, "r.0.0.sfr");
+        RegionFile region = new RegionFile(file);
+
+        for (int i = 1; i <= 1000; i++) {
+            region.write(0, 0, new byte[i * 10]);
+        }
+
+        Assertions.assertEquals(10000, region.read(0, 0).length);
+        Assertions.assertTrue(file.length() < 1024L * 1024L * 2L);
+        region.close();
+    }
+
+    @Test
+    @DisplayName("Test that a region file keeps pointing to the old payload until it was synced")
+    void testPayloadsAreNotOverwritten() throws IOException {
+        File file = new File(directory, "r.1.1.sfr");
+        RegionFile region = new RegionFile(file);
+        region.write(32, 32, new byte[] { 1, 2, 3 });
+        region.close();
+
+        RegionFile reopened = new RegionFile(file);
+        reopened.write(32, 32, new byte[] { 4, 5, 6 });
+
+        // This simulates a crash before the region was synced
+        RegionFile crashed = new RegionFile(file);
+        Assertions.assertArrayEquals(new byte[] { 1, 2, 3 }, crashed.read(32, 32));
+        crashed.close();
+
+        reopened.sync();
+        RegionFile synced = new RegionFile(file);
+        Assertions.assertArrayEquals(new byte[] { 4, 5, 6 }, synced.read(32, 32));
+        synced.close();
+        reopened.close();
+    }
+
+}
@@ -0,0 +1,81 @@
+package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+
+class TestMachineRecipeIndex {
+
+    private static SlimefunItemStack dust;
+    private static SlimefunItemStack otherDust;
+
+    private static MachineRecipe alloy;
+    private static MachineRecipe gold;
+    private static MachineRecipe dustRecipe;
+    private static MachineRecipeIndex index;
+
+    @BeforeAll
+    public static void load() {
+        MockBukkit.mock();
+        MockBukkit.load(Slimefun.class);
+
+        dust = new SlimefunItemStack("MACHINE_RECIPE_INDEX_TEST_DUST", Material.SUGAR, "&7Test Dust");
+        otherDust = new SlimefunItemStack("MACHINE_RECIPE_INDEX_OTHER_DUST", Material.SUGAR, "&7Other Dust");
+
+        alloy = new MachineRecipe(4, new ItemStack[] { new ItemStack(Material.IRON_INGOT), new ItemStack(Material.COAL) }, new ItemStack[] { new ItemStack(Material.NETHERITE_SCRAP) });
+        gold = new MachineRecipe(4, new ItemStack[] { new ItemStack(Material.GOLD_INGOT) }, new ItemStack[] { new ItemStack(Material.GOLD_NUGGET, 9) });
+        dustRecipe = new MachineRecipe(4, new ItemStack[] { dust }, new ItemStack[] { new ItemStack(Material.GLOWSTONE_DUST) });
+        index = new MachineRecipeIndex(Arrays.asList(alloy, gold, dustRecipe));
+    }
+
+    @AfterAll
+    public static void unload() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    @DisplayName("Test that recipes are found by their ingredients")
+    void testMatchingIngredients() {
+        List<MachineRecipe> candidates = index.getCandidates(Arrays.asList(new ItemStack(Material.COAL), new ItemStack(Material.IRON_INGOT)));
+        Assertions.assertEquals(Collections.singletonList(alloy), candidates);
+
+        Assertions.assertEquals(Collections.singletonList(gold), index.getCandidates(Collections.singletonList(new ItemStack(Material.GOLD_INGOT, 3))));
+        Assertions.assertEquals(Collections.singletonList(dustRecipe), index.getCandidates(Collections.singletonList(new ItemStack(dust))));
+
+        // An item without any id may still match the ItemMeta of a Slimefun item
+        Assertions.assertEquals(Collections.singletonList(dustRecipe), index.getCandidates(Collections.singletonList(new ItemStack(Material.SUGAR))));
+    }
+
+    @Test
+    @DisplayName("Test that recipes with a missing ingredient are not found")
+    void testMissingIngredients() {
+        Assertions.assertTrue(index.getCandidates(Collections.singletonList(new ItemStack(Material.IRON_INGOT))).isEmpty());
+        Assertions.assertTrue(index.getCandidates(Collections.singletonList(new ItemStack(Material.DIAMOND))).isEmpty());
+        Assertions.assertTrue(index.getCandidates(Collections.emptyList()).isEmpty());
+
+        // Same Material, but a different Slimefun item
+        Assertions.assertTrue(index.getCandidates(Collections.singletonList(new ItemStack(otherDust))).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test that an index knows which recipes it reflects")
+    void testIsIndexing() {
+        Assertions.assertTrue(index.isIndexing(Arrays.asList(alloy, gold, dustRecipe)));
+        Assertions.assertFalse(index.isIndexing(Arrays.asList(alloy, gold)));
+        Assertions.assertFalse(index.isIndexing(Arrays.asList(gold, alloy, dustRecipe)));
+    }
+
+}